@@ -0,0 +1,103 @@
+package com.seletest.bench;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seletest.api.models.TodoItem;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+/**
+ * GET /items bodies of increasing size through the paths TodoApiTest uses:
+ * Jackson binding, REST Assured GPath body assertions, and a streaming
+ * JsonParser pass as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemsListBenchmark {
+    
+    private static final TypeReference<List<TodoItem>> TODO_LIST = new TypeReference<List<TodoItem>>() {};
+    
+    @Param({"10", "1000", "100000"})
+    public int size;
+    
+    private ObjectMapper mapper;
+    private JsonFactory jsonFactory;
+    private String itemsJson;
+    private List<TodoItem> items;
+    private String firstText;
+    private Response response;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        mapper = new ObjectMapper();
+        jsonFactory = mapper.getFactory();
+        itemsJson = ItemsPayloads.itemsJson(size);
+        items = mapper.readValue(itemsJson, TODO_LIST);
+        firstText = items.get(0).getText();
+        response = new ResponseBuilder()
+            .setStatusCode(200)
+            .setContentType("application/json")
+            .setBody(itemsJson)
+            .build();
+    }
+    
+    @Benchmark
+    public List<TodoItem> jacksonDeserializeList() throws Exception {
+        return mapper.readValue(itemsJson, TODO_LIST);
+    }
+    
+    @Benchmark
+    public byte[] jacksonSerializeList() throws Exception {
+        return mapper.writeValueAsBytes(items);
+    }
+    
+    @Benchmark
+    public int streamingCount() throws Exception {
+        int count = 0;
+        try (JsonParser parser = jsonFactory.createParser(itemsJson)) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    @Benchmark
+    public Object gpathHasSize() {
+        // Mirrors .body("", hasSize(n)) in TodoApiTest
+        return response.then().body("", hasSize(size));
+    }
+    
+    @Benchmark
+    public Object gpathFirstText() {
+        // Mirrors .body("[0].text", equalTo(...)) in TodoApiTest
+        return response.then().body("[0].text", equalTo(firstText));
+    }
+    
+    @Benchmark
+    public List<Integer> jsonPathIds() {
+        return new JsonPath(itemsJson).getList("id", Integer.class);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.seletest.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Random;
+
+/**
+ * GET /items bodies for the benchmarks. A recorded response is used when
+ * {@code -Dbench.payloadDir} holds an {@code items-<size>.json}; otherwise a
+ * deterministic payload with the server's field layout is generated.
+ */
+public class ItemsPayloads {
+    
+    private static final Instant BASE_TIME = Instant.parse("2025-01-01T00:00:00Z");
+    
+    public static String itemsJson(int size) {
+        String payloadDir = System.getProperty("bench.payloadDir");
+        if (payloadDir != null) {
+            Path recorded = Paths.get(payloadDir, "items-" + size + ".json");
+            if (Files.isRegularFile(recorded)) {
+                try {
+                    return new String(Files.readAllBytes(recorded), StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Could not read recorded payload " + recorded, e);
+                }
+            }
+        }
+        return generate(size);
+    }
+    
+    static String generate(int size) {
+        Random random = new Random(size);
+        StringBuilder json = new StringBuilder(size * 110 + 2).append('[');
+        for (int i = 1; i <= size; i++) {
+            if (i > 1) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                .append(",\"text\":\"Todo item ").append(i).append(" - ").append(Long.toHexString(random.nextLong()))
+                .append("\",\"completed\":").append(random.nextInt(4) == 0)
+                .append(",\"userId\":1")
+                .append(",\"createdAt\":\"").append(BASE_TIME.plusSeconds(i)).append('"');
+            if (random.nextInt(3) == 0) {
+                json.append(",\"updatedAt\":\"").append(BASE_TIME.plusSeconds(i + 60L)).append('"');
+            }
+            json.append('}');
+        }
+        return json.append(']').toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.seletest.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seletest.api.models.LoginRequest;
+import com.seletest.api.models.TodoItem;
+import com.seletest.api.utils.ApiConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-object Jackson round trips for the request bodies and responses
+ * every API test sends and receives.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ModelSerializationBenchmark {
+    
+    private ObjectMapper mapper;
+    private LoginRequest loginRequest;
+    private TodoItem todoItem;
+    private String todoJson;
+    private String loginJson;
+    
+    @Setup
+    public void setUp() throws Exception {
+        mapper = new ObjectMapper();
+        loginRequest = new LoginRequest(ApiConfig.VALID_USERNAME_ADMIN, ApiConfig.VALID_PASSWORD_ADMIN);
+        todoItem = new TodoItem("Test Todo Item");
+        todoJson = "{\"id\":42,\"text\":\"Test Todo Item\",\"completed\":false,\"userId\":1,"
+            + "\"createdAt\":\"2025-01-01T00:00:00.000Z\",\"updatedAt\":\"2025-01-01T00:01:00.000Z\"}";
+        loginJson = mapper.writeValueAsString(loginRequest);
+    }
+    
+    @Benchmark
+    public byte[] serializeLoginRequest() throws Exception {
+        return mapper.writeValueAsBytes(loginRequest);
+    }
+    
+    @Benchmark
+    public LoginRequest deserializeLoginRequest() throws Exception {
+        return mapper.readValue(loginJson, LoginRequest.class);
+    }
+    
+    @Benchmark
+    public byte[] serializeTodoItem() throws Exception {
+        return mapper.writeValueAsBytes(todoItem);
+    }
+    
+    @Benchmark
+    public TodoItem deserializeTodoItem() throws Exception {
+        return mapper.readValue(todoJson, TodoItem.class);
+    }
+    
+    @Benchmark
+    public byte[] serializeTodoItemFreshMapper() throws Exception {
+        // What a helper that news up its own ObjectMapper per call pays
+        return new ObjectMapper().writeValueAsBytes(todoItem);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.seletest.bench;
+
+import com.seletest.api.models.TodoItem;
+import com.seletest.api.utils.ApiConfig;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Cost of building the request specification every TodoApiTest call starts
+ * with, configured the way BaseApiTest.setUp leaves RestAssured. No request
+ * is sent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RequestSpecBenchmark {
+    
+    private static final String TOKEN = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9."
+        + "eyJpZCI6MSwidXNlcm5hbWUiOiJhZG1pbiIsImlhdCI6MTcwMDAwMDAwMCwiZXhwIjoxNzAwMDg2NDAwfQ."
+        + "c2lnbmF0dXJl";
+        
+    private TodoItem todo;
+    private RequestSpecification prebuiltSpec;
+    
+    @Setup
+    public void setUp() {
+        RestAssured.baseURI = ApiConfig.BASE_URL;
+        RestAssured.requestSpecification = RestAssured.given()
+            .contentType(ApiConfig.CONTENT_TYPE_JSON);
+        todo = new TodoItem("Test Todo Item");
+        prebuiltSpec = new RequestSpecBuilder()
+            .setContentType(ApiConfig.CONTENT_TYPE_JSON)
+            .addHeader(ApiConfig.AUTHORIZATION_HEADER, ApiConfig.BEARER_PREFIX + TOKEN)
+            .build();
+    }
+    
+    @TearDown
+    public void tearDown() {
+        RestAssured.reset();
+    }
+    
+    @Benchmark
+    public RequestSpecification givenHeaderAndBody() {
+        return given()
+            .header(ApiConfig.AUTHORIZATION_HEADER, ApiConfig.BEARER_PREFIX + TOKEN)
+            .body(todo);
+    }
+    
+    @Benchmark
+    public RequestSpecification givenHeaderOnly() {
+        return given()
+            .header(ApiConfig.AUTHORIZATION_HEADER, ApiConfig.BEARER_PREFIX + TOKEN);
+    }
+    
+    @Benchmark
+    public RequestSpecification givenPrebuiltSpec() {
+        return given().spec(prebuiltSpec).body(todo);
+    }
+    
+    @Benchmark
+    public RequestSpecification specBuilderPerCall() {
+        return new RequestSpecBuilder()
+            .setContentType(ApiConfig.CONTENT_TYPE_JSON)
+            .addHeader(ApiConfig.AUTHORIZATION_HEADER, ApiConfig.BEARER_PREFIX + TOKEN)
+            .setBody(todo)
+            .build();
+    }
+}
\ No newline at end of file
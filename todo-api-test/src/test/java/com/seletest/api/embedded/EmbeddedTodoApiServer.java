@@ -0,0 +1,435 @@
+package com.seletest.api.embedded;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for todo-api/server.js, implementing the same routes,
+ * status codes and messages on the JDK's built-in HTTP server. Select it
+ * for the API suites with {@code -Dapi.server=embedded}; it binds a random
+ * port and starts in milliseconds. {@link #main} runs it standalone on a
+ * fixed port for the load generator or the web app.
+ */
+public class EmbeddedTodoApiServer {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String JWT_SECRET = "your-secret-key";
+    private static final long TOKEN_TTL_SECONDS = 24 * 60 * 60;
+    private static final DateTimeFormatter ISO_MILLIS =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+    // Marks a request whose body express.json() would have left undefined
+    private static final JsonNode NO_BODY = null;
+    
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Jwt jwt = new Jwt(JWT_SECRET, TOKEN_TTL_SECONDS);
+    private final TodoStore todos = new TodoStore();
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+    private final AtomicInteger nextUserId = new AtomicInteger(1);
+    
+    private EmbeddedTodoApiServer(HttpServer server) {
+        this.server = server;
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "embedded-todo-api");
+            thread.setDaemon(true);
+            return thread;
+        });
+        addUser("admin", "password");
+        addUser("user", "123456");
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+    }
+    
+    public static EmbeddedTodoApiServer start() {
+        return start(0);
+    }
+    
+    public static EmbeddedTodoApiServer start(int port) {
+        // Headers and body go out as separate writes; without TCP_NODELAY every
+        // response with a body stalls ~40ms on Nagle plus delayed ACK
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        try {
+            EmbeddedTodoApiServer api = new EmbeddedTodoApiServer(
+                HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0));
+            api.server.start();
+            return api;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded todo API on port " + port, e);
+        }
+    }
+    
+    public static void main(String[] args) {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 3001;
+        EmbeddedTodoApiServer api = start(port);
+        System.out.println("Embedded todo API running on " + api.getBaseUrl());
+    }
+    
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+    
+    public int getTodoCount() {
+        return todos.size();
+    }
+    
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+    
+    private User addUser(String username, String password) {
+        User user = new User(nextUserId.getAndIncrement(), username, password);
+        return users.putIfAbsent(username, user) == null ? user : null;
+    }
+    
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+            String method = exchange.getRequestMethod().toUpperCase(Locale.ROOT);
+            if ("OPTIONS".equals(method)) {
+                preflight(exchange);
+                return;
+            }
+            
+            JsonNode body;
+            try {
+                body = readBody(exchange);
+            } catch (JsonProcessingException e) {
+                send(exchange, 400, message("Invalid JSON"));
+                return;
+            }
+            
+            route(exchange, "HEAD".equals(method) ? "GET" : method, normalize(exchange.getRequestURI().getPath()), body);
+        } catch (Exception e) {
+            send(exchange, 500, message("Something went wrong!"));
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    private void route(HttpExchange exchange, String method, String path, JsonNode body) throws IOException {
+        String lower = path.toLowerCase(Locale.ROOT);
+        
+        if ("POST".equals(method) && "/login".equals(lower)) {
+            login(exchange, body);
+        } else if ("/items".equals(lower) && ("GET".equals(method) || "POST".equals(method))) {
+            Integer userId = authenticate(exchange);
+            if (userId == null) {
+                return;
+            }
+            if ("GET".equals(method)) {
+                send(exchange, 200, MAPPER.valueToTree(todos.list(userId)));
+            } else {
+                createTodo(exchange, userId, body);
+            }
+        } else if (lower.startsWith("/items/") && lower.indexOf('/', 7) < 0 && lower.length() > 7
+            && ("PUT".equals(method) || "DELETE".equals(method))) {
+            Integer userId = authenticate(exchange);
+            if (userId == null) {
+                return;
+            }
+            Integer todoId = parseInt(path.substring(7));
+            if ("PUT".equals(method)) {
+                updateTodo(exchange, userId, todoId, body);
+            } else if (todoId != null && todos.remove(userId, todoId)) {
+                send(exchange, 204, null);
+            } else {
+                send(exchange, 404, message("Todo not found"));
+            }
+        } else if ("GET".equals(method) && "/health".equals(lower)) {
+            send(exchange, 200, MAPPER.createObjectNode().put("status", "OK").put("timestamp", now()));
+        } else if ("DELETE".equals(method) && "/test/clear-data".equals(lower)) {
+            todos.clear();
+            send(exchange, 200, message("Test data cleared").put("timestamp", now()));
+        } else if ("POST".equals(method) && "/test/users".equals(lower)) {
+            registerUser(exchange, body);
+        } else {
+            send(exchange, 404, message("Endpoint not found"));
+        }
+    }
+    
+    private void login(HttpExchange exchange, JsonNode body) throws IOException {
+        if (body == NO_BODY) {
+            send(exchange, 500, message("Server error"));
+            return;
+        }
+        JsonNode username = body.get("username");
+        JsonNode password = body.get("password");
+        if (!truthy(username) || !truthy(password)) {
+            send(exchange, 400, message("Username and password are required"));
+            return;
+        }
+        
+        User user = username.isTextual() ? users.get(username.asText()) : null;
+        if (user == null) {
+            send(exchange, 401, message("Invalid credentials"));
+            return;
+        }
+        if (!password.isTextual()) {
+            // bcrypt.compare rejects non-string input
+            send(exchange, 500, message("Server error"));
+            return;
+        }
+        if (!user.password.equals(password.asText())) {
+            send(exchange, 401, message("Invalid credentials"));
+            return;
+        }
+        
+        ObjectNode response = MAPPER.createObjectNode().put("token", jwt.sign(user.id, user.username));
+        response.putObject("user").put("id", user.id).put("username", user.username);
+        send(exchange, 200, response);
+    }
+    
+    private void createTodo(HttpExchange exchange, int userId, JsonNode body) throws IOException {
+        if (body == NO_BODY) {
+            send(exchange, 500, message("Server error"));
+            return;
+        }
+        JsonNode text = body.get("text");
+        if (!truthy(text)) {
+            send(exchange, 400, message("Todo text is required"));
+            return;
+        }
+        if (!text.isTextual()) {
+            send(exchange, 500, message("Server error"));
+            return;
+        }
+        String trimmed = text.asText().strip();
+        if (trimmed.isEmpty()) {
+            send(exchange, 400, message("Todo text is required"));
+            return;
+        }
+        
+        ObjectNode todo = MAPPER.createObjectNode()
+            .put("id", todos.nextId())
+            .put("text", trimmed)
+            .put("completed", false)
+            .put("userId", userId)
+            .put("createdAt", now());
+        todos.add(userId, todo);
+        send(exchange, 201, todo);
+    }
+    
+    private void updateTodo(HttpExchange exchange, int userId, Integer todoId, JsonNode body) throws IOException {
+        if (todoId == null || !todos.contains(userId, todoId)) {
+            send(exchange, 404, message("Todo not found"));
+            return;
+        }
+        if (body == NO_BODY) {
+            send(exchange, 500, message("Server error"));
+            return;
+        }
+        
+        JsonNode text = body.get("text");
+        String trimmed = null;
+        if (text != null) {
+            if (!truthy(text)) {
+                send(exchange, 400, message("Todo text cannot be empty"));
+                return;
+            }
+            if (!text.isTextual()) {
+                send(exchange, 500, message("Server error"));
+                return;
+            }
+            trimmed = text.asText().strip();
+            if (trimmed.isEmpty()) {
+                send(exchange, 400, message("Todo text cannot be empty"));
+                return;
+            }
+        }
+        
+        String newText = trimmed;
+        JsonNode completed = body.get("completed");
+        ObjectNode updated = todos.update(userId, todoId, todo -> {
+            if (newText != null) {
+                todo.put("text", newText);
+            }
+            if (completed != null) {
+                todo.set("completed", completed);
+            }
+            return todo.put("updatedAt", now());
+        });
+        
+        if (updated == null) {
+            // Deleted between the lookup and the update
+            send(exchange, 404, message("Todo not found"));
+        } else {
+            send(exchange, 200, updated);
+        }
+    }
+    
+    private void registerUser(HttpExchange exchange, JsonNode body) throws IOException {
+        JsonNode username = body == NO_BODY ? null : body.get("username");
+        JsonNode password = body == NO_BODY ? null : body.get("password");
+        if (!truthy(username) || !truthy(password)) {
+            send(exchange, 400, message("Username and password are required"));
+            return;
+        }
+        
+        User user = addUser(username.asText(), password.asText());
+        if (user == null) {
+            send(exchange, 409, message("User already exists"));
+            return;
+        }
+        send(exchange, 201, MAPPER.createObjectNode().put("id", user.id).put("username", user.username));
+    }
+    
+    private Integer authenticate(HttpExchange exchange) throws IOException {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        String[] parts = header == null ? new String[0] : header.split(" ");
+        String token = parts.length > 1 ? parts[1] : null;
+        
+        if (token == null || token.isEmpty()) {
+            send(exchange, 401, message("Access token required"));
+            return null;
+        }
+        
+        JsonNode claims = jwt.verify(token);
+        if (claims == null || !claims.hasNonNull("id")) {
+            send(exchange, 403, message("Invalid or expired token"));
+            return null;
+        }
+        return claims.get("id").asInt();
+    }
+    
+    private JsonNode readBody(HttpExchange exchange) throws IOException {
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        byte[] bytes;
+        try (InputStream in = exchange.getRequestBody()) {
+            bytes = in.readAllBytes();
+        }
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("application/json")) {
+            return NO_BODY;
+        }
+        if (bytes.length == 0) {
+            return MAPPER.createObjectNode();
+        }
+        
+        JsonNode parsed = MAPPER.readTree(bytes);
+        if (parsed == null || !(parsed.isObject() || parsed.isArray())) {
+            // express.json() runs in strict mode: only objects and arrays
+            throw new JsonProcessingException("Unexpected JSON primitive") { };
+        }
+        return parsed.isArray() ? MAPPER.createObjectNode() : parsed;
+    }
+    
+    private void preflight(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Access-Control-Allow-Methods", "GET,HEAD,PUT,PATCH,POST,DELETE");
+        String requested = exchange.getRequestHeaders().getFirst("Access-Control-Request-Headers");
+        if (requested != null) {
+            exchange.getResponseHeaders().set("Access-Control-Allow-Headers", requested);
+        }
+        exchange.sendResponseHeaders(204, -1);
+        exchange.close();
+    }
+    
+    private void send(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        boolean head = "HEAD".equalsIgnoreCase(exchange.getRequestMethod());
+        exchange.sendResponseHeaders(status, head ? -1 : bytes.length);
+        if (!head) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+    
+    private static ObjectNode message(String message) {
+        return MAPPER.createObjectNode().put("message", message);
+    }
+    
+    private static String now() {
+        return ISO_MILLIS.format(Instant.now());
+    }
+    
+    private static String normalize(String path) {
+        return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+    
+    /**
+     * JavaScript truthiness of a JSON value; a missing key counts as undefined.
+     */
+    private static boolean truthy(JsonNode value) {
+        if (value == null || value.isNull() || value.isMissingNode()) {
+            return false;
+        }
+        if (value.isBoolean()) {
+            return value.booleanValue();
+        }
+        if (value.isNumber()) {
+            return value.doubleValue() != 0;
+        }
+        if (value.isTextual()) {
+            return !value.textValue().isEmpty();
+        }
+        return true;
+    }
+    
+    /**
+     * Mirrors JavaScript parseInt without a radix: leading whitespace, an
+     * optional sign, an optional 0x prefix, then digits up to the first
+     * non-digit. Returns null where parseInt would give NaN or the value
+     * can't be a todo id.
+     */
+    static Integer parseInt(String raw) {
+        String s = raw.stripLeading();
+        int i = 0;
+        boolean negative = false;
+        if (i < s.length() && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+            negative = s.charAt(i) == '-';
+            i++;
+        }
+        int radix = 10;
+        if (s.regionMatches(true, i, "0x", 0, 2)) {
+            radix = 16;
+            i += 2;
+        }
+        int start = i;
+        while (i < s.length() && Character.digit(s.charAt(i), radix) >= 0) {
+            i++;
+        }
+        if (i == start || i - start > 10) {
+            return null;
+        }
+        long value = Long.parseLong(s.substring(start, i), radix);
+        value = negative ? -value : value;
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? null : (int) value;
+    }
+    
+    private static final class User {
+        private final int id;
+        private final String username;
+        private final String password;
+        
+        private User(int id, String username, String password) {
+            this.id = id;
+            this.username = username;
+            this.password = password;
+        }
+    }
+}
\ No newline at end of file
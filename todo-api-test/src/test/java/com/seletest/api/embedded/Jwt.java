@@ -0,0 +1,79 @@
+package com.seletest.api.embedded;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Minimal HS256 JWT signing and verification, compatible with the tokens
+ * jsonwebtoken issues in todo-api/server.js (same secret, same claims).
+ */
+class Jwt {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String HEADER = ENCODER.encodeToString(
+        "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+        
+    private final byte[] secret;
+    private final long ttlSeconds;
+    
+    Jwt(String secret, long ttlSeconds) {
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.ttlSeconds = ttlSeconds;
+    }
+    
+    String sign(int userId, String username) {
+        long now = System.currentTimeMillis() / 1000;
+        ObjectNode claims = MAPPER.createObjectNode()
+            .put("id", userId)
+            .put("username", username)
+            .put("iat", now)
+            .put("exp", now + ttlSeconds);
+        try {
+            String payload = ENCODER.encodeToString(MAPPER.writeValueAsBytes(claims));
+            String signingInput = HEADER + "." + payload;
+            return signingInput + "." + ENCODER.encodeToString(hmac(signingInput));
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not sign token", e);
+        }
+    }
+    
+    /**
+     * Returns the claims of a valid, unexpired token, or null.
+     */
+    JsonNode verify(String token) {
+        try {
+            String[] parts = token.split("\\.");
+            if (parts.length != 3) {
+                return null;
+            }
+            byte[] expected = hmac(parts[0] + "." + parts[1]);
+            if (!MessageDigest.isEqual(expected, DECODER.decode(parts[2]))) {
+                return null;
+            }
+            JsonNode claims = MAPPER.readTree(DECODER.decode(parts[1]));
+            JsonNode exp = claims.get("exp");
+            if (exp != null && exp.asLong() <= System.currentTimeMillis() / 1000) {
+                return null;
+            }
+            return claims;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+    
+    private byte[] hmac(String input) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+        return mac.doFinal(input.getBytes(StandardCharsets.UTF_8));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.seletest.api.embedded;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory todos indexed by owner, then by id, so listing and id lookups
+ * only touch the calling user's data. Stored nodes are never mutated in
+ * place; updates swap in a modified copy.
+ */
+class TodoStore {
+    
+    private final ConcurrentMap<Integer, ConcurrentNavigableMap<Integer, ObjectNode>> todosByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger nextTodoId = new AtomicInteger(1);
+    
+    int nextId() {
+        return nextTodoId.getAndIncrement();
+    }
+    
+    void add(int userId, ObjectNode todo) {
+        todosByUser.computeIfAbsent(userId, k -> new ConcurrentSkipListMap<>()).put(todo.get("id").asInt(), todo);
+    }
+    
+    List<JsonNode> list(int userId) {
+        ConcurrentNavigableMap<Integer, ObjectNode> todos = todosByUser.get(userId);
+        return todos == null ? new ArrayList<>() : new ArrayList<>(todos.values());
+    }
+    
+    boolean contains(int userId, int todoId) {
+        ConcurrentNavigableMap<Integer, ObjectNode> todos = todosByUser.get(userId);
+        return todos != null && todos.containsKey(todoId);
+    }
+    
+    /**
+     * Applies the update to a copy of the todo and stores it, returning the
+     * new version, or null when the user has no todo with that id.
+     */
+    ObjectNode update(int userId, int todoId, UnaryOperator<ObjectNode> update) {
+        ConcurrentNavigableMap<Integer, ObjectNode> todos = todosByUser.get(userId);
+        return todos == null ? null : todos.computeIfPresent(todoId, (id, current) -> update.apply(current.deepCopy()));
+    }
+    
+    boolean remove(int userId, int todoId) {
+        ConcurrentNavigableMap<Integer, ObjectNode> todos = todosByUser.get(userId);
+        return todos != null && todos.remove(todoId) != null;
+    }
+    
+    int size() {
+        return todosByUser.values().stream().mapToInt(ConcurrentNavigableMap::size).sum();
+    }
+    
+    void clear() {
+        todosByUser.clear();
+        nextTodoId.set(1);
+    }
+}
\ No newline at end of file
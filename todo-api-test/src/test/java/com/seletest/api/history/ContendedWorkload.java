@@ -0,0 +1,177 @@
+package com.seletest.api.history;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.seletest.api.models.LoginRequest;
+import com.seletest.api.models.TodoItem;
+import com.seletest.api.utils.ApiConfig;
+import com.seletest.api.utils.AuthHelper;
+import com.seletest.api.utils.EndpointCoverage;
+import com.seletest.api.utils.TrafficRecordingFilter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Hammers a handful of todos from several threads and accounts at once and
+ * records every call. Threads pick targets from a small pool of recently
+ * created ids shared by all users, so the same todo sees overlapping updates,
+ * deletes and lists, including 404s for other users' todos. A todo pushed
+ * out of the pool is deleted by its owner, which keeps lists short.
+ */
+public class ContendedWorkload {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final TypeReference<List<TodoItem>> ITEMS = new TypeReference<List<TodoItem>>() {};
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String[] TEXTS = {"alpha", "beta", "gamma", "  padded  ", "   "};
+    // Never issued by the server
+    private static final int UNKNOWN_ID = Integer.MAX_VALUE;
+    
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final String[] tokens;
+    private final int threads;
+    private final AtomicLongArray pool;
+    
+    public ContendedWorkload(List<LoginRequest> accounts, int threads, int poolSize) {
+        this.threads = threads;
+        this.pool = new AtomicLongArray(Math.max(1, poolSize));
+        tokens = new String[accounts.size()];
+        for (int i = 0; i < accounts.size(); i++) {
+            tokens[i] = AuthHelper.getToken(accounts.get(i));
+        }
+        EndpointCoverage.record("GET", ApiConfig.ITEMS_ENDPOINT);
+        EndpointCoverage.record("POST", ApiConfig.ITEMS_ENDPOINT);
+        EndpointCoverage.record("PUT", ApiConfig.ITEMS_ENDPOINT + "/1");
+        EndpointCoverage.record("DELETE", ApiConfig.ITEMS_ENDPOINT + "/1");
+    }
+    
+    public HistoryRecorder run(Duration duration, long seed) {
+        HistoryRecorder recorder = new HistoryRecorder();
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Random random = new Random(seed + t);
+                running.add(workers.submit(() -> {
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        step(random, recorder);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : running) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Worker failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running the workload", e);
+        } finally {
+            workers.shutdownNow();
+        }
+        return recorder;
+    }
+    
+    private void step(Random random, HistoryRecorder recorder) throws IOException {
+        int user = random.nextInt(tokens.length);
+        int roll = random.nextInt(100);
+        int target = random.nextInt(20) == 0 ? UNKNOWN_ID : (int) pool.get(random.nextInt(pool.length()));
+        if (roll < 20 || target == 0) {
+            String text = TEXTS[random.nextInt(TEXTS.length)];
+            long invoked = HistoryRecorder.now();
+            HttpResponse<byte[]> response = send("POST", ApiConfig.ITEMS_ENDPOINT, user,
+                MAPPER.createObjectNode().put("text", text));
+            long completed = HistoryRecorder.now();
+            TodoItem created = status(response) == 201 ? MAPPER.readValue(response.body(), TodoItem.class) : null;
+            recorder.recordCreate(user, text, invoked, completed, status(response), created);
+            if (created != null) {
+                long evicted = pool.getAndSet(random.nextInt(pool.length()), (long) user << 32 | created.getId());
+                if (evicted != 0) {
+                    delete((int) (evicted >>> 32), (int) evicted, recorder);
+                }
+            }
+        } else if (roll < 55) {
+            TodoItem request = new TodoItem();
+            ObjectNode body = MAPPER.createObjectNode();
+            if (random.nextInt(10) < 7) {
+                request.setText(TEXTS[random.nextInt(TEXTS.length)]);
+                body.put("text", request.getText());
+            }
+            if (random.nextInt(10) < 7) {
+                request.setCompleted(random.nextBoolean());
+                body.put("completed", request.getCompleted());
+            }
+            long invoked = HistoryRecorder.now();
+            HttpResponse<byte[]> response = send("PUT", ApiConfig.ITEMS_ENDPOINT + "/" + target, user, body);
+            long completed = HistoryRecorder.now();
+            recorder.recordUpdate(user, target, request, invoked, completed, status(response),
+                status(response) == 200 ? MAPPER.readValue(response.body(), TodoItem.class) : null);
+        } else if (roll < 65) {
+            delete(user, target, recorder);
+        } else {
+            long invoked = HistoryRecorder.now();
+            HttpResponse<byte[]> response = send("GET", ApiConfig.ITEMS_ENDPOINT, user, null);
+            long completed = HistoryRecorder.now();
+            recorder.recordList(user, invoked, completed, status(response),
+                status(response) == 200 ? MAPPER.readValue(response.body(), ITEMS) : null);
+        }
+    }
+    
+    private void delete(int user, int target, HistoryRecorder recorder) {
+        long invoked = HistoryRecorder.now();
+        HttpResponse<byte[]> response = send("DELETE", ApiConfig.ITEMS_ENDPOINT + "/" + target, user, null);
+        recorder.recordDelete(user, target, invoked, HistoryRecorder.now(), status(response));
+    }
+    
+    private static int status(HttpResponse<byte[]> response) {
+        return response == null ? RecordedOp.UNKNOWN : response.statusCode();
+    }
+    
+    /**
+     * The response, or null if none came; the call may still have taken effect.
+     */
+    private HttpResponse<byte[]> send(String method, String path, int user, ObjectNode body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(ApiConfig.BASE_URL + path))
+            .timeout(REQUEST_TIMEOUT)
+            .header(ApiConfig.AUTHORIZATION_HEADER, AuthHelper.getBearerToken(tokens[user]));
+        if (body != null) {
+            request.header("Content-Type", ApiConfig.CONTENT_TYPE_JSON);
+        }
+        request.method(method, body == null
+            ? HttpRequest.BodyPublishers.noBody()
+            : HttpRequest.BodyPublishers.ofString(body.toString()));
+        HttpRequest built = request.build();
+        long sent = TrafficRecordingFilter.epochMicrosNow();
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response = null;
+        try {
+            response = http.send(built, HttpResponse.BodyHandlers.ofByteArray());
+            return response;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            TrafficRecordingFilter.recordHttpClient(built, Thread.currentThread().getId(), sent, start, response);
+        }
+    }
+}
\ No newline at end of file
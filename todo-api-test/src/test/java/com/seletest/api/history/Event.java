@@ -0,0 +1,64 @@
+package com.seletest.api.history;
+
+import com.seletest.api.models.TodoItem;
+
+/**
+ * One recorded call as it concerns a single todo id. A list becomes a
+ * PRESENT event (with the listed fingerprint) or an ABSENT event for every
+ * todo of that user it could have shown. A relaxed event keeps its call but
+ * not its outcome, as if the response never came.
+ */
+final class Event {
+    
+    static final byte CREATE = 0;
+    static final byte UPDATE = 1;
+    static final byte DELETE = 2;
+    static final byte PRESENT = 3;
+    static final byte ABSENT = 4;
+    
+    final RecordedOp op;
+    final byte type;
+    final int fingerprint;
+    final boolean relaxed;
+    final long invoked;
+    final long completed;
+    
+    Event(RecordedOp op, byte type, int fingerprint) {
+        this(op, type, fingerprint, false, op.invoked, op.completed);
+    }
+    
+    private Event(RecordedOp op, byte type, int fingerprint, boolean relaxed, long invoked, long completed) {
+        this.op = op;
+        this.type = type;
+        this.fingerprint = fingerprint;
+        this.relaxed = relaxed;
+        this.invoked = invoked;
+        this.completed = completed;
+    }
+    
+    /**
+     * A create nobody recorded, for ids that show up without one; it may
+     * happen at any point.
+     */
+    static Event unrecordedCreate(int user, int todoId) {
+        RecordedOp op = new RecordedOp(RecordedOp.Kind.CREATE, user, todoId, new TodoItem(),
+            null, null, Long.MIN_VALUE, Long.MAX_VALUE, RecordedOp.UNKNOWN);
+        return new Event(op, CREATE, 0, true, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+    
+    boolean isRead() {
+        return type == PRESENT || type == ABSENT;
+    }
+    
+    boolean isPending() {
+        return completed == Long.MAX_VALUE;
+    }
+    
+    boolean isUnrecorded() {
+        return invoked == Long.MIN_VALUE;
+    }
+    
+    Event relaxed() {
+        return relaxed ? this : new Event(op, type, fingerprint, true, invoked, Long.MAX_VALUE);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.seletest.api.history;
+
+import com.seletest.api.models.TodoItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Collects the /items calls of concurrent clients for
+ * {@link LinearizabilityChecker}. Each thread appends to its own buffer, so
+ * recording doesn't contend. Callers take {@link #now()} before sending and
+ * again as soon as the response arrives. {@code user} is any stable key for
+ * the account the call was made as.
+ *
+ * <p>Lists can be sampled: dropping reads never hides a violation in the
+ * remaining calls, it only leaves fewer chances to catch one.
+ */
+public class HistoryRecorder {
+    
+    private final double listSample;
+    private final List<List<RecordedOp>> buffers = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<List<RecordedOp>> buffer = ThreadLocal.withInitial(() -> {
+        List<RecordedOp> ops = new ArrayList<>();
+        buffers.add(ops);
+        return ops;
+    });
+    
+    public HistoryRecorder() {
+        this(1.0);
+    }
+    
+    public HistoryRecorder(double listSample) {
+        this.listSample = Math.max(0, Math.min(1, listSample));
+    }
+    
+    public static long now() {
+        return System.nanoTime();
+    }
+    
+    /**
+     * Whether to record the next list; ask before parsing its body.
+     */
+    public boolean sampleList() {
+        return listSample >= 1 || ThreadLocalRandom.current().nextDouble() < listSample;
+    }
+    
+    public void recordCreate(int user, String text, long invoked, long completed, int status, TodoItem response) {
+        int id = status == 201 && response != null && response.getId() != null ? response.getId() : -1;
+        add(new RecordedOp(RecordedOp.Kind.CREATE, user, id, new TodoItem(text), status == 201 ? response : null,
+            null, invoked, completed, status));
+    }
+    
+    public void recordUpdate(int user, int todoId, TodoItem request, long invoked, long completed, int status,
+                             TodoItem response) {
+        add(new RecordedOp(RecordedOp.Kind.UPDATE, user, todoId, request, status == 200 ? response : null,
+            null, invoked, completed, status));
+    }
+    
+    public void recordDelete(int user, int todoId, long invoked, long completed, int status) {
+        add(new RecordedOp(RecordedOp.Kind.DELETE, user, todoId, null, null, null, invoked, completed, status));
+    }
+    
+    public void recordList(int user, long invoked, long completed, int status, List<TodoItem> items) {
+        long[] listed = null;
+        if (status == 200 && items != null) {
+            listed = new long[items.size()];
+            for (int i = 0; i < listed.length; i++) {
+                TodoItem item = items.get(i);
+                listed[i] = RecordedOp.listEntry(item.getId(),
+                    RecordedOp.fingerprint(item.getText(), Boolean.TRUE.equals(item.getCompleted())));
+            }
+        }
+        add(new RecordedOp(RecordedOp.Kind.LIST, user, -1, null, null, listed, invoked, completed, status));
+    }
+    
+    private void add(RecordedOp op) {
+        buffer.get().add(op);
+    }
+    
+    /**
+     * Everything recorded so far. Call once the clients have stopped.
+     */
+    public List<RecordedOp> history() {
+        List<RecordedOp> all = new ArrayList<>(size());
+        for (List<RecordedOp> ops : buffers) {
+            all.addAll(ops);
+        }
+        return all;
+    }
+    
+    public int size() {
+        return buffers.stream().mapToInt(List::size).sum();
+    }
+}
\ No newline at end of file
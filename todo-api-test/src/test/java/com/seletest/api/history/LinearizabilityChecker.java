@@ -0,0 +1,463 @@
+package com.seletest.api.history;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Checks that a recorded history of /items calls is linearizable: that every
+ * call can be given one instant between its request and its response such
+ * that, in that order, the responses are what a single sequential server
+ * would have returned.
+ *
+ * <p>Todos don't affect each other, so the history is split by todo id and
+ * each part is checked on its own, in parallel (a list becomes a read of
+ * every todo of that user it could have shown). Each part is searched with
+ * the Wing &amp; Gong algorithm with Lowe's memoization of visited
+ * (linearized calls, state) pairs, which stays close to linear on the
+ * mostly-sequential histories real clients produce. For a failing part the
+ * shortest failing prefix and then the latest failing start are found by
+ * bisection, so the report shows only the calls that matter.
+ */
+public class LinearizabilityChecker {
+    
+    private static final int LINEARIZABLE = 1;
+    private static final int NOT_LINEARIZABLE = 0;
+    private static final int GAVE_UP = -1;
+    
+    private long maxSteps = 5_000_000L;
+    
+    /**
+     * Caps the search per todo; a todo that needs more is reported as
+     * inconclusive rather than failed.
+     */
+    public LinearizabilityChecker withMaxSteps(long maxSteps) {
+        this.maxSteps = maxSteps;
+        return this;
+    }
+    
+    public Result check(List<RecordedOp> history) {
+        long start = System.nanoTime();
+        List<Violation> violations = new ArrayList<>();
+        Map<Integer, Partition> partitions = partition(history, violations);
+        AtomicInteger inconclusive = new AtomicInteger();
+        violations.addAll(partitions.values().parallelStream()
+            .map(partition -> check(partition, inconclusive))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList()));
+        violations.sort(Comparator.comparingInt(Violation::size).thenComparingLong(Violation::durationNanos));
+        return new Result(history.size(), partitions.size(), violations, inconclusive.get(), System.nanoTime() - start);
+    }
+    
+    private static Map<Integer, Partition> partition(List<RecordedOp> history, List<Violation> violations) {
+        Map<Integer, Partition> byId = new HashMap<>();
+        Map<Integer, List<RecordedOp>> listsByUser = new HashMap<>();
+        for (RecordedOp op : history) {
+            switch (op.kind) {
+                case CREATE:
+                    if (op.todoId >= 0) {
+                        Partition partition = byId.computeIfAbsent(op.todoId, Partition::new);
+                        if (partition.creation == null) {
+                            partition.creation = op;
+                            partition.owner = op.user;
+                            partition.start = op.invoked;
+                        }
+                        partition.created = true;
+                        partition.events.add(new Event(op, Event.CREATE, 0));
+                    } else if (op.status == 201) {
+                        violations.add(new Violation(-1, "created a todo without returning it", List.of(op)));
+                    } else if (op.status == 400 && op.request.getText() != null && !op.request.getText().trim().isEmpty()) {
+                        violations.add(new Violation(-1, "rejected a todo with text", List.of(op)));
+                    }
+                    break;
+                case UPDATE:
+                    byId.computeIfAbsent(op.todoId, Partition::new).events.add(new Event(op, Event.UPDATE, 0));
+                    break;
+                case DELETE:
+                    Partition partition = byId.computeIfAbsent(op.todoId, Partition::new);
+                    partition.events.add(new Event(op, Event.DELETE, 0));
+                    if (op.status == 204) {
+                        partition.end = Math.min(partition.end, op.completed);
+                    }
+                    break;
+                default:
+                    if (op.status == 200 && op.listed != null) {
+                        listsByUser.computeIfAbsent(op.user, user -> new ArrayList<>()).add(op);
+                    }
+            }
+        }
+        
+        Map<Integer, List<Partition>> owned = new HashMap<>();
+        for (Partition partition : byId.values()) {
+            if (partition.created) {
+                owned.computeIfAbsent(partition.owner, user -> new ArrayList<>()).add(partition);
+            }
+        }
+        int stamp = 0;
+        for (Map.Entry<Integer, List<RecordedOp>> entry : listsByUser.entrySet()) {
+            int user = entry.getKey();
+            List<RecordedOp> lists = entry.getValue();
+            lists.sort(Comparator.comparingLong(op -> op.completed));
+            long[] laterInvoked = new long[lists.size() + 1];
+            laterInvoked[lists.size()] = Long.MAX_VALUE;
+            for (int i = lists.size() - 1; i >= 0; i--) {
+                laterInvoked[i] = Math.min(laterInvoked[i + 1], lists.get(i).invoked);
+            }
+            List<Partition> mine = owned.getOrDefault(user, new ArrayList<>());
+            mine.sort(Comparator.comparingLong(partition -> partition.start));
+            List<Partition> alive = new ArrayList<>();
+            int next = 0;
+            for (int i = 0; i < lists.size(); i++) {
+                RecordedOp list = lists.get(i);
+                stamp++;
+                for (long listed : list.listed) {
+                    Partition partition = byId.computeIfAbsent(RecordedOp.listedId(listed), Partition::new);
+                    if (partition.created && partition.owner != user && !partition.leaked) {
+                        partition.leaked = true;
+                        violations.add(new Violation(partition.todoId, "listed to a user who doesn't own it",
+                            List.of(partition.creation, list)));
+                    }
+                    partition.events.add(new Event(list, Event.PRESENT, RecordedOp.listedFingerprint(listed)));
+                    partition.listStamp = stamp;
+                }
+                // Every todo of this user that may have existed while the list ran, but wasn't in it
+                while (next < mine.size() && mine.get(next).start < list.completed) {
+                    alive.add(mine.get(next++));
+                }
+                int kept = 0;
+                for (Partition partition : alive) {
+                    if (partition.end <= laterInvoked[i]) {
+                        continue;
+                    }
+                    alive.set(kept++, partition);
+                    if (partition.end > list.invoked && partition.listStamp != stamp) {
+                        partition.events.add(new Event(list, Event.ABSENT, 0));
+                    }
+                }
+                alive.subList(kept, alive.size()).clear();
+            }
+        }
+        
+        for (Partition partition : byId.values()) {
+            if (!partition.created) {
+                partition.events.add(Event.unrecordedCreate(partition.owner, partition.todoId));
+            }
+        }
+        return byId;
+    }
+    
+    private Violation check(Partition partition, AtomicInteger inconclusive) {
+        int outcome = search(partition.events, Set.of(TodoState.ABSENT), partition.owner);
+        if (outcome == LINEARIZABLE) {
+            return null;
+        }
+        if (outcome == GAVE_UP) {
+            inconclusive.incrementAndGet();
+            return null;
+        }
+        return narrow(partition);
+    }
+    
+    /**
+     * Shrinks a failing part to a window: first the earliest cut-off whose
+     * prefix still fails (calls still running at the cut-off keep their
+     * effect but lose their response), then the latest quiet point to start
+     * from, with any state allowed there.
+     */
+    private Violation narrow(Partition partition) {
+        List<Event> events = new ArrayList<>(partition.events);
+        events.sort(Comparator.comparingLong(event -> event.invoked));
+        long[] cutoffs = events.stream().mapToLong(event -> event.completed)
+            .filter(completed -> completed != Long.MAX_VALUE).sorted().distinct().toArray();
+        List<Event> window = events;
+        int lo = 0;
+        int hi = cutoffs.length - 1;
+        if (hi >= 0 && search(prefix(events, cutoffs[hi]), Set.of(TodoState.ABSENT), partition.owner) == NOT_LINEARIZABLE) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (search(prefix(events, cutoffs[mid]), Set.of(TodoState.ABSENT), partition.owner) == NOT_LINEARIZABLE) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            window = prefix(events, cutoffs[hi]);
+        }
+        
+        // Starting after a point where nothing that completes was in flight splits the order cleanly
+        List<Integer> quiet = new ArrayList<>();
+        long lastCompleted = Long.MIN_VALUE;
+        for (int i = 0; i < window.size(); i++) {
+            Event event = window.get(i);
+            if (i > 0 && lastCompleted < event.invoked) {
+                quiet.add(i);
+            }
+            if (!event.isPending()) {
+                lastCompleted = Math.max(lastCompleted, event.completed);
+            }
+        }
+        int from = 0;
+        lo = 0;
+        hi = quiet.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (search(suffix(window, quiet.get(mid)), TodoState.ANY, partition.owner) == NOT_LINEARIZABLE) {
+                from = quiet.get(mid);
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        if (from > 0) {
+            window = suffix(window, from);
+        }
+        
+        Map<RecordedOp, Boolean> ops = new IdentityHashMap<>();
+        List<RecordedOp> calls = new ArrayList<>();
+        for (Event event : window) {
+            if (!event.isUnrecorded() && ops.put(event.op, Boolean.TRUE) == null) {
+                calls.add(event.op);
+            }
+        }
+        calls.sort(Comparator.comparingLong(op -> op.invoked));
+        return new Violation(partition.todoId, "no order of these calls explains their responses", calls);
+    }
+    
+    private static List<Event> prefix(List<Event> events, long cutoff) {
+        List<Event> prefix = new ArrayList<>();
+        for (Event event : events) {
+            if (event.invoked > cutoff) {
+                break;
+            }
+            if (event.completed <= cutoff) {
+                prefix.add(event);
+            } else if (!event.isRead()) {
+                prefix.add(event.relaxed());
+            }
+        }
+        return prefix;
+    }
+    
+    private static List<Event> suffix(List<Event> window, int from) {
+        List<Event> suffix = new ArrayList<>();
+        for (int i = 0; i < from; i++) {
+            if (window.get(i).isPending()) {
+                suffix.add(window.get(i));
+            }
+        }
+        suffix.addAll(window.subList(from, window.size()));
+        return suffix;
+    }
+    
+    private int search(List<Event> events, Set<TodoState> initial, int owner) {
+        int n = events.size();
+        List<Node> entries = new ArrayList<>(2 * n);
+        for (int i = 0; i < n; i++) {
+            Node call = new Node(events.get(i), i, true);
+            Node ret = new Node(events.get(i), i, false);
+            call.match = ret;
+            entries.add(call);
+            entries.add(ret);
+        }
+        // Calls sort before returns at the same instant, so touching calls count as concurrent
+        entries.sort(Comparator.comparingLong(Node::time).thenComparing(node -> !node.call));
+        Node head = new Node(null, -1, false);
+        Node last = head;
+        for (Node entry : entries) {
+            last.next = entry;
+            entry.prev = last;
+            last = entry;
+        }
+        
+        Set<Memo> seen = new HashSet<>();
+        Deque<Frame> stack = new ArrayDeque<>();
+        BitSet linearized = new BitSet(n);
+        Set<TodoState> state = initial;
+        Node entry = head.next;
+        long steps = 0;
+        while (head.next != null) {
+            if (++steps > maxSteps) {
+                return GAVE_UP;
+            }
+            if (entry.call) {
+                Set<TodoState> next = TodoState.step(state, entry.event, owner);
+                if (!next.isEmpty()) {
+                    BitSet bits = (BitSet) linearized.clone();
+                    bits.set(entry.index);
+                    if (seen.add(new Memo(bits, next))) {
+                        stack.push(new Frame(entry, state));
+                        linearized = bits;
+                        state = next;
+                        entry.lift();
+                        entry = head.next;
+                        continue;
+                    }
+                }
+                entry = entry.next;
+            } else {
+                if (stack.isEmpty()) {
+                    return NOT_LINEARIZABLE;
+                }
+                Frame frame = stack.pop();
+                state = frame.state;
+                linearized = (BitSet) linearized.clone();
+                linearized.clear(frame.call.index);
+                frame.call.unlift();
+                entry = frame.call.next;
+            }
+        }
+        return LINEARIZABLE;
+    }
+    
+    private static final class Partition {
+        final int todoId;
+        final List<Event> events = new ArrayList<>();
+        RecordedOp creation;
+        int owner = -1;
+        boolean created;
+        boolean leaked;
+        long start = Long.MIN_VALUE;
+        long end = Long.MAX_VALUE;
+        int listStamp;
+        
+        Partition(int todoId) {
+            this.todoId = todoId;
+        }
+    }
+    
+    private static final class Node {
+        final Event event;
+        final int index;
+        final boolean call;
+        Node match;
+        Node prev;
+        Node next;
+        
+        Node(Event event, int index, boolean call) {
+            this.event = event;
+            this.index = index;
+            this.call = call;
+        }
+        
+        long time() {
+            return call ? event.invoked : event.completed;
+        }
+        
+        void lift() {
+            prev.next = next;
+            if (next != null) {
+                next.prev = prev;
+            }
+            match.prev.next = match.next;
+            if (match.next != null) {
+                match.next.prev = match.prev;
+            }
+        }
+        
+        void unlift() {
+            match.prev.next = match;
+            if (match.next != null) {
+                match.next.prev = match;
+            }
+            prev.next = this;
+            if (next != null) {
+                next.prev = this;
+            }
+        }
+    }
+    
+    private static final class Frame {
+        final Node call;
+        final Set<TodoState> state;
+        
+        Frame(Node call, Set<TodoState> state) {
+            this.call = call;
+            this.state = state;
+        }
+    }
+    
+    private static final class Memo {
+        final BitSet linearized;
+        final Set<TodoState> state;
+        final int hash;
+        
+        Memo(BitSet linearized, Set<TodoState> state) {
+            this.linearized = linearized;
+            this.state = state;
+            this.hash = 31 * linearized.hashCode() + state.hashCode();
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Memo)) {
+                return false;
+            }
+            Memo other = (Memo) o;
+            return hash == other.hash && linearized.equals(other.linearized) && state.equals(other.state);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+    
+    /**
+     * Outcome of a check: every violation found (smallest window first) and
+     * how many todos were too tangled to decide within the step budget.
+     */
+    public static class Result {
+        
+        private final int operations;
+        private final int todos;
+        private final List<Violation> violations;
+        private final int inconclusive;
+        private final long elapsedNanos;
+        
+        Result(int operations, int todos, List<Violation> violations, int inconclusive, long elapsedNanos) {
+            this.operations = operations;
+            this.todos = todos;
+            this.violations = violations;
+            this.inconclusive = inconclusive;
+            this.elapsedNanos = elapsedNanos;
+        }
+        
+        public boolean passed() {
+            return violations.isEmpty();
+        }
+        
+        public List<Violation> getViolations() {
+            return violations;
+        }
+        
+        public Violation smallest() {
+            return violations.isEmpty() ? null : violations.get(0);
+        }
+        
+        public int getInconclusive() {
+            return inconclusive;
+        }
+        
+        public String summary() {
+            return String.format("Checked %d calls on %d todos in %d ms: %s%s", operations, todos, elapsedNanos / 1_000_000,
+                passed() ? "linearizable" : violations.size() + " violation(s)",
+                inconclusive > 0 ? ", " + inconclusive + " todo(s) inconclusive" : "");
+        }
+        
+        @Override
+        public String toString() {
+            return passed() ? summary() : summary() + "\nSmallest window:\n" + smallest();
+        }
+    }
+}
\ No newline at end of file
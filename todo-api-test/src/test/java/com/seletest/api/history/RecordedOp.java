@@ -0,0 +1,101 @@
+package com.seletest.api.history;
+
+import com.seletest.api.models.TodoItem;
+
+/**
+ * One call against /items as seen by a client: what was asked, when it was
+ * sent and answered (System.nanoTime), and what came back. A call without a
+ * response has {@link #UNKNOWN} as status and never completes; it may or may
+ * not have taken effect. Listed todos are kept as id and fingerprint only,
+ * so long histories of large lists stay small.
+ */
+public final class RecordedOp {
+    
+    public enum Kind {
+        CREATE, UPDATE, DELETE, LIST
+    }
+    
+    public static final int UNKNOWN = -1;
+    
+    final Kind kind;
+    final int user;
+    final int todoId;
+    final TodoItem request;
+    final TodoItem response;
+    final long[] listed;
+    final long invoked;
+    final long completed;
+    final int status;
+    
+    RecordedOp(Kind kind, int user, int todoId, TodoItem request, TodoItem response, long[] listed,
+               long invoked, long completed, int status) {
+        this.kind = kind;
+        this.user = user;
+        this.todoId = todoId;
+        this.request = request;
+        this.response = response;
+        this.listed = listed;
+        this.invoked = invoked;
+        this.completed = status == UNKNOWN ? Long.MAX_VALUE : completed;
+        this.status = status;
+    }
+    
+    /**
+     * Identifies a todo's visible content; a list entry matches a state when
+     * their fingerprints are equal.
+     */
+    static int fingerprint(String text, boolean completed) {
+        int h = text == null ? 0 : text.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return completed ? ~h : h;
+    }
+    
+    static long listEntry(int id, int fingerprint) {
+        return ((long) id << 32) | (fingerprint & 0xffffffffL);
+    }
+    
+    static int listedId(long entry) {
+        return (int) (entry >>> 32);
+    }
+    
+    static int listedFingerprint(long entry) {
+        return (int) entry;
+    }
+    
+    String describe(long origin, int todo) {
+        String window = String.format("[%8.3f, %s]", (invoked - origin) / 1e6,
+            completed == Long.MAX_VALUE ? "     ..." : String.format("%8.3f", (completed - origin) / 1e6));
+        String call;
+        switch (kind) {
+            case CREATE:
+                call = "POST /items \"" + request.getText() + "\"";
+                break;
+            case UPDATE:
+                call = "PUT /items/" + todoId + " {text: " + quoted(request.getText()) + ", completed: " + request.getCompleted() + "}";
+                break;
+            case DELETE:
+                call = "DELETE /items/" + todoId;
+                break;
+            default:
+                call = "GET /items";
+        }
+        String outcome = status == UNKNOWN ? "no response" : Integer.toString(status);
+        if (response != null) {
+            outcome += " {id: " + response.getId() + ", text: " + quoted(response.getText()) + ", completed: "
+                + response.getCompleted() + "}";
+        } else if (listed != null) {
+            boolean shown = false;
+            for (long entry : listed) {
+                shown |= listedId(entry) == todo;
+            }
+            outcome += " (" + listed.length + " todos, " + (shown ? "" : "not ") + "showing " + todo + ")";
+        }
+        return window + " ms  user " + user + "  " + call + " => " + outcome;
+    }
+    
+    private static String quoted(String text) {
+        return text == null ? "null" : "\"" + text + "\"";
+    }
+}
\ No newline at end of file
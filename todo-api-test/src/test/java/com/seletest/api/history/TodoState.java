@@ -0,0 +1,191 @@
+package com.seletest.api.history;
+
+import com.seletest.api.models.TodoItem;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * What a single todo id can look like on the server: never created, present
+ * with some text and completed flag, or deleted. Content is unknown for a
+ * todo whose creation wasn't recorded; a list entry pins its fingerprint and
+ * an update response pins it fully.
+ *
+ * <p>{@link #step} works on sets of states so a call whose outcome is
+ * unknown (no response, 5xx) can both have and not have happened.
+ */
+final class TodoState {
+    
+    enum Phase {
+        ABSENT, PRESENT, DELETED
+    }
+    
+    static final TodoState ABSENT = new TodoState(Phase.ABSENT, null, false, 0, false);
+    static final TodoState DELETED = new TodoState(Phase.DELETED, null, false, 0, false);
+    static final TodoState UNKNOWN_CONTENT = new TodoState(Phase.PRESENT, null, false, 0, false);
+    
+    /** Any state at all, to start checking from the middle of a history. */
+    static final Set<TodoState> ANY = Set.of(ABSENT, UNKNOWN_CONTENT, DELETED);
+    
+    final Phase phase;
+    final String text;
+    final boolean completed;
+    final int fingerprint;
+    final boolean fingerprintKnown;
+    
+    private TodoState(Phase phase, String text, boolean completed, int fingerprint, boolean fingerprintKnown) {
+        this.phase = phase;
+        this.text = text;
+        this.completed = completed;
+        this.fingerprint = fingerprint;
+        this.fingerprintKnown = fingerprintKnown;
+    }
+    
+    static TodoState present(String text, boolean completed) {
+        return new TodoState(Phase.PRESENT, text, completed, RecordedOp.fingerprint(text, completed), true);
+    }
+    
+    boolean isPresent() {
+        return phase == Phase.PRESENT;
+    }
+    
+    boolean contentKnown() {
+        return text != null;
+    }
+    
+    /**
+     * The states the todo can be in after {@code event}, from any of
+     * {@code states}; empty if the recorded outcome is impossible from all of
+     * them. {@code owner} is the user that created the todo, or -1.
+     */
+    static Set<TodoState> step(Set<TodoState> states, Event event, int owner) {
+        Set<TodoState> next = new HashSet<>(4);
+        for (TodoState state : states) {
+            state.step(event, owner, next);
+        }
+        return next;
+    }
+    
+    private void step(Event event, int owner, Set<TodoState> next) {
+        RecordedOp op = event.op;
+        if (event.relaxed && event.isRead()) {
+            next.add(this);
+            return;
+        }
+        switch (event.type) {
+            case Event.PRESENT:
+                if (isPresent() && (!fingerprintKnown || fingerprint == event.fingerprint)) {
+                    next.add(fingerprintKnown ? this : new TodoState(Phase.PRESENT, null, false, event.fingerprint, true));
+                }
+                return;
+            case Event.ABSENT:
+                if (!isPresent()) {
+                    next.add(this);
+                }
+                return;
+            case Event.CREATE:
+                create(op, event.relaxed, next);
+                return;
+            default:
+        }
+        boolean mayApply = isPresent() && (owner < 0 || op.user == owner)
+            && (op.kind == RecordedOp.Kind.DELETE || !isBlankText(op.request.getText()));
+        if (event.relaxed || op.status == RecordedOp.UNKNOWN || op.status >= 500) {
+            next.add(this);
+            if (mayApply) {
+                next.add(op.kind == RecordedOp.Kind.DELETE ? DELETED : updated(op.request));
+            }
+            return;
+        }
+        if (op.status == 401 || op.status == 403) {
+            next.add(this);
+            return;
+        }
+        boolean visible = isPresent() && (owner < 0 || op.user == owner);
+        if (op.status == 404) {
+            // An unknown owner may be someone else, who always gets 404
+            if (!visible || owner < 0) {
+                next.add(this);
+            }
+        } else if (!visible) {
+            return;
+        } else if (op.kind == RecordedOp.Kind.DELETE) {
+            if (op.status == 204) {
+                next.add(DELETED);
+            }
+        } else if (op.status == 400) {
+            if (isBlankText(op.request.getText())) {
+                next.add(this);
+            }
+        } else if (op.status == 200 && mayApply && matches(updated(op.request), op.response)) {
+            next.add(present(op.response.getText(), op.response.getCompleted()));
+        }
+    }
+    
+    private void create(RecordedOp op, boolean relaxed, Set<TodoState> next) {
+        if (phase != Phase.ABSENT) {
+            if (relaxed || op.status != 201) {
+                next.add(this);
+            }
+            return;
+        }
+        TodoState created = op.request.getText() == null
+            ? UNKNOWN_CONTENT : present(op.request.getText().trim(), false);
+        if (relaxed || op.status != 201) {
+            next.add(this);
+            next.add(created);
+        } else if (!isBlankText(op.request.getText()) && matches(created, op.response)) {
+            next.add(present(op.response.getText(), op.response.getCompleted()));
+        }
+    }
+    
+    private TodoState updated(TodoItem request) {
+        String nextText = request.getText() != null ? request.getText().trim() : text;
+        if (nextText == null || (request.getCompleted() == null && !contentKnown())) {
+            return UNKNOWN_CONTENT;
+        }
+        return present(nextText, request.getCompleted() != null ? request.getCompleted() : completed);
+    }
+    
+    private static boolean matches(TodoState expected, TodoItem actual) {
+        if (actual == null || actual.getText() == null || actual.getCompleted() == null) {
+            return false;
+        }
+        if (!expected.contentKnown()) {
+            return !expected.fingerprintKnown
+                || expected.fingerprint == RecordedOp.fingerprint(actual.getText(), actual.getCompleted());
+        }
+        return expected.text.equals(actual.getText()) && expected.completed == actual.getCompleted();
+    }
+    
+    private static boolean isBlankText(String text) {
+        return text != null && text.trim().isEmpty();
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TodoState)) {
+            return false;
+        }
+        TodoState other = (TodoState) o;
+        return phase == other.phase && completed == other.completed && fingerprint == other.fingerprint
+            && fingerprintKnown == other.fingerprintKnown && Objects.equals(text, other.text);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(phase, text, completed, fingerprint);
+    }
+    
+    @Override
+    public String toString() {
+        if (!isPresent()) {
+            return phase.name().toLowerCase();
+        }
+        return contentKnown() ? "{text: \"" + text + "\", completed: " + completed + "}" : "{unknown content}";
+    }
+}
\ No newline at end of file
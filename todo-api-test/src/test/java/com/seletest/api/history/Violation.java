@@ -0,0 +1,59 @@
+package com.seletest.api.history;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A stretch of history, all about one todo, that no sequential order of its
+ * calls explains. The calls are the smallest window the checker could
+ * narrow the failure down to, ordered by when they were sent.
+ */
+public class Violation {
+    
+    private final int todoId;
+    private final String reason;
+    private final List<RecordedOp> ops;
+    
+    Violation(int todoId, String reason, List<RecordedOp> ops) {
+        this.todoId = todoId;
+        this.reason = reason;
+        this.ops = Collections.unmodifiableList(ops);
+    }
+    
+    public int getTodoId() {
+        return todoId;
+    }
+    
+    public String getReason() {
+        return reason;
+    }
+    
+    public List<RecordedOp> getOps() {
+        return ops;
+    }
+    
+    public int size() {
+        return ops.size();
+    }
+    
+    public long durationNanos() {
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (RecordedOp op : ops) {
+            first = Math.min(first, op.invoked);
+            last = Math.max(last, op.completed == Long.MAX_VALUE ? op.invoked : op.completed);
+        }
+        return ops.isEmpty() ? 0 : last - first;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder(String.format("todo %d: %s (%d calls in %.3f ms)",
+            todoId, reason, size(), durationNanos() / 1e6));
+        long origin = ops.isEmpty() ? 0 : ops.get(0).invoked;
+        for (RecordedOp op : ops) {
+            out.append("\n  ").append(op.describe(origin, todoId));
+        }
+        return out.toString();
+    }
+}
\ No newline at end of file
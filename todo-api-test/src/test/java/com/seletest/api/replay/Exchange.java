@@ -0,0 +1,162 @@
+package com.seletest.api.replay;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongUnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One recorded request and its response. The path is kept as a template
+ * ("/items/{id}") plus the numeric segments it replaced, so a replayer can
+ * swap ids. A status of 0 means the request got no response.
+ */
+public class Exchange {
+    
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/(\\d+)(?=/|$)");
+    private static final String PARAM = "{id}";
+    
+    private final long startEpochMicros;
+    private final long durationMicros;
+    private final long client;
+    private final String method;
+    private final String pathTemplate;
+    private final long[] pathParams;
+    private final String query;
+    private final List<Map.Entry<String, String>> requestHeaders;
+    private final byte[] requestBody;
+    private final int status;
+    private final List<Map.Entry<String, String>> responseHeaders;
+    private final byte[] responseBody;
+    
+    public Exchange(long startEpochMicros, long durationMicros, long client, String method, String pathTemplate,
+                    long[] pathParams, String query, List<Map.Entry<String, String>> requestHeaders,
+                    byte[] requestBody, int status, List<Map.Entry<String, String>> responseHeaders,
+                    byte[] responseBody) {
+        this.startEpochMicros = startEpochMicros;
+        this.durationMicros = durationMicros;
+        this.client = client;
+        this.method = method;
+        this.pathTemplate = pathTemplate;
+        this.pathParams = pathParams;
+        this.query = query;
+        this.requestHeaders = Collections.unmodifiableList(requestHeaders);
+        this.requestBody = requestBody;
+        this.status = status;
+        this.responseHeaders = Collections.unmodifiableList(responseHeaders);
+        this.responseBody = responseBody;
+    }
+    
+    /**
+     * Splits a raw path into its template and the numeric segments in it.
+     */
+    public static String template(String rawPath, List<Long> params) {
+        Matcher matcher = NUMERIC_SEGMENT.matcher(rawPath == null || rawPath.isEmpty() ? "/" : rawPath);
+        StringBuilder template = new StringBuilder();
+        while (matcher.find()) {
+            String digits = matcher.group(1);
+            if (digits.length() > 18) {
+                // Too long for a long, leave it in the template
+                matcher.appendReplacement(template, "/" + digits);
+                continue;
+            }
+            params.add(Long.parseLong(digits));
+            matcher.appendReplacement(template, Matcher.quoteReplacement("/" + PARAM));
+        }
+        matcher.appendTail(template);
+        return template.toString();
+    }
+    
+    /**
+     * The request path with each id passed through {@code ids}, plus the
+     * query string if there was one.
+     */
+    public String path(LongUnaryOperator ids) {
+        StringBuilder path = new StringBuilder();
+        int from = 0;
+        for (long param : pathParams) {
+            int at = pathTemplate.indexOf(PARAM, from);
+            path.append(pathTemplate, from, at).append(ids.applyAsLong(param));
+            from = at + PARAM.length();
+        }
+        path.append(pathTemplate, from, pathTemplate.length());
+        return query == null || query.isEmpty() ? path.toString() : path + "?" + query;
+    }
+    
+    public String endpoint() {
+        return method + " " + pathTemplate;
+    }
+    
+    public long getStartEpochMicros() {
+        return startEpochMicros;
+    }
+    
+    public long getDurationMicros() {
+        return durationMicros;
+    }
+    
+    /**
+     * The thread that made the request; requests of one client were sent
+     * one after another.
+     */
+    public long getClient() {
+        return client;
+    }
+    
+    public String getMethod() {
+        return method;
+    }
+    
+    public String getPathTemplate() {
+        return pathTemplate;
+    }
+    
+    public long[] getPathParams() {
+        return pathParams.clone();
+    }
+    
+    public String getQuery() {
+        return query;
+    }
+    
+    public List<Map.Entry<String, String>> getRequestHeaders() {
+        return requestHeaders;
+    }
+    
+    public String requestHeader(String name) {
+        return header(requestHeaders, name);
+    }
+    
+    public byte[] getRequestBody() {
+        return requestBody;
+    }
+    
+    public int getStatus() {
+        return status;
+    }
+    
+    public List<Map.Entry<String, String>> getResponseHeaders() {
+        return responseHeaders;
+    }
+    
+    public byte[] getResponseBody() {
+        return responseBody;
+    }
+    
+    private static String header(List<Map.Entry<String, String>> headers, String name) {
+        for (Map.Entry<String, String> header : headers) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+    
+    @Override
+    public String toString() {
+        return method + " " + path(id -> id) + " -> " + (status == 0 ? "no response" : status)
+            + (responseBody.length == 0 ? "" : " " + new String(responseBody, StandardCharsets.UTF_8));
+    }
+}
\ No newline at end of file
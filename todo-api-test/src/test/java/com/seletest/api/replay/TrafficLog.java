@@ -0,0 +1,69 @@
+package com.seletest.api.replay;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The binary layout shared by {@link TrafficLogWriter} and
+ * {@link TrafficLogReader}. A file starts with {@link #MAGIC} and then holds
+ * records, each a type byte and its payload:
+ * <ul>
+ *   <li>STRING: a UTF-8 string that later records refer to by its index,
+ *       for methods, path templates and header names</li>
+ *   <li>EXCHANGE: a length-prefixed exchange (start time in epoch micros,
+ *       duration, client, method, template and ids, query, request
+ *       headers and body, status, response headers and body)</li>
+ * </ul>
+ * Numbers are unsigned LEB128 varints. Records are only ever appended, and
+ * a reader stops cleanly at a torn last record.
+ */
+final class TrafficLog {
+    
+    static final byte[] MAGIC = "SLTRAFFIC1".getBytes(StandardCharsets.US_ASCII);
+    static final int STRING = 1;
+    static final int EXCHANGE = 2;
+    
+    private TrafficLog() {
+    }
+    
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+    
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+    
+    static int readVarInt(DataInput in) throws IOException {
+        long value = readVarLong(in);
+        if (value > Integer.MAX_VALUE) {
+            throw new IOException("Length out of range: " + value);
+        }
+        return (int) value;
+    }
+    
+    static void writeBytes(DataOutput out, byte[] bytes) throws IOException {
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+    
+    static byte[] readBytes(DataInput in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.seletest.api.replay;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the exchanges of a traffic log in the order they were written.
+ */
+public class TrafficLogReader implements AutoCloseable {
+    
+    private final CountingInputStream counter;
+    private final DataInputStream in;
+    private final List<String> strings = new ArrayList<>();
+    private long complete;
+    
+    public TrafficLogReader(Path file) throws IOException {
+        counter = new CountingInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024));
+        in = new DataInputStream(counter);
+        byte[] magic = new byte[TrafficLog.MAGIC.length];
+        try {
+            in.readFully(magic);
+        } catch (EOFException e) {
+            throw new IOException(file + " is not a traffic log");
+        }
+        if (!Arrays.equals(magic, TrafficLog.MAGIC)) {
+            in.close();
+            throw new IOException(file + " is not a traffic log");
+        }
+        complete = counter.count;
+    }
+    
+    public static List<Exchange> readAll(Path file) throws IOException {
+        List<Exchange> exchanges = new ArrayList<>();
+        try (TrafficLogReader reader = new TrafficLogReader(file)) {
+            for (Exchange exchange = reader.next(); exchange != null; exchange = reader.next()) {
+                exchanges.add(exchange);
+            }
+        }
+        return exchanges;
+    }
+    
+    /**
+     * The next exchange, or null at the end of the log or at a record cut
+     * short by a crash.
+     */
+    public Exchange next() throws IOException {
+        try {
+            while (true) {
+                int type = in.read();
+                if (type < 0) {
+                    return null;
+                }
+                if (type == TrafficLog.STRING) {
+                    strings.add(new String(TrafficLog.readBytes(in), StandardCharsets.UTF_8));
+                    complete = counter.count;
+                } else if (type == TrafficLog.EXCHANGE) {
+                    byte[] record = TrafficLog.readBytes(in);
+                    complete = counter.count;
+                    return parse(new DataInputStream(new ByteArrayInputStream(record)));
+                } else {
+                    throw new IOException("Unknown record type " + type);
+                }
+            }
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+    
+    private Exchange parse(DataInputStream record) throws IOException {
+        long start = record.readLong();
+        long duration = TrafficLog.readVarLong(record);
+        long client = TrafficLog.readVarLong(record);
+        String method = string(record);
+        String template = string(record);
+        long[] params = new long[TrafficLog.readVarInt(record)];
+        for (int i = 0; i < params.length; i++) {
+            params[i] = TrafficLog.readVarLong(record);
+        }
+        String query = new String(TrafficLog.readBytes(record), StandardCharsets.UTF_8);
+        List<Map.Entry<String, String>> requestHeaders = headers(record);
+        byte[] requestBody = TrafficLog.readBytes(record);
+        int status = TrafficLog.readVarInt(record);
+        List<Map.Entry<String, String>> responseHeaders = headers(record);
+        byte[] responseBody = TrafficLog.readBytes(record);
+        return new Exchange(start, duration, client, method, template, params, query, requestHeaders, requestBody,
+            status, responseHeaders, responseBody);
+    }
+    
+    private List<Map.Entry<String, String>> headers(DataInputStream record) throws IOException {
+        int count = TrafficLog.readVarInt(record);
+        List<Map.Entry<String, String>> headers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = string(record);
+            headers.add(new AbstractMap.SimpleImmutableEntry<>(name,
+                new String(TrafficLog.readBytes(record), StandardCharsets.UTF_8)));
+        }
+        return headers;
+    }
+    
+    private String string(DataInputStream record) throws IOException {
+        int index = TrafficLog.readVarInt(record);
+        if (index >= strings.size()) {
+            throw new IOException("Undefined string " + index);
+        }
+        return strings.get(index);
+    }
+    
+    List<String> strings() {
+        return strings;
+    }
+    
+    /**
+     * The length of the log up to the end of the last whole record read.
+     */
+    long completeLength() {
+        return complete;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+    
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+        
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = super.read(bytes, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.seletest.api.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends exchanges to a traffic log (see {@link TrafficLog}). Opening an
+ * existing log first reads its string table, so later runs keep appending
+ * to the same file, after cutting off any record a crash left half
+ * written. Each exchange is flushed as it is written, so a crash loses at
+ * most the one in flight.
+ */
+public class TrafficLogWriter implements AutoCloseable {
+    
+    private final DataOutputStream out;
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream(1024);
+    private final DataOutputStream recordOut = new DataOutputStream(record);
+    
+    public TrafficLogWriter(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        boolean fresh = !Files.exists(file) || Files.size(file) == 0;
+        long complete = 0;
+        if (!fresh) {
+            try (TrafficLogReader existing = new TrafficLogReader(file)) {
+                while (existing.next() != null) {
+                    // Only the string table is needed
+                }
+                List<String> table = existing.strings();
+                for (int i = 0; i < table.size(); i++) {
+                    strings.put(table.get(i), i);
+                }
+                complete = existing.completeLength();
+            }
+            // Drop a record torn by a crash so new ones don't land behind it
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                if (channel.size() > complete) {
+                    channel.truncate(complete);
+                }
+            }
+        }
+        OutputStream stream = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        out = new DataOutputStream(new BufferedOutputStream(stream, 64 * 1024));
+        if (fresh) {
+            out.write(TrafficLog.MAGIC);
+        }
+    }
+    
+    public synchronized void append(Exchange exchange) throws IOException {
+        record.reset();
+        recordOut.writeLong(exchange.getStartEpochMicros());
+        TrafficLog.writeVarLong(recordOut, exchange.getDurationMicros());
+        TrafficLog.writeVarLong(recordOut, exchange.getClient());
+        TrafficLog.writeVarLong(recordOut, string(exchange.getMethod()));
+        TrafficLog.writeVarLong(recordOut, string(exchange.getPathTemplate()));
+        long[] params = exchange.getPathParams();
+        TrafficLog.writeVarLong(recordOut, params.length);
+        for (long param : params) {
+            TrafficLog.writeVarLong(recordOut, param);
+        }
+        TrafficLog.writeBytes(recordOut, utf8(exchange.getQuery()));
+        writeHeaders(exchange.getRequestHeaders());
+        TrafficLog.writeBytes(recordOut, exchange.getRequestBody());
+        TrafficLog.writeVarLong(recordOut, exchange.getStatus());
+        writeHeaders(exchange.getResponseHeaders());
+        TrafficLog.writeBytes(recordOut, exchange.getResponseBody());
+        
+        out.writeByte(TrafficLog.EXCHANGE);
+        TrafficLog.writeVarLong(out, record.size());
+        record.writeTo(out);
+        out.flush();
+    }
+    
+    private void writeHeaders(List<Map.Entry<String, String>> headers) throws IOException {
+        TrafficLog.writeVarLong(recordOut, headers.size());
+        for (Map.Entry<String, String> header : headers) {
+            TrafficLog.writeVarLong(recordOut, string(header.getKey()));
+            TrafficLog.writeBytes(recordOut, utf8(header.getValue()));
+        }
+    }
+    
+    /**
+     * The index of a repeated string, defining it first if it's new.
+     */
+    private int string(String value) throws IOException {
+        Integer index = strings.get(value);
+        if (index == null) {
+            index = strings.size();
+            strings.put(value, index);
+            out.writeByte(TrafficLog.STRING);
+            TrafficLog.writeBytes(out, utf8(value));
+        }
+        return index;
+    }
+    
+    private static byte[] utf8(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
\ No newline at end of file
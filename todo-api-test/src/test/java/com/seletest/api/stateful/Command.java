@@ -0,0 +1,114 @@
+package com.seletest.api.stateful;
+
+import java.util.Map;
+
+/**
+ * One generated call against /items, made as one of the users in the pool.
+ * Updates and deletes name their target by the {@link Create} that made it
+ * rather than by id, since ids are only known once the program runs; a null
+ * target stands for an id the server never issued.
+ */
+public abstract class Command {
+    
+    private final int user;
+    
+    Command(int user) {
+        this.user = user;
+    }
+    
+    public int getUser() {
+        return user;
+    }
+    
+    Create getTarget() {
+        return null;
+    }
+    
+    /**
+     * Renders the command with creates labelled #1, #2... in the order they
+     * appear in the program.
+     */
+    abstract String describe(Map<Create, String> labels);
+    
+    static String target(Create target, Map<Create, String> labels) {
+        return target == null ? "<unknown id>" : labels.getOrDefault(target, "<dropped>");
+    }
+    
+    static String quote(String text) {
+        return text == null ? "null" : "\"" + text.replace("\"", "\\\"") + "\"";
+    }
+    
+    public static final class Create extends Command {
+        final String text;
+        
+        Create(int user, String text) {
+            super(user);
+            this.text = text;
+        }
+        
+        @Override
+        String describe(Map<Create, String> labels) {
+            return "POST /items " + quote(text) + " -> " + labels.get(this);
+        }
+    }
+    
+    public static final class Update extends Command {
+        final Create target;
+        final String text;
+        final Boolean completed;
+        
+        Update(int user, Create target, String text, Boolean completed) {
+            super(user);
+            this.target = target;
+            this.text = text;
+            this.completed = completed;
+        }
+        
+        @Override
+        Create getTarget() {
+            return target;
+        }
+        
+        @Override
+        String describe(Map<Create, String> labels) {
+            StringBuilder body = new StringBuilder("{");
+            if (text != null) {
+                body.append("text: ").append(quote(text));
+            }
+            if (completed != null) {
+                body.append(text != null ? ", " : "").append("completed: ").append(completed);
+            }
+            return "PUT /items/" + target(target, labels) + " " + body.append('}');
+        }
+    }
+    
+    public static final class Delete extends Command {
+        final Create target;
+        
+        Delete(int user, Create target) {
+            super(user);
+            this.target = target;
+        }
+        
+        @Override
+        Create getTarget() {
+            return target;
+        }
+        
+        @Override
+        String describe(Map<Create, String> labels) {
+            return "DELETE /items/" + target(target, labels);
+        }
+    }
+    
+    public static final class ListTodos extends Command {
+        ListTodos(int user) {
+            super(user);
+        }
+        
+        @Override
+        String describe(Map<Create, String> labels) {
+            return "GET /items";
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.seletest.api.stateful;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates random programs from a seed. The prefix mostly creates todos;
+ * the branches then update, delete and list them, so the same few ids are
+ * raced from several threads. Targets are picked regardless of owner, which
+ * also covers users touching each other's todos, and now and then an id
+ * that doesn't exist. Some texts are blank to hit the validation paths.
+ */
+public class CommandGenerator {
+    
+    private static final String[] TEXTS = {
+        "Buy milk", "  Padded with spaces  ", "Ünïcödé ✓", "x", "Write the report", "", "   "
+    };
+    // Blank texts are the last two; keep them rare so most commands change state
+    private static final int BLANK_TEXTS = 2;
+    
+    private final Random random;
+    private final int users;
+    
+    public CommandGenerator(long seed, int users) {
+        this.random = new Random(seed);
+        this.users = users;
+    }
+    
+    public Program next(int prefixLength, int branchCount, int branchLength) {
+        List<Command.Create> creates = new ArrayList<>();
+        List<Command> prefix = new ArrayList<>();
+        for (int i = 0; i < prefixLength; i++) {
+            prefix.add(random.nextInt(4) == 0 ? command(creates) : create(creates));
+        }
+        
+        List<List<Command>> branches = new ArrayList<>();
+        for (int b = 0; b < branchCount; b++) {
+            // A branch can target the prefix's todos and its own, never another branch's
+            List<Command.Create> visible = new ArrayList<>(creates);
+            List<Command> branch = new ArrayList<>();
+            for (int i = 0; i < branchLength; i++) {
+                branch.add(command(visible));
+            }
+            branches.add(branch);
+        }
+        return new Program(prefix, branches);
+    }
+    
+    private Command command(List<Command.Create> creates) {
+        int roll = random.nextInt(100);
+        if (roll < 25) {
+            return create(creates);
+        }
+        if (roll < 60) {
+            Boolean completed = random.nextInt(3) == 0 ? null : random.nextBoolean();
+            String text = completed == null || random.nextInt(3) == 0 ? text() : null;
+            return new Command.Update(user(), target(creates), text, completed);
+        }
+        if (roll < 85) {
+            return new Command.Delete(user(), target(creates));
+        }
+        return new Command.ListTodos(user());
+    }
+    
+    private Command.Create create(List<Command.Create> creates) {
+        Command.Create create = new Command.Create(user(), text());
+        creates.add(create);
+        return create;
+    }
+    
+    private Command.Create target(List<Command.Create> creates) {
+        if (creates.isEmpty() || random.nextInt(10) == 0) {
+            return null;
+        }
+        return creates.get(random.nextInt(creates.size()));
+    }
+    
+    private String text() {
+        if (random.nextInt(10) == 0) {
+            return TEXTS[TEXTS.length - 1 - random.nextInt(BLANK_TEXTS)];
+        }
+        return TEXTS[random.nextInt(TEXTS.length - BLANK_TEXTS)];
+    }
+    
+    private int user() {
+        return random.nextInt(users);
+    }
+}
\ No newline at end of file
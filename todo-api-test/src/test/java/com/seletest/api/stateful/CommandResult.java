@@ -0,0 +1,31 @@
+package com.seletest.api.stateful;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * What the server answered to one command. The id the command was sent to
+ * is kept with it, so the model checks the request that was really made.
+ */
+public class CommandResult {
+    
+    // Transport failures carry this status and the exception message as body
+    static final int NO_RESPONSE = -1;
+    
+    final int status;
+    final JsonNode body;
+    final int targetId;
+    
+    CommandResult(int status, JsonNode body, int targetId) {
+        this.status = status;
+        this.body = body;
+        this.targetId = targetId;
+    }
+    
+    @Override
+    public String toString() {
+        if (status == NO_RESPONSE) {
+            return "no response (" + body.asText() + ")";
+        }
+        return status + (body == null || body.isMissingNode() ? "" : " " + body);
+    }
+}
\ No newline at end of file
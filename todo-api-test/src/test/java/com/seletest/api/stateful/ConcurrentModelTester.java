@@ -0,0 +1,197 @@
+package com.seletest.api.stateful;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Stateful property-based testing of /items: generates programs from a seed,
+ * runs each with concurrent branches and checks the responses against
+ * {@link TodoModel}. The first failing program is shrunk to a smaller one
+ * that still fails. Races don't fail every time, so each shrink candidate
+ * gets several runs before it is rejected.
+ *
+ * <pre>
+ * try (ProgramRunner runner = new ProgramRunner(accounts, 4)) {
+ *     ConcurrentModelTester.Report report = new ConcurrentModelTester(runner).run(seed, 500, Duration.ofMinutes(1));
+ * }
+ * </pre>
+ */
+public class ConcurrentModelTester {
+    
+    private final Function<Program, Execution> runner;
+    private final int[] userIds;
+    private final ProgramChecker checker;
+    private int prefixLength = 6;
+    private int branchCount = 4;
+    private int branchLength = 5;
+    private int shrinkRuns = 10;
+    private int maxShrinkRuns = 1000;
+    
+    public ConcurrentModelTester(ProgramRunner runner) {
+        this(runner, 1_000_000);
+    }
+    
+    public ConcurrentModelTester(ProgramRunner runner, int maxStates) {
+        this(runner::run, runner.getUserIds(), maxStates);
+    }
+    
+    // Any way of running a program will do, e.g. a simulated server in a test
+    ConcurrentModelTester(Function<Program, Execution> runner, int[] userIds, int maxStates) {
+        this.runner = runner;
+        this.userIds = userIds.clone();
+        this.checker = new ProgramChecker(userIds.length, maxStates);
+    }
+    
+    public ConcurrentModelTester withShape(int prefixLength, int branchCount, int branchLength) {
+        this.prefixLength = Math.max(0, prefixLength);
+        this.branchCount = Math.max(1, branchCount);
+        this.branchLength = Math.max(1, branchLength);
+        return this;
+    }
+    
+    /**
+     * Runs per shrink candidate before it counts as passing, and in total.
+     */
+    public ConcurrentModelTester withShrinkRuns(int perCandidate, int total) {
+        this.shrinkRuns = Math.max(1, perCandidate);
+        this.maxShrinkRuns = Math.max(0, total);
+        return this;
+    }
+    
+    /**
+     * Runs up to {@code programs} programs, or until the budget is spent,
+     * stopping at the first failure.
+     */
+    public Report run(long seed, int programs, Duration budget) {
+        CommandGenerator generator = new CommandGenerator(seed, userIds.length);
+        long start = System.nanoTime();
+        long deadline = start + budget.toNanos();
+        int ran = 0;
+        int inconclusive = 0;
+        long commands = 0;
+        while (ran < programs && System.nanoTime() < deadline) {
+            Program program = generator.next(prefixLength, branchCount, branchLength);
+            ran++;
+            commands += program.size();
+            Execution execution = runner.apply(program);
+            ProgramChecker.Verdict verdict = checker.check(new TodoModel(userIds), program, execution);
+            if (verdict.inconclusive) {
+                inconclusive++;
+            } else if (verdict.mismatch != null) {
+                Failure original = new Failure(program, execution, verdict.mismatch);
+                return new Report(seed, ran, inconclusive, commands, Duration.ofNanos(System.nanoTime() - start),
+                    original, shrink(original));
+            }
+        }
+        return new Report(seed, ran, inconclusive, commands, Duration.ofNanos(System.nanoTime() - start), null, null);
+    }
+    
+    Failure shrink(Failure failure) {
+        int runs = 0;
+        boolean smaller = true;
+        while (smaller && runs < maxShrinkRuns) {
+            smaller = false;
+            for (Program candidate : failure.program.shrinkCandidates()) {
+                if (candidate.size() == 0) {
+                    continue;
+                }
+                Failure reproduced = null;
+                for (int attempt = 0; attempt < shrinkRuns && reproduced == null && runs < maxShrinkRuns; attempt++) {
+                    runs++;
+                    Execution execution = runner.apply(candidate);
+                    // An undecided candidate doesn't count as reproducing the failure
+                    ProgramChecker.Verdict verdict = checker.check(new TodoModel(userIds), candidate, execution);
+                    if (verdict.mismatch != null) {
+                        reproduced = new Failure(candidate, execution, verdict.mismatch);
+                    }
+                }
+                if (reproduced != null) {
+                    failure = reproduced;
+                    smaller = true;
+                    break;
+                }
+                if (runs >= maxShrinkRuns) {
+                    break;
+                }
+            }
+        }
+        failure.shrinkRuns = runs;
+        return failure;
+    }
+    
+    public static class Failure {
+        private final Program program;
+        private final Execution execution;
+        private final String mismatch;
+        private int shrinkRuns;
+        
+        Failure(Program program, Execution execution, String mismatch) {
+            this.program = program;
+            this.execution = execution;
+            this.mismatch = mismatch;
+        }
+        
+        public Program getProgram() {
+            return program;
+        }
+        
+        @Override
+        public String toString() {
+            return mismatch + "\n" + program.describe(execution);
+        }
+    }
+    
+    public static class Report {
+        private final long seed;
+        private final int programs;
+        private final int inconclusive;
+        private final long commands;
+        private final Duration elapsed;
+        private final Failure original;
+        private final Failure shrunk;
+        
+        Report(long seed, int programs, int inconclusive, long commands, Duration elapsed, Failure original, Failure shrunk) {
+            this.seed = seed;
+            this.programs = programs;
+            this.inconclusive = inconclusive;
+            this.commands = commands;
+            this.elapsed = elapsed;
+            this.original = original;
+            this.shrunk = shrunk;
+        }
+        
+        public boolean passed() {
+            return original == null;
+        }
+        
+        public Failure getShrunk() {
+            return shrunk;
+        }
+        
+        /**
+         * Programs whose interleavings were too many to search within the
+         * state budget; they neither passed nor failed.
+         */
+        public int getInconclusive() {
+            return inconclusive;
+        }
+        
+        public String summary() {
+            double seconds = Math.max(1e-9, elapsed.toNanos() / 1e9);
+            return String.format("%d programs, %d commands in %.1f s (%.0f commands/s), seed %d%s",
+                programs, commands, seconds, commands / seconds, seed,
+                inconclusive > 0 ? ", " + inconclusive + " program(s) inconclusive" : "");
+        }
+        
+        @Override
+        public String toString() {
+            if (passed()) {
+                return (inconclusive > 0 ? "No failures, but not all decided: " : "Passed: ") + summary();
+            }
+            return "Failed at program " + programs + ": " + summary() + "\n"
+                + "Shrunk from " + original.program.size() + " to " + shrunk.program.size() + " commands in "
+                + shrunk.shrinkRuns + " runs:\n" + shrunk
+                + "\nOriginal failure:\n" + original;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,182 @@
+package com.seletest.api.stateful;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Drives the generate, check and shrink loop against a simulated server
+ * instead of the API, so a known bug has to be found and shrunk to the
+ * two commands that show it.
+ */
+@Epic("Todo API")
+@Feature("Test Harness")
+@DisplayName("Concurrent Model Tester Tests")
+public class ConcurrentModelTesterTest {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int[] USER_IDS = {101, 102, 103};
+    
+    @Test
+    @DisplayName("Correct simulated server passes")
+    @Description("Verify that programs run against a server that behaves like the model all pass")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Shrinking")
+    public void testCorrectServerPasses() {
+        ConcurrentModelTester.Report report = new ConcurrentModelTester(new SimulatedServer(false), USER_IDS, 100_000)
+            .run(1L, 200, Duration.ofMinutes(1));
+        
+        assertThat(report.toString(), report.passed(), is(true));
+    }
+    
+    @Test
+    @DisplayName("Known-failing program shrinks to its two relevant commands")
+    @Description("Verify that a program hitting a server that ignores completed: true shrinks to the create and the update")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Shrinking")
+    public void testKnownFailureShrinks() {
+        Command.Create milk = new Command.Create(0, "Buy milk");
+        Command.Create bread = new Command.Create(1, "Buy bread");
+        Command.Create report = new Command.Create(0, "Write the report");
+        Command.Update completeMilk = new Command.Update(0, milk, null, true);
+        Program program = new Program(
+            List.of(milk, bread, new Command.ListTodos(0), new Command.Update(1, bread, "Buy rye", null), report),
+            List.of(
+                List.of(new Command.ListTodos(1), completeMilk, new Command.ListTodos(0)),
+                List.of(new Command.Update(1, bread, null, false), new Command.Delete(1, bread)),
+                List.of(new Command.Update(0, report, "Write it", null), new Command.Delete(2, milk))));
+        SimulatedServer server = new SimulatedServer(true);
+        ConcurrentModelTester tester = new ConcurrentModelTester(server, USER_IDS, 100_000).withShrinkRuns(1, 1000);
+        Execution execution = server.apply(program);
+        ProgramChecker.Verdict verdict = new ProgramChecker(USER_IDS.length, 100_000)
+            .check(new TodoModel(USER_IDS), program, execution);
+        assertThat(verdict.mismatch, notNullValue());
+        
+        ConcurrentModelTester.Failure shrunk = tester.shrink(new ConcurrentModelTester.Failure(program, execution,
+            verdict.mismatch));
+        
+        Program minimal = shrunk.getProgram();
+        assertThat(shrunk.toString(), minimal.size(), is(2));
+        List<Command> commands = new ArrayList<>(minimal.prefix);
+        minimal.branches.forEach(commands::addAll);
+        assertThat(commands, contains(sameInstance(milk), sameInstance(completeMilk)));
+    }
+    
+    @Test
+    @DisplayName("Generated failure is found and shrunk")
+    @Description("Verify that the generator finds the ignored completed: true within a few programs and reports it shrunk to two commands")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Shrinking")
+    public void testGeneratedFailureIsShrunk() {
+        ConcurrentModelTester.Report report = new ConcurrentModelTester(new SimulatedServer(true), USER_IDS, 100_000)
+            .run(1L, 200, Duration.ofMinutes(1));
+        
+        assertThat(report.passed(), is(false));
+        assertThat(report.toString(), report.getShrunk().getProgram().size(), is(2));
+        assertThat(report.toString(), containsString("completed: true"));
+    }
+    
+    /**
+     * Runs a program one command at a time, branches one after another,
+     * answering the way the API does. With {@code ignoreCompleted} it has a
+     * bug: updates never mark a todo completed.
+     */
+    private static final class SimulatedServer implements Function<Program, Execution> {
+        
+        private final boolean ignoreCompleted;
+        private final Map<Integer, ObjectNode> todos = new TreeMap<>();
+        private final Map<Command.Create, Integer> ids = new HashMap<>();
+        // Keeps counting across runs, like the server's ids
+        private int nextId;
+        
+        SimulatedServer(boolean ignoreCompleted) {
+            this.ignoreCompleted = ignoreCompleted;
+        }
+        
+        @Override
+        public Execution apply(Program program) {
+            todos.clear();
+            ids.clear();
+            List<CommandResult> prefix = execute(program.prefix);
+            List<List<CommandResult>> branches = new ArrayList<>();
+            for (List<Command> branch : program.branches) {
+                branches.add(execute(branch));
+            }
+            List<CommandResult> finalLists = new ArrayList<>();
+            for (int user = 0; user < USER_IDS.length; user++) {
+                finalLists.add(execute(new Command.ListTodos(user)));
+            }
+            return new Execution(prefix, branches, finalLists);
+        }
+        
+        private List<CommandResult> execute(List<Command> commands) {
+            List<CommandResult> results = new ArrayList<>();
+            for (Command command : commands) {
+                results.add(execute(command));
+            }
+            return results;
+        }
+        
+        private CommandResult execute(Command command) {
+            int userId = USER_IDS[command.getUser()];
+            if (command instanceof Command.Create) {
+                Command.Create create = (Command.Create) command;
+                if (create.text.trim().isEmpty()) {
+                    return error(400, "Todo text is required", 0);
+                }
+                int id = ++nextId;
+                ObjectNode todo = MAPPER.createObjectNode().put("id", id).put("text", create.text.trim())
+                    .put("completed", false).put("userId", userId);
+                todos.put(id, todo);
+                ids.put(create, id);
+                return new CommandResult(201, todo.deepCopy(), 0);
+            }
+            if (command instanceof Command.ListTodos) {
+                ArrayNode list = MAPPER.createArrayNode();
+                todos.values().stream().filter(todo -> todo.path("userId").asInt() == userId)
+                    .forEach(todo -> list.add(todo.deepCopy()));
+                return new CommandResult(200, list, 0);
+            }
+            int id = ids.getOrDefault(command.getTarget(), ProgramRunner.UNKNOWN_ID);
+            ObjectNode todo = todos.get(id);
+            if (todo == null || todo.path("userId").asInt() != userId) {
+                return error(404, "Todo not found", id);
+            }
+            if (command instanceof Command.Delete) {
+                todos.remove(id);
+                return new CommandResult(204, MAPPER.missingNode(), id);
+            }
+            Command.Update update = (Command.Update) command;
+            if (update.text != null && update.text.trim().isEmpty()) {
+                return error(400, "Todo text cannot be empty", id);
+            }
+            if (update.text != null) {
+                todo.put("text", update.text.trim());
+            }
+            if (update.completed != null && !(ignoreCompleted && update.completed)) {
+                todo.put("completed", update.completed);
+            }
+            return new CommandResult(200, todo.deepCopy(), id);
+        }
+        
+        private static CommandResult error(int status, String message, int targetId) {
+            JsonNode body = MAPPER.createObjectNode().put("message", message);
+            return new CommandResult(status, body, targetId);
+        }
+    }
+}
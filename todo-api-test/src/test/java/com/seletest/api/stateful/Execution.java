@@ -0,0 +1,20 @@
+package com.seletest.api.stateful;
+
+import java.util.List;
+
+/**
+ * The responses of one run of a {@link Program}, in program order, and the
+ * final GET /items of every user taken once all branches finished.
+ */
+public class Execution {
+    
+    final List<CommandResult> prefix;
+    final List<List<CommandResult>> branches;
+    final List<CommandResult> finalLists;
+    
+    Execution(List<CommandResult> prefix, List<List<CommandResult>> branches, List<CommandResult> finalLists) {
+        this.prefix = prefix;
+        this.branches = branches;
+        this.finalLists = finalLists;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.seletest.api.stateful;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A generated test case: a sequential prefix that sets up todos, then
+ * branches that run at the same time, each on its own client thread. A
+ * command only targets creates from the prefix or earlier in its own branch,
+ * whose ids are known by the time it is sent.
+ */
+public final class Program {
+    
+    final List<Command> prefix;
+    final List<List<Command>> branches;
+    
+    Program(List<Command> prefix, List<List<Command>> branches) {
+        this.prefix = List.copyOf(prefix);
+        List<List<Command>> copies = new ArrayList<>();
+        for (List<Command> branch : branches) {
+            copies.add(List.copyOf(branch));
+        }
+        this.branches = List.copyOf(copies);
+    }
+    
+    public int size() {
+        return prefix.size() + branches.stream().mapToInt(List::size).sum();
+    }
+    
+    /**
+     * Smaller programs to try while shrinking, most aggressive first: a whole
+     * branch dropped, one command dropped (with everything that targets it),
+     * or a branch's first command moved into the prefix so it no longer
+     * races.
+     */
+    List<Program> shrinkCandidates() {
+        List<Program> candidates = new ArrayList<>();
+        for (int b = 0; b < branches.size(); b++) {
+            List<List<Command>> fewer = new ArrayList<>(branches);
+            fewer.remove(b);
+            candidates.add(new Program(prefix, fewer));
+        }
+        for (int b = branches.size() - 1; b >= 0; b--) {
+            for (int i = branches.get(b).size() - 1; i >= 0; i--) {
+                candidates.add(without(branches.get(b).get(i)));
+            }
+        }
+        for (int i = prefix.size() - 1; i >= 0; i--) {
+            candidates.add(without(prefix.get(i)));
+        }
+        for (int b = 0; b < branches.size(); b++) {
+            if (branches.get(b).isEmpty()) {
+                continue;
+            }
+            List<Command> longer = new ArrayList<>(prefix);
+            longer.add(branches.get(b).get(0));
+            List<List<Command>> shorter = new ArrayList<>(branches);
+            shorter.set(b, branches.get(b).subList(1, branches.get(b).size()));
+            candidates.add(new Program(longer, shorter));
+        }
+        return candidates;
+    }
+    
+    private Program without(Command removed) {
+        Set<Command> gone = Collections.newSetFromMap(new IdentityHashMap<>());
+        gone.add(removed);
+        Function<List<Command>, List<Command>> keep = commands -> {
+            List<Command> kept = new ArrayList<>();
+            for (Command command : commands) {
+                if (gone.contains(command) || gone.contains(command.getTarget())) {
+                    gone.add(command);
+                } else {
+                    kept.add(command);
+                }
+            }
+            return kept;
+        };
+        List<Command> shorterPrefix = keep.apply(prefix);
+        List<List<Command>> shorterBranches = new ArrayList<>();
+        for (List<Command> branch : branches) {
+            List<Command> kept = keep.apply(branch);
+            if (!kept.isEmpty()) {
+                shorterBranches.add(kept);
+            }
+        }
+        return new Program(shorterPrefix, shorterBranches);
+    }
+    
+    /**
+     * The program as one line per command, with the responses of a run next
+     * to each command when given.
+     */
+    String describe(Execution execution) {
+        Map<Command.Create, String> labels = new IdentityHashMap<>();
+        forEachCommand(command -> {
+            if (command instanceof Command.Create) {
+                labels.put((Command.Create) command, "#" + (labels.size() + 1));
+            }
+        });
+        StringBuilder sb = new StringBuilder("prefix:\n");
+        describe(sb, prefix, execution == null ? null : execution.prefix, labels);
+        for (int b = 0; b < branches.size(); b++) {
+            sb.append("branch ").append(b + 1).append(" (concurrent):\n");
+            describe(sb, branches.get(b), execution == null ? null : execution.branches.get(b), labels);
+        }
+        return sb.toString();
+    }
+    
+    private static void describe(StringBuilder sb, List<Command> commands, List<CommandResult> results,
+                                 Map<Command.Create, String> labels) {
+        for (int i = 0; i < commands.size(); i++) {
+            Command command = commands.get(i);
+            sb.append(String.format("  user%d  %-44s", command.getUser() + 1, command.describe(labels)));
+            if (results != null) {
+                sb.append(" => ").append(results.get(i));
+            }
+            sb.append('\n');
+        }
+    }
+    
+    private void forEachCommand(Consumer<Command> action) {
+        prefix.forEach(action);
+        branches.forEach(branch -> branch.forEach(action));
+    }
+    
+    @Override
+    public String toString() {
+        return describe(null);
+    }
+}
\ No newline at end of file
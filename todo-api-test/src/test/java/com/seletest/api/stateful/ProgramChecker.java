@@ -0,0 +1,168 @@
+package com.seletest.api.stateful;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Decides whether an execution is explained by the reference model. The
+ * prefix and the final lists are checked in order; the concurrent branches
+ * pass if some interleaving of them, keeping each branch's own order, gives
+ * the observed responses. The search is depth first and remembers every
+ * (branch positions, model state) pair it has ruled out, so interleavings
+ * that reach the same state are only explored once.
+ */
+final class ProgramChecker {
+    
+    private final List<Command> finalLists;
+    private final int maxStates;
+    
+    ProgramChecker(int users, int maxStates) {
+        this.finalLists = new ArrayList<>();
+        for (int user = 0; user < users; user++) {
+            finalLists.add(new Command.ListTodos(user));
+        }
+        this.maxStates = maxStates;
+    }
+    
+    /**
+     * Whether the execution is consistent, inconsistent (and why) or
+     * undecided because the search ran past {@code maxStates}.
+     */
+    Verdict check(TodoModel initial, Program program, Execution execution) {
+        TodoModel model = initial;
+        for (int i = 0; i < program.prefix.size(); i++) {
+            TodoModel.Transition transition = model.step(program.prefix.get(i), execution.prefix.get(i));
+            if (transition.mismatch != null) {
+                return Verdict.mismatch("prefix step " + (i + 1) + ": " + transition.mismatch);
+            }
+            model = transition.next;
+        }
+        
+        Search search = new Search(program, execution);
+        if (search.explains(model, new int[program.branches.size()])) {
+            return Verdict.CONSISTENT;
+        }
+        if (search.exhausted) {
+            return Verdict.INCONCLUSIVE;
+        }
+        return Verdict.mismatch("no interleaving of the branches explains the responses; the furthest one got "
+            + search.deepest + " steps in before: " + search.deepestMismatch);
+    }
+    
+    static final class Verdict {
+        static final Verdict CONSISTENT = new Verdict(null, false);
+        static final Verdict INCONCLUSIVE = new Verdict(null, true);
+        
+        final String mismatch;
+        final boolean inconclusive;
+        
+        private Verdict(String mismatch, boolean inconclusive) {
+            this.mismatch = mismatch;
+            this.inconclusive = inconclusive;
+        }
+        
+        static Verdict mismatch(String mismatch) {
+            return new Verdict(mismatch, false);
+        }
+    }
+    
+    private final class Search {
+        private final Program program;
+        private final Execution execution;
+        private final Set<State> ruledOut = new HashSet<>();
+        private int deepest = -1;
+        private String deepestMismatch;
+        private boolean exhausted;
+        
+        Search(Program program, Execution execution) {
+            this.program = program;
+            this.execution = execution;
+        }
+        
+        boolean explains(TodoModel model, int[] positions) {
+            int depth = Arrays.stream(positions).sum();
+            boolean done = true;
+            for (int b = 0; b < positions.length; b++) {
+                if (positions[b] < program.branches.get(b).size()) {
+                    done = false;
+                    break;
+                }
+            }
+            if (done) {
+                return finalListsMatch(model, depth);
+            }
+            if (exhausted || !ruledOut.add(new State(positions, model))) {
+                return false;
+            }
+            if (ruledOut.size() > maxStates) {
+                exhausted = true;
+                return false;
+            }
+            
+            for (int b = 0; b < positions.length; b++) {
+                int position = positions[b];
+                if (position == program.branches.get(b).size()) {
+                    continue;
+                }
+                TodoModel.Transition transition = model.step(program.branches.get(b).get(position),
+                    execution.branches.get(b).get(position));
+                if (transition.mismatch != null) {
+                    note(depth, "branch " + (b + 1) + " step " + (position + 1) + ": " + transition.mismatch);
+                    continue;
+                }
+                int[] next = positions.clone();
+                next[b]++;
+                if (explains(transition.next, next)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        private boolean finalListsMatch(TodoModel model, int depth) {
+            for (int user = 0; user < finalLists.size(); user++) {
+                TodoModel.Transition transition = model.step(finalLists.get(user), execution.finalLists.get(user));
+                if (transition.mismatch != null) {
+                    note(depth, "final list of user" + (user + 1) + ": " + transition.mismatch);
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private void note(int depth, String mismatch) {
+            if (depth > deepest) {
+                deepest = depth;
+                deepestMismatch = mismatch;
+            }
+        }
+    }
+    
+    private static final class State {
+        private final int[] positions;
+        private final TodoModel model;
+        
+        State(int[] positions, TodoModel model) {
+            this.positions = positions;
+            this.model = model;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof State)) {
+                return false;
+            }
+            State other = (State) o;
+            return Arrays.equals(positions, other.positions) && model.equals(other.model);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(Arrays.hashCode(positions), model);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.seletest.api.stateful;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Hand-built executions with known answers, so a passing stateful run means
+ * the server matched the model rather than that the checker let everything
+ * through.
+ */
+@Epic("Todo API")
+@Feature("Test Harness")
+@DisplayName("Program Checker Tests")
+public class ProgramCheckerTest {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int[] USER_IDS = {101, 102};
+    private static final int ID = 5;
+    
+    private final ProgramChecker checker = new ProgramChecker(USER_IDS.length, 100_000);
+    
+    @Test
+    @DisplayName("Responses the model predicts pass")
+    @Description("Verify that a create, update and list answered as the model expects is consistent")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Model checker")
+    public void testExpectedResponsesPass() {
+        Command.Create create = new Command.Create(0, "  Buy milk  ");
+        Program program = new Program(List.of(create, new Command.Update(0, create, null, true)), List.of());
+        Execution execution = new Execution(
+            List.of(result(201, todo(ID, 0, "Buy milk", false), 0), result(200, todo(ID, 0, "Buy milk", true), ID)),
+            List.of(),
+            List.of(result(200, list(todo(ID, 0, "Buy milk", true)), 0), result(200, list(), 0)));
+        
+        ProgramChecker.Verdict verdict = check(program, execution);
+        
+        assertThat(verdict.mismatch, nullValue());
+        assertThat(verdict.inconclusive, is(false));
+    }
+    
+    @Test
+    @DisplayName("Wrong text in a response is a mismatch")
+    @Description("Verify that an update answered with text other than what was sent fails at that step")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Model checker")
+    public void testWrongResponseIsMismatch() {
+        Command.Create create = new Command.Create(0, "Buy milk");
+        Program program = new Program(List.of(create, new Command.Update(0, create, "Buy bread", null)), List.of());
+        Execution execution = new Execution(
+            List.of(result(201, todo(ID, 0, "Buy milk", false), 0), result(200, todo(ID, 0, "Buy milk", false), ID)),
+            List.of(),
+            List.of(result(200, list(todo(ID, 0, "Buy milk", false)), 0), result(200, list(), 0)));
+        
+        ProgramChecker.Verdict verdict = check(program, execution);
+        
+        assertThat(verdict.mismatch, allOf(startsWith("prefix step 2"), containsString("wrong text")));
+    }
+    
+    @Test
+    @DisplayName("Another user's todo is not found")
+    @Description("Verify that a delete of another user's todo must get 404, and a 204 is a mismatch")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Model checker")
+    public void testForeignDeleteIsMismatch() {
+        Command.Create create = new Command.Create(0, "Buy milk");
+        Program program = new Program(List.of(create, new Command.Delete(1, create)), List.of());
+        Execution execution = new Execution(
+            List.of(result(201, todo(ID, 0, "Buy milk", false), 0), result(204, MAPPER.missingNode(), ID)),
+            List.of(),
+            List.of(result(200, list(), 0), result(200, list(), 0)));
+        
+        ProgramChecker.Verdict verdict = check(program, execution);
+        
+        assertThat(verdict.mismatch, allOf(startsWith("prefix step 2"), containsString("404")));
+    }
+    
+    @Test
+    @DisplayName("Concurrent branches pass in either order, but not with an impossible read")
+    @Description("Verify that a list racing an update may see the todo before or after it, and never a text no one wrote")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Model checker")
+    public void testBranchesNeedSomeInterleaving() {
+        Command.Create create = new Command.Create(0, "Buy milk");
+        Program program = new Program(List.of(create), List.of(
+            List.of(new Command.Update(0, create, "Buy bread", null)),
+            List.of(new Command.ListTodos(0))));
+        
+        for (String seen : List.of("Buy milk", "Buy bread")) {
+            ProgramChecker.Verdict verdict = check(program, raceSeeing(seen));
+            assertThat("list seeing " + seen, verdict.mismatch, nullValue());
+        }
+        ProgramChecker.Verdict verdict = check(program, raceSeeing("Buy cheese"));
+        assertThat(verdict.mismatch, startsWith("no interleaving of the branches explains the responses"));
+    }
+    
+    private ProgramChecker.Verdict check(Program program, Execution execution) {
+        return checker.check(new TodoModel(USER_IDS), program, execution);
+    }
+    
+    private static Execution raceSeeing(String text) {
+        return new Execution(
+            List.of(result(201, todo(ID, 0, "Buy milk", false), 0)),
+            List.of(List.of(result(200, todo(ID, 0, "Buy bread", false), ID)),
+                List.of(result(200, list(todo(ID, 0, text, false)), 0))),
+            List.of(result(200, list(todo(ID, 0, "Buy bread", false)), 0), result(200, list(), 0)));
+    }
+    
+    private static CommandResult result(int status, JsonNode body, int targetId) {
+        return new CommandResult(status, body, targetId);
+    }
+    
+    private static JsonNode todo(int id, int user, String text, boolean completed) {
+        return MAPPER.createObjectNode().put("id", id).put("text", text).put("completed", completed)
+            .put("userId", USER_IDS[user]);
+    }
+    
+    private static JsonNode list(JsonNode... todos) {
+        ArrayNode list = MAPPER.createArrayNode();
+        for (JsonNode todo : todos) {
+            list.add(todo);
+        }
+        return list;
+    }
+}
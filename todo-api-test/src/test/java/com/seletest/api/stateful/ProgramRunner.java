@@ -0,0 +1,237 @@
+package com.seletest.api.stateful;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.seletest.api.models.LoginRequest;
+import com.seletest.api.utils.ApiConfig;
+import com.seletest.api.utils.AuthHelper;
+import com.seletest.api.utils.EndpointCoverage;
+import com.seletest.api.utils.TrafficRecordingFilter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs programs against the API for a fixed pool of accounts. The prefix
+ * runs in order on the calling thread; the branches start together behind a
+ * latch, one client thread each, so their requests overlap on the server.
+ * Before every run the pool's todos are deleted, all at once rather than one
+ * call after another, so each run starts from an empty model.
+ */
+public class ProgramRunner implements AutoCloseable {
+    
+    // Never issued by the server, for commands whose target doesn't exist
+    static final int UNKNOWN_ID = Integer.MAX_VALUE;
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final ExecutorService branchThreads;
+    private final String[] tokens;
+    private final int[] userIds;
+    
+    public ProgramRunner(List<LoginRequest> accounts, int maxBranches) {
+        tokens = new String[accounts.size()];
+        userIds = new int[accounts.size()];
+        for (int i = 0; i < accounts.size(); i++) {
+            CommandResult login = send("POST", ApiConfig.LOGIN_ENDPOINT, null, MAPPER.valueToTree(accounts.get(i)), 0);
+            if (login.status != 200) {
+                throw new IllegalStateException("Could not log in as " + accounts.get(i).getUsername() + ": " + login);
+            }
+            tokens[i] = login.body.path("token").asText();
+            userIds[i] = login.body.path("user").path("id").asInt();
+        }
+        branchThreads = Executors.newFixedThreadPool(Math.max(1, maxBranches), task -> {
+            Thread thread = new Thread(task, "stateful-branch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Requests go out on this runner's own threads, so attribute them here for test impact selection
+        EndpointCoverage.record("POST", ApiConfig.LOGIN_ENDPOINT);
+        EndpointCoverage.record("GET", ApiConfig.ITEMS_ENDPOINT);
+        EndpointCoverage.record("POST", ApiConfig.ITEMS_ENDPOINT);
+        EndpointCoverage.record("PUT", ApiConfig.ITEMS_ENDPOINT + "/1");
+        EndpointCoverage.record("DELETE", ApiConfig.ITEMS_ENDPOINT + "/1");
+    }
+    
+    int[] getUserIds() {
+        return userIds.clone();
+    }
+    
+    public Execution run(Program program) {
+        reset();
+        Map<Command.Create, Integer> ids = new ConcurrentHashMap<>();
+        List<CommandResult> prefix = new ArrayList<>();
+        for (Command command : program.prefix) {
+            prefix.add(execute(command, ids));
+        }
+        
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<CommandResult>>> running = new ArrayList<>();
+        for (List<Command> branch : program.branches) {
+            running.add(branchThreads.submit(() -> {
+                start.await();
+                List<CommandResult> results = new ArrayList<>();
+                for (Command command : branch) {
+                    results.add(execute(command, ids));
+                }
+                return results;
+            }));
+        }
+        start.countDown();
+        List<List<CommandResult>> branches = new ArrayList<>();
+        for (Future<List<CommandResult>> branch : running) {
+            try {
+                branches.add(branch.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Branch failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while running a program", e);
+            }
+        }
+        
+        List<CommandResult> finalLists = new ArrayList<>();
+        for (int user = 0; user < userIds.length; user++) {
+            finalLists.add(execute(new Command.ListTodos(user), ids));
+        }
+        return new Execution(prefix, branches, finalLists);
+    }
+    
+    private CommandResult execute(Command command, Map<Command.Create, Integer> ids) {
+        String token = tokens[command.getUser()];
+        if (command instanceof Command.Create) {
+            Command.Create create = (Command.Create) command;
+            CommandResult result = send("POST", ApiConfig.ITEMS_ENDPOINT, token,
+                MAPPER.createObjectNode().put("text", create.text), 0);
+            if (result.status == 201) {
+                ids.put(create, result.body.path("id").asInt());
+            }
+            return result;
+        }
+        if (command instanceof Command.Update) {
+            Command.Update update = (Command.Update) command;
+            int id = resolve(update.target, ids);
+            ObjectNode body = MAPPER.createObjectNode();
+            if (update.text != null) {
+                body.put("text", update.text);
+            }
+            if (update.completed != null) {
+                body.put("completed", update.completed);
+            }
+            return send("PUT", ApiConfig.ITEMS_ENDPOINT + "/" + id, token, body, id);
+        }
+        if (command instanceof Command.Delete) {
+            int id = resolve(((Command.Delete) command).target, ids);
+            return send("DELETE", ApiConfig.ITEMS_ENDPOINT + "/" + id, token, null, id);
+        }
+        return send("GET", ApiConfig.ITEMS_ENDPOINT, token, null, 0);
+    }
+    
+    private static int resolve(Command.Create target, Map<Command.Create, Integer> ids) {
+        return target == null ? UNKNOWN_ID : ids.getOrDefault(target, UNKNOWN_ID);
+    }
+    
+    private void reset() {
+        List<CompletableFuture<CommandResult>> lists = new ArrayList<>();
+        for (String token : tokens) {
+            lists.add(sendAsync("GET", ApiConfig.ITEMS_ENDPOINT, token));
+        }
+        List<CompletableFuture<CommandResult>> deletes = new ArrayList<>();
+        for (int user = 0; user < tokens.length; user++) {
+            CommandResult list = lists.get(user).join();
+            if (list.status != 200) {
+                throw new IllegalStateException("Could not list todos to reset: " + list);
+            }
+            for (JsonNode todo : list.body) {
+                deletes.add(sendAsync("DELETE", ApiConfig.ITEMS_ENDPOINT + "/" + todo.path("id").asInt(), tokens[user]));
+            }
+        }
+        for (CompletableFuture<CommandResult> delete : deletes) {
+            CommandResult result = delete.join();
+            // A leftover todo would show up later as a model mismatch, so stop here instead
+            if (result.status / 100 != 2 && result.status != 404) {
+                throw new IllegalStateException("Could not delete todo to reset: " + result);
+            }
+        }
+    }
+    
+    private CompletableFuture<CommandResult> sendAsync(String method, String path, String token) {
+        HttpRequest request = request(method, path, token, null);
+        long client = Thread.currentThread().getId();
+        long sent = TrafficRecordingFilter.epochMicrosNow();
+        long start = System.nanoTime();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .whenComplete((response, error) -> TrafficRecordingFilter.recordHttpClient(request, client, sent, start, response))
+            .handle((response, error) -> error == null
+                ? new CommandResult(response.statusCode(), parse(response.body()), 0)
+                : new CommandResult(CommandResult.NO_RESPONSE, TextNode.valueOf(error.toString()), 0));
+    }
+    
+    private CommandResult send(String method, String path, String token, JsonNode body, int targetId) {
+        HttpRequest request = request(method, path, token, body);
+        long sent = TrafficRecordingFilter.epochMicrosNow();
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response = null;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            return new CommandResult(response.statusCode(), parse(response.body()), targetId);
+        } catch (IOException e) {
+            return new CommandResult(CommandResult.NO_RESPONSE, TextNode.valueOf(e.toString()), targetId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running a program", e);
+        } finally {
+            TrafficRecordingFilter.recordHttpClient(request, Thread.currentThread().getId(), sent, start, response);
+        }
+    }
+    
+    private static HttpRequest request(String method, String path, String token, JsonNode body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(ApiConfig.BASE_URL + path)).timeout(REQUEST_TIMEOUT);
+        if (token != null) {
+            request.header(ApiConfig.AUTHORIZATION_HEADER, AuthHelper.getBearerToken(token));
+        }
+        if (body != null) {
+            request.header("Content-Type", ApiConfig.CONTENT_TYPE_JSON);
+        }
+        request.method(method, body == null
+            ? HttpRequest.BodyPublishers.noBody()
+            : HttpRequest.BodyPublishers.ofString(body.toString()));
+        return request.build();
+    }
+    
+    private static JsonNode parse(byte[] body) {
+        if (body.length == 0) {
+            return MAPPER.missingNode();
+        }
+        try {
+            return MAPPER.readTree(body);
+        } catch (IOException e) {
+            // Kept as text so the model reports it as a wrong body rather than a lost response
+            return TextNode.valueOf(new String(body, StandardCharsets.UTF_8));
+        }
+    }
+    
+    @Override
+    public void close() {
+        branchThreads.shutdownNow();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,246 @@
+package com.seletest.api.stateful;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Reference model of the server's todos: what every /items response must
+ * look like given the calls made so far. Immutable, so the checker can
+ * branch from any state while it searches for an interleaving; equal states
+ * reached by different interleavings compare equal.
+ *
+ * <p>The model doesn't predict ids, only that a created todo gets one no
+ * earlier todo had.
+ */
+final class TodoModel {
+    
+    private final int[] userIds;
+    private final Map<Integer, Todo> todos;
+    private final Set<Integer> issuedIds;
+    private final int hash;
+    
+    TodoModel(int[] userIds) {
+        this(userIds, new TreeMap<>(), new HashSet<>());
+    }
+    
+    private TodoModel(int[] userIds, Map<Integer, Todo> todos, Set<Integer> issuedIds) {
+        this.userIds = userIds;
+        this.todos = todos;
+        this.issuedIds = issuedIds;
+        this.hash = Objects.hash(todos, issuedIds);
+    }
+    
+    /**
+     * The state after the command got this result, or a mismatch saying why
+     * the model doesn't allow that result here.
+     */
+    Transition step(Command command, CommandResult result) {
+        if (result.status == CommandResult.NO_RESPONSE) {
+            return Transition.mismatch("no response: " + result.body.asText());
+        }
+        int userId = userIds[command.getUser()];
+        if (command instanceof Command.Create) {
+            return create(userId, (Command.Create) command, result);
+        }
+        if (command instanceof Command.Update) {
+            return update(userId, (Command.Update) command, result);
+        }
+        if (command instanceof Command.Delete) {
+            return delete(userId, result);
+        }
+        return list(userId, result);
+    }
+    
+    private Transition create(int userId, Command.Create create, CommandResult result) {
+        if (isBlank(create.text)) {
+            return expectError(result, 400, "Todo text is required");
+        }
+        if (result.status != 201) {
+            return Transition.mismatch("expected 201 but got " + result);
+        }
+        int id = result.body.path("id").asInt(-1);
+        if (issuedIds.contains(id)) {
+            return Transition.mismatch("id " + id + " was already issued: " + result);
+        }
+        Todo created = new Todo(userId, create.text.trim(), false);
+        String difference = created.differenceFrom(result.body);
+        if (difference != null) {
+            return Transition.mismatch(difference + ": " + result);
+        }
+        Map<Integer, Todo> nextTodos = new TreeMap<>(todos);
+        nextTodos.put(id, created);
+        Set<Integer> nextIssued = new HashSet<>(issuedIds);
+        nextIssued.add(id);
+        return Transition.to(new TodoModel(userIds, nextTodos, nextIssued));
+    }
+    
+    private Transition update(int userId, Command.Update update, CommandResult result) {
+        Todo current = todos.get(result.targetId);
+        if (current == null || current.userId != userId) {
+            return expectError(result, 404, "Todo not found");
+        }
+        if (update.text != null && update.text.trim().isEmpty()) {
+            return expectError(result, 400, "Todo text cannot be empty");
+        }
+        if (result.status != 200) {
+            return Transition.mismatch("expected 200 but got " + result);
+        }
+        Todo updated = new Todo(userId,
+            update.text != null ? update.text.trim() : current.text,
+            update.completed != null ? update.completed : current.completed);
+        String difference = result.body.path("id").asInt(-1) != result.targetId
+            ? "wrong id" : updated.differenceFrom(result.body);
+        if (difference != null) {
+            return Transition.mismatch(difference + ": " + result);
+        }
+        Map<Integer, Todo> nextTodos = new TreeMap<>(todos);
+        nextTodos.put(result.targetId, updated);
+        return Transition.to(new TodoModel(userIds, nextTodos, issuedIds));
+    }
+    
+    private Transition delete(int userId, CommandResult result) {
+        Todo current = todos.get(result.targetId);
+        if (current == null || current.userId != userId) {
+            return expectError(result, 404, "Todo not found");
+        }
+        if (result.status != 204) {
+            return Transition.mismatch("expected 204 but got " + result);
+        }
+        Map<Integer, Todo> nextTodos = new TreeMap<>(todos);
+        nextTodos.remove(result.targetId);
+        return Transition.to(new TodoModel(userIds, nextTodos, issuedIds));
+    }
+    
+    private Transition list(int userId, CommandResult result) {
+        if (result.status != 200 || !result.body.isArray()) {
+            return Transition.mismatch("expected 200 with an array but got " + result);
+        }
+        Map<Integer, Todo> expected = new TreeMap<>();
+        todos.forEach((id, todo) -> {
+            if (todo.userId == userId) {
+                expected.put(id, todo);
+            }
+        });
+        Set<Integer> seen = new HashSet<>();
+        for (JsonNode item : result.body) {
+            int id = item.path("id").asInt(-1);
+            Todo todo = expected.get(id);
+            if (todo == null) {
+                return Transition.mismatch("listed todo " + id + " shouldn't be there: " + item);
+            }
+            if (!seen.add(id)) {
+                return Transition.mismatch("todo " + id + " listed twice");
+            }
+            String difference = todo.differenceFrom(item);
+            if (difference != null) {
+                return Transition.mismatch("listed todo " + id + " " + difference + ": " + item);
+            }
+        }
+        if (seen.size() != expected.size()) {
+            Set<Integer> missing = new HashSet<>(expected.keySet());
+            missing.removeAll(seen);
+            return Transition.mismatch("todos " + missing + " missing from the list");
+        }
+        return Transition.to(this);
+    }
+    
+    private Transition expectError(CommandResult result, int status, String message) {
+        if (result.status != status || !message.equals(result.body.path("message").asText())) {
+            return Transition.mismatch("expected " + status + " \"" + message + "\" but got " + result);
+        }
+        return Transition.to(this);
+    }
+    
+    private static boolean isBlank(String text) {
+        return text == null || text.trim().isEmpty();
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TodoModel)) {
+            return false;
+        }
+        TodoModel other = (TodoModel) o;
+        return hash == other.hash && todos.equals(other.todos) && issuedIds.equals(other.issuedIds);
+    }
+    
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+    
+    @Override
+    public String toString() {
+        return todos.toString();
+    }
+    
+    private static final class Todo {
+        private final int userId;
+        private final String text;
+        private final boolean completed;
+        
+        Todo(int userId, String text, boolean completed) {
+            this.userId = userId;
+            this.text = text;
+            this.completed = completed;
+        }
+        
+        String differenceFrom(JsonNode actual) {
+            if (actual.path("userId").asInt(-1) != userId) {
+                return "wrong userId, expected " + userId;
+            }
+            if (!text.equals(actual.path("text").asText(null))) {
+                return "wrong text, expected " + Command.quote(text);
+            }
+            if (!actual.path("completed").isBoolean() || actual.path("completed").asBoolean() != completed) {
+                return "wrong completed, expected " + completed;
+            }
+            return null;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Todo)) {
+                return false;
+            }
+            Todo other = (Todo) o;
+            return userId == other.userId && completed == other.completed && text.equals(other.text);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, text, completed);
+        }
+        
+        @Override
+        public String toString() {
+            return "{user " + userId + ", " + Command.quote(text) + (completed ? ", done}" : "}");
+        }
+    }
+    
+    static final class Transition {
+        final TodoModel next;
+        final String mismatch;
+        
+        private Transition(TodoModel next, String mismatch) {
+            this.next = next;
+            this.mismatch = mismatch;
+        }
+        
+        static Transition to(TodoModel next) {
+            return new Transition(next, null);
+        }
+        
+        static Transition mismatch(String reason) {
+            return new Transition(null, reason);
+        }
+    }
+}
\ No newline at end of file
@@ -1,30 +1,84 @@
 package com.seletest.api.tests;
 
 import com.seletest.api.utils.ApiConfig;
+import com.seletest.api.utils.BufferedLoggingFilter;
+import com.seletest.api.utils.FailureLogExtension;
+import com.seletest.api.utils.LatencyBudgets;
+import com.seletest.api.utils.LatencyRecorder;
+import com.seletest.api.utils.LatencyScopeExtension;
+import com.seletest.api.utils.SchemaValidationFilter;
+import com.seletest.api.utils.TestAccounts;
+import com.seletest.api.utils.TestHistoryExtension;
+import com.seletest.api.utils.TestImpactExtension;
+import com.seletest.api.utils.TokenCacheReportExtension;
+import com.seletest.api.utils.TrafficRecordingFilter;
+import io.qameta.allure.Allure;
 import io.restassured.RestAssured;
 import io.restassured.filter.log.RequestLoggingFilter;
 import io.restassured.filter.log.ResponseLoggingFilter;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+import java.util.Map;
 
 import static io.restassured.RestAssured.given;
 
+@ExtendWith({LatencyScopeExtension.class, FailureLogExtension.class, TestHistoryExtension.class, TestImpactExtension.class,
+    TokenCacheReportExtension.class})
 public class BaseApiTest {
     
+    private static final LatencyBudgets LATENCY_BUDGETS = LatencyBudgets.load(ApiConfig.LATENCY_BUDGETS);
+    
+    private static boolean configured;
+    
     @BeforeAll
-    public static void setUp() {
+    public static synchronized void setUp() {
+        // RestAssured config is global; in parallel mode several classes reach
+        // this at once, and filters() appends rather than replaces
+        if (configured) {
+            return;
+        }
+        
         RestAssured.baseURI = ApiConfig.BASE_URL;
         
-        // Enable logging for debugging (can be disabled in production)
-        RestAssured.filters(new RequestLoggingFilter(), new ResponseLoggingFilter());
+        // The first filter registered runs outermost: schema validation goes first so the
+        // loggers inside it have recorded a response before a schema violation fails it
+        RestAssured.filters(SchemaValidationFilter.INSTANCE);
+        
+        // Enable logging for debugging (-Dapi.log=failures keeps it quiet unless a test fails)
+        if ("failures".equalsIgnoreCase(ApiConfig.LOG_MODE)) {
+            RestAssured.filters(BufferedLoggingFilter.INSTANCE);
+        } else if (!"none".equalsIgnoreCase(ApiConfig.LOG_MODE)) {
+            RestAssured.filters(new RequestLoggingFilter(), new ResponseLoggingFilter());
+        }
+        
+        if (!ApiConfig.RECORD_FILE.isEmpty()) {
+            RestAssured.filters(TrafficRecordingFilter.INSTANCE);
+        }
+        
+        // Last, so the validation and logging above aren't part of the measured time
+        RestAssured.filters(LatencyRecorder.INSTANCE);
         
         // Set default content type
         RestAssured.requestSpecification = RestAssured.given()
             .contentType(ApiConfig.CONTENT_TYPE_JSON);
+            
+        configured = true;
     }
     
     @BeforeEach
     public void clearTestData() {
+        if (ApiConfig.PARALLEL_ENABLED) {
+            // The global clear would wipe todos other workers are asserting on
+            TestAccounts.clearOwnTodos();
+            return;
+        }
+        
         try {
             given()
             .when()
@@ -35,4 +89,30 @@ public class BaseApiTest {
             System.err.println("Warning: Could not clear test data - " + e.getMessage());
         }
     }
+    
+    @AfterAll
+    public static void checkLatencyBudgets(TestInfo testInfo) {
+        String scope = testInfo.getTestClass().map(Class::getName).orElse(null);
+        Map<String, Histogram> histograms = LatencyRecorder.INSTANCE.drain(scope);
+        if (histograms.isEmpty()) {
+            return;
+        }
+        
+        String summary = LatencyRecorder.summary(histograms);
+        System.out.println("Latency for " + testInfo.getDisplayName() + ":\n" + summary);
+        Allure.addAttachment("Latency summary", "text/plain", summary, ".txt");
+        histograms.forEach((endpoint, histogram) -> Allure.addAttachment("Latency histogram: " + endpoint,
+            "text/plain", LatencyRecorder.percentileDistribution(histogram), ".hgrm"));
+            
+        List<String> violations = LATENCY_BUDGETS.check(histograms);
+        if (violations.isEmpty()) {
+            return;
+        }
+        String message = "Latency budget exceeded in " + testInfo.getDisplayName() + ":\n  - "
+            + String.join("\n  - ", violations);
+        if (ApiConfig.LATENCY_ENFORCED) {
+            throw new AssertionError(message);
+        }
+        System.out.println("Warning: " + message);
+    }
 }
\ No newline at end of file
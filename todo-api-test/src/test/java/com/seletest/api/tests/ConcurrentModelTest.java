@@ -0,0 +1,55 @@
+package com.seletest.api.tests;
+
+import com.seletest.api.models.LoginRequest;
+import com.seletest.api.stateful.ConcurrentModelTester;
+import com.seletest.api.stateful.ProgramRunner;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Generates random create/update/delete/list programs across several users,
+ * runs them with concurrent branches and checks every response against a
+ * reference model. A failure is shrunk to a minimal program and reported
+ * with its seed; -Dstateful.seed replays the same programs.
+ */
+@Tag("stateful")
+@Epic("Todo API")
+@Feature("Concurrency")
+@DisplayName("Concurrent Model-Based Tests")
+public class ConcurrentModelTest extends BaseApiTest {
+    
+    private static final long SEED = Long.getLong("stateful.seed", System.currentTimeMillis());
+    private static final int PROGRAMS = Integer.getInteger("stateful.programs", 2000);
+    private static final long SECONDS = Long.getLong("stateful.seconds", 60L);
+    private static final int USERS = Integer.getInteger("stateful.users", 3);
+    private static final int PREFIX_LENGTH = Integer.getInteger("stateful.prefixLength", 6);
+    private static final int BRANCHES = Integer.getInteger("stateful.branches", 4);
+    private static final int BRANCH_LENGTH = Integer.getInteger("stateful.branchLength", 5);
+    private static final int SHRINK_RUNS = Integer.getInteger("stateful.shrinkRuns", 10);
+    private static final int MAX_SHRINK_RUNS = Integer.getInteger("stateful.maxShrinkRuns", 1000);
+    private static final int MAX_STATES = Integer.getInteger("stateful.maxStates", 1_000_000);
+    
+    @Test
+    @Description("Verify that concurrent /items calls from several users always match the reference model")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Races")
+    public void testConcurrentCommandsMatchModel() {
+        List<LoginRequest> accounts = StatefulRun.registerAccounts("stateful", USERS);
+        
+        ConcurrentModelTester.Report report;
+        try (ProgramRunner runner = new ProgramRunner(accounts, BRANCHES)) {
+            report = new ConcurrentModelTester(runner, MAX_STATES)
+                .withShape(PREFIX_LENGTH, BRANCHES, BRANCH_LENGTH)
+                .withShrinkRuns(SHRINK_RUNS, MAX_SHRINK_RUNS)
+                .run(SEED, PROGRAMS, Duration.ofSeconds(SECONDS));
+        }
+        
+        StatefulRun.verify("Model-based run", report.summary(), report.toString(), report.passed(),
+            report.getInconclusive(), "Rerun with -Dstateful.seed=" + SEED);
+    }
+}
\ No newline at end of file
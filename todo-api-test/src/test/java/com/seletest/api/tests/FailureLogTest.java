@@ -0,0 +1,175 @@
+package com.seletest.api.tests;
+
+import com.seletest.api.utils.ApiConfig;
+import com.seletest.api.utils.BufferedLoggingFilter;
+import com.seletest.api.utils.FailureLogExtension;
+import com.seletest.api.utils.SchemaValidationFilter;
+import com.sun.net.httpserver.HttpServer;
+import io.qameta.allure.*;
+import io.restassured.RestAssured;
+import io.restassured.filter.Filter;
+import io.restassured.filter.log.ResponseLoggingFilter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@Epic("Todo API")
+@Feature("Test Harness")
+@DisplayName("Failure Log Tests")
+public class FailureLogTest extends BaseApiTest {
+    
+    // An item whose "completed" is a string, which the TodoItem schema rejects
+    private static final String BROKEN_ITEM =
+        "{\"id\":1,\"text\":\"Stubbed response\",\"completed\":\"yes\",\"userId\":1,"
+            + "\"createdAt\":\"2024-01-01T00:00:00.000Z\"}";
+            
+    private static HttpServer stub;
+    private static String stubUrl;
+    
+    @BeforeAll
+    public static void startStub() throws IOException {
+        // A stub rather than the API, so the violation doesn't depend on server behaviour
+        stub = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        stub.createContext("/", exchange -> {
+            byte[] body = BROKEN_ITEM.getBytes(StandardCharsets.UTF_8);
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", ApiConfig.CONTENT_TYPE_JSON);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stub.start();
+        stubUrl = "http://localhost:" + stub.getAddress().getPort();
+    }
+    
+    @AfterAll
+    public static void stopStub() {
+        stub.stop(0);
+    }
+    
+    @Test
+    @DisplayName("Schema validation wraps the loggers")
+    @Description("Verify that the schema filter is registered before, and so runs outside, the logging filters")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Failure logs")
+    public void testSchemaValidationRunsOutsideLogging() {
+        List<Filter> filters = RestAssured.filters();
+        int schema = filters.indexOf(SchemaValidationFilter.INSTANCE);
+        assertThat("schema filter registered", schema, greaterThanOrEqualTo(0));
+        for (Filter filter : filters.subList(0, schema)) {
+            assertThat(filter, not(anyOf(sameInstance(BufferedLoggingFilter.INSTANCE),
+                instanceOf(ResponseLoggingFilter.class))));
+        }
+    }
+    
+    @Test
+    @DisplayName("Failed test prints its buffered exchanges")
+    @Description("Verify that FailureLogExtension dumps what BufferedLoggingFilter kept when told a test failed, then clears it")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Failure logs")
+    public void testFailureDumpsBufferedExchanges() {
+        BufferedLoggingFilter.reset();
+        getThroughBufferedLogging("/buffered");
+        
+        String printed = printedBy(() -> new FailureLogExtension().testFailed(contextNamed("broken test"),
+            new AssertionError("expected failure")));
+            
+        assertThat(printed, containsString("Requests made by failed test broken test"));
+        assertThat(printed, containsString("--> GET " + stubUrl + "/buffered"));
+        assertThat(printed, containsString("<-- HTTP/1.1 200"));
+        assertThat(printed, containsString("Stubbed response"));
+        assertThat(BufferedLoggingFilter.drain(), is(emptyString()));
+    }
+    
+    @Test
+    @DisplayName("Passing test discards its buffered exchanges")
+    @Description("Verify that FailureLogExtension prints nothing for a passing test and drops what BufferedLoggingFilter kept")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Failure logs")
+    public void testSuccessDiscardsBufferedExchanges() {
+        BufferedLoggingFilter.reset();
+        getThroughBufferedLogging("/buffered");
+        assertThat("buffered before the verdict", BufferedLoggingFilter.drain(), containsString("--> GET"));
+        getThroughBufferedLogging("/buffered");
+        
+        String printed = printedBy(() -> new FailureLogExtension().testSuccessful(contextNamed("passing test")));
+        
+        assertThat(printed, is(emptyString()));
+        assertThat(BufferedLoggingFilter.drain(), is(emptyString()));
+    }
+    
+    @Test
+    @DisplayName("Schema-violating response is kept in the failure log")
+    @Description("Verify that a response failing its schema is buffered, body included, before the failure is raised")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Failure logs")
+    public void testSchemaViolationIsLogged() {
+        assumeTrue("failures".equalsIgnoreCase(ApiConfig.LOG_MODE) && "enforce".equalsIgnoreCase(ApiConfig.SCHEMA_MODE),
+            "Needs -Dapi.log=failures and -Dapi.schema=enforce");
+        BufferedLoggingFilter.reset();
+        
+        AssertionError error = assertThrows(AssertionError.class, () -> given()
+            .body("{\"completed\":\"yes\"}")
+        .when()
+            .put(stubUrl + ApiConfig.ITEMS_ENDPOINT + "/1"));
+        assertThat(error.getMessage(), containsString("doesn't match its schema"));
+        
+        String log = BufferedLoggingFilter.drain();
+        assertThat(log, containsString("--> PUT"));
+        assertThat(log, containsString("<-- HTTP/1.1 200"));
+        assertThat(log, containsString("Stubbed response"));
+    }
+    
+    // Only the buffering filter, whatever -Dapi.log and -Dapi.schema install globally
+    private static void getThroughBufferedLogging(String path) {
+        given()
+            .noFilters()
+            .filter(BufferedLoggingFilter.INSTANCE)
+        .when()
+            .get(stubUrl + path)
+        .then()
+            .statusCode(200);
+    }
+    
+    private static String printedBy(Runnable action) {
+        PrintStream original = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+        try {
+            action.run();
+        } finally {
+            System.setOut(original);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+    
+    // FailureLogExtension only asks the context for the test's name
+    private static ExtensionContext contextNamed(String displayName) {
+        return (ExtensionContext) Proxy.newProxyInstance(ExtensionContext.class.getClassLoader(),
+            new Class<?>[]{ExtensionContext.class}, (proxy, method, args) -> {
+                if (method.getName().equals("getDisplayName")) {
+                    return displayName;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+}
@@ -0,0 +1,212 @@
+package com.seletest.api.tests;
+
+import com.seletest.api.history.HistoryRecorder;
+import com.seletest.api.history.LinearizabilityChecker;
+import com.seletest.api.history.RecordedOp;
+import com.seletest.api.history.Violation;
+import com.seletest.api.models.TodoItem;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Feeds the checker hand-made histories with known answers, so a green
+ * LinearizabilityTest means the server behaved rather than that the checker
+ * can't tell. Times are plain numbers; only their order matters.
+ */
+@Epic("Todo API")
+@Feature("Test Harness")
+@DisplayName("Linearizability Checker Tests")
+public class LinearizabilityCheckerTest {
+    
+    private static final int OWNER = 1;
+    private static final int OTHER = 2;
+    private static final int TODO = 7;
+    
+    private static final int SYNTHETIC_CALLS = 500_000;
+    private static final long SYNTHETIC_BUDGET_SECONDS = 30;
+    
+    @Test
+    @DisplayName("Sequential history with overlapping reads passes")
+    @Description("Verify that a history a sequential server could have produced is accepted, including a list that overlaps an update and sees either version")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Linearizability checker")
+    public void testValidHistoryPasses() {
+        HistoryRecorder recorder = new HistoryRecorder();
+        recorder.recordCreate(OWNER, "Buy milk", 0, 10, 201, todo(TODO, "Buy milk", false));
+        recorder.recordUpdate(OWNER, TODO, new TodoItem("Buy oat milk", true), 20, 40, 200,
+            todo(TODO, "Buy oat milk", true));
+        // Overlaps the update and still sees the old version
+        recorder.recordList(OWNER, 25, 35, 200, List.of(todo(TODO, "Buy milk", false)));
+        recorder.recordList(OTHER, 45, 50, 200, List.of());
+        recorder.recordDelete(OWNER, TODO, 60, 70, 204);
+        recorder.recordList(OWNER, 80, 90, 200, List.of());
+        
+        LinearizabilityChecker.Result result = new LinearizabilityChecker().check(recorder.history());
+        
+        assertThat(result.toString(), result.passed(), is(true));
+        assertThat(result.getInconclusive(), is(0));
+    }
+    
+    @Test
+    @DisplayName("Stale read after delete is rejected")
+    @Description("Verify that a list that starts after a delete was answered, yet still shows the todo, is reported with the delete and the list as its window")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Linearizability checker")
+    public void testStaleReadAfterDeleteIsRejected() {
+        HistoryRecorder recorder = new HistoryRecorder();
+        recorder.recordCreate(OWNER, "Buy milk", 0, 10, 201, todo(TODO, "Buy milk", false));
+        recorder.recordList(OWNER, 15, 18, 200, List.of(todo(TODO, "Buy milk", false)));
+        recorder.recordDelete(OWNER, TODO, 20, 30, 204);
+        recorder.recordList(OWNER, 40, 50, 200, List.of(todo(TODO, "Buy milk", false)));
+        List<RecordedOp> history = recorder.history();
+        
+        Violation violation = onlyViolation(history);
+        
+        assertThat(violation.getTodoId(), is(TODO));
+        assertThat(violation.getOps(), contains(sameInstance(history.get(2)), sameInstance(history.get(3))));
+    }
+    
+    @Test
+    @DisplayName("Update by a user who doesn't own the todo is rejected")
+    @Description("Verify that a 200 for another user's update of the owner's todo is reported")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Linearizability checker")
+    public void testForeignUpdateIsRejected() {
+        HistoryRecorder recorder = new HistoryRecorder();
+        recorder.recordCreate(OWNER, "Buy milk", 0, 10, 201, todo(TODO, "Buy milk", false));
+        recorder.recordUpdate(OTHER, TODO, new TodoItem("Hijacked", false), 20, 30, 200,
+            todo(TODO, "Hijacked", false));
+        List<RecordedOp> history = recorder.history();
+        
+        Violation violation = onlyViolation(history);
+        
+        assertThat(violation.getTodoId(), is(TODO));
+        assertThat(violation.getOps(), hasItem(sameInstance(history.get(1))));
+    }
+    
+    @Test
+    @DisplayName("Update response with the wrong text is rejected")
+    @Description("Verify that an update answered with text other than what was sent is reported")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Linearizability checker")
+    public void testWrongUpdateResponseIsRejected() {
+        HistoryRecorder recorder = new HistoryRecorder();
+        recorder.recordCreate(OWNER, "Buy milk", 0, 10, 201, todo(TODO, "Buy milk", false));
+        recorder.recordUpdate(OWNER, TODO, new TodoItem("Buy bread", false), 20, 30, 200,
+            todo(TODO, "Buy milk", false));
+        List<RecordedOp> history = recorder.history();
+        
+        Violation violation = onlyViolation(history);
+        
+        assertThat(violation.getTodoId(), is(TODO));
+        assertThat(violation.getOps(), hasItem(sameInstance(history.get(1))));
+    }
+    
+    @Test
+    @DisplayName("Large synthetic history is checked within budget")
+    @Description("Verify that a long, partly concurrent history from a simulated sequential server passes quickly, and that one stale read planted in it is still found")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Linearizability checker")
+    public void testLargeSyntheticHistory() {
+        List<RecordedOp> history = syntheticHistory(SYNTHETIC_CALLS, 42L, null);
+        
+        long start = System.nanoTime();
+        LinearizabilityChecker.Result result = new LinearizabilityChecker().check(history);
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+        System.out.println("INFO: " + result.summary());
+        
+        assertThat(result.toString(), result.passed(), is(true));
+        assertThat(result.getInconclusive(), is(0));
+        assertThat("seconds to check " + SYNTHETIC_CALLS + " calls", seconds, lessThan(SYNTHETIC_BUDGET_SECONDS));
+        
+        int[] planted = new int[1];
+        LinearizabilityChecker.Result broken = new LinearizabilityChecker()
+            .check(syntheticHistory(SYNTHETIC_CALLS, 42L, planted));
+        assertThat(broken.getViolations(), hasSize(1));
+        assertThat(broken.smallest().getTodoId(), is(planted[0]));
+        assertThat(broken.smallest().size(), lessThanOrEqualTo(3));
+    }
+    
+    private static Violation onlyViolation(List<RecordedOp> history) {
+        LinearizabilityChecker.Result result = new LinearizabilityChecker().check(history);
+        assertThat(result.summary(), result.getViolations(), hasSize(1));
+        return result.smallest();
+    }
+    
+    private static TodoItem todo(int id, String text, boolean completed) {
+        TodoItem item = new TodoItem(text, completed);
+        item.setId(id);
+        return item;
+    }
+    
+    /**
+     * Calls from a simulated sequential server: each takes effect at its own
+     * tick, and its request and response are jittered around that tick so
+     * neighbouring calls overlap. Many users keep each list short. With
+     * {@code planted} set, one list sent after a delete was answered still
+     * shows the deleted todo, whose id is written there.
+     */
+    private static List<RecordedOp> syntheticHistory(int calls, long seed, int[] planted) {
+        Random random = new Random(seed);
+        HistoryRecorder recorder = new HistoryRecorder();
+        int users = calls / 50;
+        List<Map<Integer, TodoItem>> alive = new ArrayList<>();
+        for (int user = 0; user < users; user++) {
+            alive.add(new LinkedHashMap<>());
+        }
+        TodoItem lastDeleted = null;
+        int lastDeletedBy = -1;
+        int lastDeletedAt = 0;
+        int nextId = 1;
+        for (int i = 0; i < calls; i++) {
+            long tick = 100L * i;
+            long invoked = tick - random.nextInt(150);
+            long completed = tick + 1 + random.nextInt(150);
+            int user = random.nextInt(users);
+            Map<Integer, TodoItem> todos = alive.get(user);
+            int action = todos.isEmpty() ? 0 : random.nextInt(4);
+            if (planted != null && planted[0] == 0 && i > calls / 2 && lastDeleted != null && i - lastDeletedAt > 1) {
+                // Sent after the delete was answered, so no order can put the list first
+                planted[0] = lastDeleted.getId();
+                List<TodoItem> listed = new ArrayList<>(alive.get(lastDeletedBy).values());
+                listed.add(lastDeleted);
+                recorder.recordList(lastDeletedBy, tick, tick + 1, 200, listed);
+                continue;
+            }
+            if (action == 0) {
+                String text = "Todo " + nextId;
+                TodoItem created = todo(nextId++, text, false);
+                todos.put(created.getId(), created);
+                recorder.recordCreate(user, text, invoked, completed, 201, created);
+            } else {
+                TodoItem target = todos.values().iterator().next();
+                if (action == 1) {
+                    TodoItem request = new TodoItem(target.getText() + "'", random.nextBoolean());
+                    TodoItem updated = todo(target.getId(), request.getText(), request.getCompleted());
+                    todos.put(target.getId(), updated);
+                    recorder.recordUpdate(user, target.getId(), request, invoked, completed, 200, updated);
+                } else if (action == 2) {
+                    todos.remove(target.getId());
+                    lastDeleted = target;
+                    lastDeletedBy = user;
+                    lastDeletedAt = i;
+                    recorder.recordDelete(user, target.getId(), invoked, completed, 204);
+                } else {
+                    recorder.recordList(user, invoked, completed, 200, new ArrayList<>(todos.values()));
+                }
+            }
+        }
+        return recorder.history();
+    }
+}
@@ -0,0 +1,47 @@
+package com.seletest.api.tests;
+
+import com.seletest.api.history.ContendedWorkload;
+import com.seletest.api.history.HistoryRecorder;
+import com.seletest.api.history.LinearizabilityChecker;
+import com.seletest.api.models.LoginRequest;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Has many client threads race on a small shared pool of todos, records when
+ * each call was sent and answered, and checks that some sequential order of
+ * the calls explains every response. A failure is reported as the smallest
+ * window of calls that still can't be ordered.
+ */
+@Tag("stateful")
+@Epic("Todo API")
+@Feature("Concurrency")
+@DisplayName("Linearizability Tests")
+public class LinearizabilityTest extends BaseApiTest {
+    
+    private static final long SEED = Long.getLong("history.seed", System.currentTimeMillis());
+    private static final long SECONDS = Long.getLong("history.seconds", 30L);
+    private static final int THREADS = Integer.getInteger("history.threads", 16);
+    private static final int USERS = Integer.getInteger("history.users", 3);
+    private static final int POOL_SIZE = Integer.getInteger("history.poolSize", 8);
+    
+    @Test
+    @Description("Verify that a recorded history of concurrent /items calls is linearizable")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Races")
+    public void testConcurrentHistoryIsLinearizable() {
+        List<LoginRequest> accounts = StatefulRun.registerAccounts("history", USERS);
+        HistoryRecorder recorder = new ContendedWorkload(accounts, THREADS, POOL_SIZE)
+            .run(Duration.ofSeconds(SECONDS), SEED);
+            
+        LinearizabilityChecker.Result result = new LinearizabilityChecker().check(recorder.history());
+        
+        StatefulRun.verify("Linearizability check", result.summary(), result.toString(), result.passed(),
+            result.getInconclusive(), null);
+    }
+}
\ No newline at end of file
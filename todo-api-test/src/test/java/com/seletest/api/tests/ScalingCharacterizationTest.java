@@ -0,0 +1,225 @@
+package com.seletest.api.tests;
+
+import com.seletest.api.models.LoginRequest;
+import com.seletest.api.utils.ApiConfig;
+import com.seletest.api.utils.AuthHelper;
+import com.seletest.api.utils.Complexity;
+import com.seletest.api.utils.DataSeeder;
+import com.seletest.api.utils.TrafficRecordingFilter;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Measures how one user's list, update and delete latency changes as the
+ * data belonging to everybody else grows, and fails when an endpoint scales
+ * worse than the agreed complexity class. Opt-in (./mvnw test -Dscaling)
+ * because the full sweep seeds a million todos.
+ */
+@Tag("scaling")
+@Epic("Todo API")
+@Feature("Scalability")
+@DisplayName("Scaling Characterization")
+public class ScalingCharacterizationTest extends BaseApiTest {
+    
+    private static final List<Integer> TOTAL_TODOS = intList("scaling.totals", "1000,10000,100000,1000000");
+    private static final List<Integer> USERS = intList("scaling.users", "2,10,100,1000,10000");
+    private static final int BACKGROUND_USERS = Integer.getInteger("scaling.backgroundUsers", 100);
+    private static final int TODOS_PER_USER = Integer.getInteger("scaling.todosPerUser", 10);
+    private static final int PROBE_TODOS = Integer.getInteger("scaling.probeTodos", 10);
+    private static final int WARMUP = Integer.getInteger("scaling.warmup", 20);
+    private static final int SAMPLES = Integer.getInteger("scaling.samples", 30);
+    private static final String PASSWORD = "scaling-secret";
+    private static final String RUN_ID = Long.toString(System.currentTimeMillis(), 36);
+    
+    private static final HttpClient HTTP = HttpClient.newHttpClient();
+    // Bodies are only read when they have to go into a traffic log (-Dapi.record)
+    private static final HttpResponse.BodyHandler<?> BODIES = TrafficRecordingFilter.isRecording()
+        ? HttpResponse.BodyHandlers.ofByteArray() : HttpResponse.BodyHandlers.discarding();
+    private static final DataSeeder SEEDER = new DataSeeder();
+    
+    private static final Map<Operation, Map<Integer, Double>> byTotalTodos = new EnumMap<>(Operation.class);
+    private static final Map<Operation, Map<Integer, Double>> byUsers = new EnumMap<>(Operation.class);
+    
+    enum Operation {
+        LIST, UPDATE, DELETE
+    }
+    
+    @BeforeAll
+    public static void sweep() {
+        LoginRequest probe = SEEDER.registerUsers("scaling-" + RUN_ID + "-probe", 1, PASSWORD).get(0);
+        
+        // Total todos grow across a fixed set of background users
+        clearAllData();
+        List<Integer> probeIds = SEEDER.seedTodos(List.of(probe), PROBE_TODOS).getIds(probe.getUsername());
+        List<LoginRequest> background = SEEDER.registerUsers("scaling-" + RUN_ID + "-bg", BACKGROUND_USERS, PASSWORD);
+        int total = PROBE_TODOS;
+        for (int level : TOTAL_TODOS) {
+            int perUser = Math.max(0, (level - total) / background.size());
+            if (perUser > 0) {
+                total += SEEDER.seedTodos(background, perUser).getCreatedCount();
+            }
+            record(byTotalTodos, total, probe, probeIds);
+        }
+        
+        // Users grow, each with the same small number of todos
+        clearAllData();
+        probeIds = SEEDER.seedTodos(List.of(probe), PROBE_TODOS).getIds(probe.getUsername());
+        int users = 1;
+        for (int level : USERS) {
+            if (level > users) {
+                List<LoginRequest> added = SEEDER.registerUsers("scaling-" + RUN_ID + "-u" + level, level - users, PASSWORD);
+                SEEDER.seedTodos(added, TODOS_PER_USER);
+                users = level;
+            }
+            record(byUsers, users, probe, probeIds);
+        }
+    }
+    
+    @AfterAll
+    public static void removeSeededData() {
+        clearAllData();
+    }
+    
+    @ParameterizedTest(name = "{0} latency vs total todos")
+    @EnumSource(Operation.class)
+    @Description("Verify that a user's request latency doesn't grow faster than agreed as other users' todos grow")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Data volume")
+    public void testScalingWithTotalTodos(Operation operation) {
+        assertScaling(operation, "total todos", byTotalTodos.get(operation));
+    }
+    
+    @ParameterizedTest(name = "{0} latency vs users")
+    @EnumSource(Operation.class)
+    @Description("Verify that a user's request latency doesn't grow faster than agreed as the number of users grows")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("User count")
+    public void testScalingWithUsers(Operation operation) {
+        assertScaling(operation, "users", byUsers.get(operation));
+    }
+    
+    private static void assertScaling(Operation operation, String dimension, Map<Integer, Double> series) {
+        assertFalse(series == null || series.isEmpty(), "No measurements recorded for " + operation);
+        
+        double[] n = series.keySet().stream().mapToDouble(Integer::doubleValue).toArray();
+        double[] latency = series.values().stream().mapToDouble(Double::doubleValue).toArray();
+        Complexity fitted = Complexity.fit(n, latency);
+        Complexity allowed = allowedComplexity(operation);
+        
+        StringBuilder table = new StringBuilder(String.format("%-12s %14s%n", dimension, "median (ms)"));
+        series.forEach((size, millis) -> table.append(String.format("%-12d %14.3f%n", size, millis)));
+        table.append("Fitted: ").append(fitted).append(", allowed: ").append(allowed).append('\n');
+        System.out.println(operation + " vs " + dimension + ":\n" + table);
+        Allure.addAttachment(operation + " vs " + dimension, "text/plain", table.toString(), ".txt");
+        
+        if (fitted.isWorseThan(allowed)) {
+            throw new AssertionError(operation + " latency grows as " + fitted + " in " + dimension
+                + ", worse than the agreed " + allowed + ":\n" + table);
+        }
+    }
+    
+    private static Complexity allowedComplexity(Operation operation) {
+        String fallback = System.getProperty("scaling.maxComplexity", Complexity.LOG_N.name());
+        return Complexity.parse(System.getProperty("scaling.maxComplexity." + operation.name().toLowerCase(), fallback));
+    }
+    
+    private static void record(Map<Operation, Map<Integer, Double>> results, int size, LoginRequest probe,
+                               List<Integer> probeIds) {
+        String bearer = AuthHelper.getBearerToken(AuthHelper.getToken(probe));
+        
+        results.computeIfAbsent(Operation.LIST, k -> new TreeMap<>())
+            .put(size, median(i -> send(request(ApiConfig.ITEMS_ENDPOINT, bearer).GET())));
+            
+        results.computeIfAbsent(Operation.UPDATE, k -> new TreeMap<>())
+            .put(size, median(i -> send(request(ApiConfig.ITEMS_ENDPOINT + "/" + probeIds.get(i % probeIds.size()), bearer)
+                .header("Content-Type", ApiConfig.CONTENT_TYPE_JSON)
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"completed\":" + (i % 2 == 0) + "}")))));
+                
+        // Deletes need fresh todos; creating them isn't timed
+        List<Integer> disposable = SEEDER.seedTodos(List.of(probe), WARMUP + SAMPLES).getIds(probe.getUsername());
+        results.computeIfAbsent(Operation.DELETE, k -> new TreeMap<>())
+            .put(size, median(i -> send(request(ApiConfig.ITEMS_ENDPOINT + "/" + disposable.get(i), bearer).DELETE())));
+    }
+    
+    /**
+     * Runs the warmup calls, then returns the median of the timed ones in ms.
+     * The sample index is passed to each call.
+     */
+    private static double median(IntConsumer call) {
+        for (int i = 0; i < WARMUP; i++) {
+            call.accept(i);
+        }
+        double[] millis = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            call.accept(WARMUP + i);
+            millis[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(millis);
+        return millis[SAMPLES / 2];
+    }
+    
+    private static HttpRequest.Builder request(String path, String bearer) {
+        return HttpRequest.newBuilder(URI.create(ApiConfig.BASE_URL + path))
+            .header(ApiConfig.AUTHORIZATION_HEADER, bearer);
+    }
+    
+    private static void send(HttpRequest.Builder builder) {
+        HttpRequest request = builder.build();
+        long sent = TrafficRecordingFilter.epochMicrosNow();
+        long start = System.nanoTime();
+        HttpResponse<?> response = null;
+        try {
+            response = HTTP.send(request, BODIES);
+            if (response.statusCode() / 100 != 2) {
+                throw new AssertionError(response.request().method() + " " + response.request().uri()
+                    + " returned " + response.statusCode());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while measuring latency", e);
+        } finally {
+            TrafficRecordingFilter.recordHttpClient(request, Thread.currentThread().getId(), sent, start, response);
+        }
+    }
+    
+    private static void clearAllData() {
+        given()
+        .when()
+            .delete("/test/clear-data")
+        .then()
+            .statusCode(200);
+    }
+    
+    private static List<Integer> intList(String property, String defaults) {
+        List<Integer> values = new ArrayList<>();
+        for (String value : System.getProperty(property, defaults).split(",")) {
+            values.add(Integer.parseInt(value.trim()));
+        }
+        return values;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.seletest.api.tests;
+
+import com.seletest.api.models.LoginRequest;
+import com.seletest.api.utils.DataSeeder;
+import io.qameta.allure.Allure;
+
+import java.util.List;
+
+/**
+ * Setup and verdict handling shared by the opt-in concurrency tests
+ * (-Dstateful): accounts registered fresh for the run, and one way to turn a
+ * checker's outcome into console output, an Allure attachment and a failure.
+ */
+final class StatefulRun {
+    
+    private static final String RUN_ID = Long.toString(System.currentTimeMillis(), 36);
+    private static final boolean ALLOW_INCONCLUSIVE = Boolean.getBoolean("stateful.allowInconclusive");
+    
+    private StatefulRun() {
+    }
+    
+    /**
+     * Registers {@code count} accounts named {@code <prefix>-<run>-<n>}, so
+     * reruns against the same server never share todos.
+     */
+    static List<LoginRequest> registerAccounts(String prefix, int count) {
+        return new DataSeeder().registerUsers(prefix + "-" + RUN_ID, count, prefix + "-secret");
+    }
+    
+    /**
+     * Fails on a definite failure, and on anything the checker couldn't
+     * decide unless -Dstateful.allowInconclusive is set.
+     *
+     * @param rerunHint appended to a failure, e.g. how to replay the seed; may be null
+     */
+    static void verify(String title, String summary, String details, boolean passed, int inconclusive, String rerunHint) {
+        System.out.println("INFO: " + summary);
+        Allure.addAttachment(title, "text/plain", details, ".txt");
+        if (!passed) {
+            throw new AssertionError(rerunHint == null ? details : details + "\n" + rerunHint);
+        }
+        if (inconclusive > 0 && !ALLOW_INCONCLUSIVE) {
+            throw new AssertionError(details + "\nThe checker gave up on part of the run rather than decide it;"
+                + " pass -Dstateful.allowInconclusive to accept that");
+        }
+    }
+}
@@ -3,6 +3,9 @@ package com.seletest.api.tests;
 import com.seletest.api.models.TodoItem;
 import com.seletest.api.utils.ApiConfig;
 import com.seletest.api.utils.AuthHelper;
+import com.seletest.api.utils.DataSeeder;
+import com.seletest.api.utils.StreamingItemsAssert;
+import com.seletest.api.utils.TestAccounts;
 import io.qameta.allure.*;
 import io.restassured.filter.log.RequestLoggingFilter;
 import io.restassured.filter.log.ResponseLoggingFilter;
@@ -12,6 +15,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
 
@@ -20,11 +27,14 @@ import static org.hamcrest.Matchers.*;
 @DisplayName("Todo API Tests")
 public class TodoApiTest extends BaseApiTest {
     
+    // Large next to the handful the other tests create, small enough to seed in a few seconds
+    private static final int LARGE_LIST_SIZE = 1_000;
+    
     private String authToken;
     
     @BeforeEach
     public void getAuthToken() {
-        authToken = AuthHelper.getAdminToken();
+        authToken = AuthHelper.getToken(TestAccounts.owner());
     }
     
     @Test
@@ -158,14 +168,84 @@ public class TodoApiTest extends BaseApiTest {
         .then()
             .statusCode(204);
         
-        // Verify todo is deleted by trying to get all todos
-        given()
-            .header(ApiConfig.AUTHORIZATION_HEADER, AuthHelper.getBearerToken(authToken))
-        .when()
-            .get(ApiConfig.ITEMS_ENDPOINT)
-        .then()
-            .statusCode(200)
-            .body("", not(hasItem(hasEntry("id", todoId))));
+        // Verify todo is deleted by streaming the todos list
+        StreamingItemsAssert.get(authToken)
+            .doesNotContainId(todoId)
+            .verify();
+    }
+    
+    @Test
+    @DisplayName("Todos are listed in creation order")
+    @Description("Verify that every created todo is listed once, in creation order, with its fields populated")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Get todos")
+    public void testTodosListedInCreationOrder() {
+        String[] todoTexts = {"First Todo", "Second Todo", "Third Todo"};
+        
+        for (String todoText : todoTexts) {
+            given()
+                .header(ApiConfig.AUTHORIZATION_HEADER, AuthHelper.getBearerToken(authToken))
+                .body(new TodoItem(todoText))
+            .when()
+                .post(ApiConfig.ITEMS_ENDPOINT)
+            .then()
+                .statusCode(201);
+        }
+        
+        StreamingItemsAssert.get(authToken)
+            .hasSize(todoTexts.length)
+            .itemAt(0, "'" + todoTexts[0] + "'", item -> todoTexts[0].equals(item.getText()))
+            .containsText(todoTexts[2])
+            .isOrderedBy(Comparator.comparing(TodoItem::getId))
+            .allMatch("incomplete with owner and creation time", item ->
+                Boolean.FALSE.equals(item.getCompleted())
+                    && item.getUserId() != null
+                    && item.getCreatedAt() != null)
+            .verify();
+    }
+    
+    @Test
+    @DisplayName("Bulk seeded todos stay with their owner")
+    @Description("Verify that todos seeded concurrently for two users are listed only for their owner and can be cleaned up by id")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Get todos")
+    public void testBulkSeededTodosStayWithOwner() {
+        DataSeeder seeder = new DataSeeder();
+        DataSeeder.Result seeded = seeder.seedTodos(Arrays.asList(TestAccounts.owner(), TestAccounts.other()), 100);
+        String owner = TestAccounts.owner().getUsername();
+        
+        StreamingItemsAssert.get(authToken)
+            .hasSize(seeded.getIds(owner).size())
+            .allMatch("one of the owner's seeded todos", item -> seeded.getIds(owner).contains(item.getId()))
+            .verify();
+        
+        seeder.cleanup(seeded);
+        
+        StreamingItemsAssert.get(authToken)
+            .hasSize(0)
+            .verify();
+    }
+    
+    @Test
+    @DisplayName("Large todo list is checked straight off the socket")
+    @Description("Verify that a list of a thousand todos, read off the socket without buffering, holds the seeded todos in order")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Get todos")
+    public void testLargeTodoListStreamsUnbuffered() {
+        DataSeeder seeder = new DataSeeder();
+        DataSeeder.Result seeded = seeder.seedTodos(Arrays.asList(TestAccounts.owner()), LARGE_LIST_SIZE);
+        List<Integer> ids = seeded.getIds(TestAccounts.owner().getUsername());
+        
+        try {
+            StreamingItemsAssert.fetchUnfiltered(authToken)
+                .hasSize(LARGE_LIST_SIZE)
+                .containsId(ids.get(0))
+                .containsId(ids.get(ids.size() - 1))
+                .isOrderedBy(Comparator.comparing(TodoItem::getId))
+                .verify();
+        } finally {
+            seeder.cleanup(seeded);
+        }
     }
     
     @Test
@@ -279,7 +359,7 @@ public class TodoApiTest extends BaseApiTest {
             .statusCode(201);
         
         // Get todos with different user token
-        String userToken = AuthHelper.getUserToken();
+        String userToken = AuthHelper.getToken(TestAccounts.other());
         
         given()
             .header(ApiConfig.AUTHORIZATION_HEADER, AuthHelper.getBearerToken(userToken))
@@ -1,11 +1,17 @@
 package com.seletest.api.utils;
 
+import com.seletest.api.embedded.EmbeddedTodoApiServer;
+
 public class ApiConfig {
     
-    public static final String BASE_URL = "http://localhost:3001";
+    // -Dapi.server=embedded runs the suites against an in-process fake on a random port,
+    // otherwise -Dapi.baseUrl (default: the docker-compose API)
+    public static final String API_SERVER = System.getProperty("api.server", "external");
+    public static final String BASE_URL = resolveBaseUrl();
     public static final String LOGIN_ENDPOINT = "/login";
     public static final String ITEMS_ENDPOINT = "/items";
     public static final String HEALTH_ENDPOINT = "/health";
+    public static final String TEST_USERS_ENDPOINT = "/test/users";
     
     // Test credentials
     public static final String VALID_USERNAME_ADMIN = "admin";
@@ -22,4 +28,44 @@ public class ApiConfig {
     // Headers
     public static final String AUTHORIZATION_HEADER = "Authorization";
     public static final String BEARER_PREFIX = "Bearer ";
-}
\ No newline at end of file
+    
+    // Token cache (-Dauth.token.cache=false forces a fresh login per call)
+    public static final boolean TOKEN_CACHE_ENABLED =
+        Boolean.parseBoolean(System.getProperty("auth.token.cache", "true"));
+    public static final long TOKEN_REFRESH_MARGIN_SECONDS =
+        Long.getLong("auth.token.refreshMarginSeconds", 60L);
+    
+    // Parallel mode: every worker thread gets its own throwaway accounts
+    public static final boolean PARALLEL_ENABLED = Boolean.getBoolean("api.parallel");
+    
+    // Request/response logging: "all" prints every exchange, "failures" buffers the last
+    // api.log.bufferSize exchanges per test and prints them only if it fails, "none" disables it
+    public static final String LOG_MODE = System.getProperty("api.log", "all");
+    public static final int LOG_BUFFER_SIZE = Integer.getInteger("api.log.bufferSize", 20);
+    public static final int LOG_MAX_BODY_CHARS = Integer.getInteger("api.log.maxBodyChars", 4096);
+    
+    // Bulk seeding (DataSeeder): concurrent requests and retries per request
+    public static final int SEED_MAX_IN_FLIGHT = Integer.getInteger("seed.maxInFlight", 64);
+    public static final int SEED_MAX_RETRIES = Integer.getInteger("seed.maxRetries", 3);
+    
+    // Latency budgets (-Dapi.latency.budgets=<file> overrides the bundled latency-budgets.json,
+    // -Dapi.latency.enforce=false only reports them)
+    public static final String LATENCY_BUDGETS = System.getProperty("api.latency.budgets", "latency-budgets.json");
+    public static final boolean LATENCY_ENFORCED =
+        Boolean.parseBoolean(System.getProperty("api.latency.enforce", "true"));
+        
+    // Response schemas (SchemaValidationFilter): "enforce" fails the request, "warn" prints, "off" skips
+    public static final String SCHEMA_MODE = System.getProperty("api.schema", "enforce");
+    
+    // Traffic recording (-Dapi.record=<file> appends every exchange to a binary log for TrafficReplayer)
+    public static final String RECORD_FILE = System.getProperty("api.record", "");
+    
+    private static String resolveBaseUrl() {
+        if ("embedded".equalsIgnoreCase(API_SERVER)) {
+            EmbeddedTodoApiServer server = EmbeddedTodoApiServer.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "embedded-todo-api-shutdown"));
+            return server.getBaseUrl();
+        }
+        return System.getProperty("api.baseUrl", "http://localhost:3001");
+    }
+}
@@ -1,15 +1,109 @@
 package com.seletest.api.utils;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.seletest.api.models.LoginRequest;
 import io.restassured.response.Response;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static io.restassured.RestAssured.given;
 
 public class AuthHelper {
-    
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ConcurrentMap<String, CompletableFuture<CachedToken>> TOKEN_CACHE = new ConcurrentHashMap<>();
+    private static final AtomicLong CACHE_HITS = new AtomicLong();
+    private static final AtomicLong CACHE_MISSES = new AtomicLong();
+
     public static String getAuthToken(String username, String password) {
+        if (!ApiConfig.TOKEN_CACHE_ENABLED) {
+            CACHE_MISSES.incrementAndGet();
+            return login(username, password);
+        }
+
+        // A cached token still means the test depends on login
+        EndpointCoverage.record("POST", ApiConfig.LOGIN_ENDPOINT);
+        String key = username + '\u0000' + password;
+        while (true) {
+            CompletableFuture<CachedToken> pending = TOKEN_CACHE.get(key);
+            // Waits out a login another thread already has in flight for this credential
+            CachedToken current = pending == null ? null : await(pending);
+            if (current != null && current.isUsable()) {
+                CACHE_HITS.incrementAndGet();
+                return current.token;
+            }
+
+            // Whoever installs the future does the login, outside the map, so a slow
+            // /login never blocks other credentials; everyone else waits on it
+            CompletableFuture<CachedToken> refresh = new CompletableFuture<>();
+            boolean owner = pending == null
+                ? TOKEN_CACHE.putIfAbsent(key, refresh) == null
+                : TOKEN_CACHE.replace(key, pending, refresh);
+            if (!owner) {
+                continue;
+            }
+            CACHE_MISSES.incrementAndGet();
+            try {
+                String token = login(username, password);
+                refresh.complete(new CachedToken(token, decodeExpiry(token)));
+                return token;
+            } catch (RuntimeException | Error e) {
+                TOKEN_CACHE.remove(key, refresh);
+                refresh.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    public static String getAdminToken() {
+        return getAuthToken(ApiConfig.VALID_USERNAME_ADMIN, ApiConfig.VALID_PASSWORD_ADMIN);
+    }
+
+    public static String getUserToken() {
+        return getAuthToken(ApiConfig.VALID_USERNAME_USER, ApiConfig.VALID_PASSWORD_USER);
+    }
+
+    public static String getBearerToken(String token) {
+        return ApiConfig.BEARER_PREFIX + token;
+    }
+
+    public static String getToken(LoginRequest account) {
+        return getAuthToken(account.getUsername(), account.getPassword());
+    }
+
+    public static void invalidateToken(String username, String password) {
+        TOKEN_CACHE.remove(username + '\u0000' + password);
+    }
+
+    public static void clearTokenCache() {
+        TOKEN_CACHE.clear();
+    }
+
+    public static long getCacheHits() {
+        return CACHE_HITS.get();
+    }
+
+    public static long getCacheMisses() {
+        return CACHE_MISSES.get();
+    }
+
+    public static String getCacheStats() {
+        return "Token cache: " + CACHE_HITS.get() + " hits, " + CACHE_MISSES.get()
+            + " misses (" + CACHE_HITS.get() + " logins saved)";
+    }
+
+    private static String login(String username, String password) {
         LoginRequest loginRequest = new LoginRequest(username, password);
-        
+
         Response response = given()
             .contentType(ApiConfig.CONTENT_TYPE_JSON)
             .body(loginRequest)
@@ -19,19 +113,48 @@ public class AuthHelper {
             .statusCode(200)
             .extract()
             .response();
-        
+
         return response.jsonPath().getString("token");
     }
-    
-    public static String getAdminToken() {
-        return getAuthToken(ApiConfig.VALID_USERNAME_ADMIN, ApiConfig.VALID_PASSWORD_ADMIN);
+
+    private static CachedToken await(CompletableFuture<CachedToken> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException | CancellationException e) {
+            // The other thread's login failed; this caller tries its own
+            return null;
+        }
     }
-    
-    public static String getUserToken() {
-        return getAuthToken(ApiConfig.VALID_USERNAME_USER, ApiConfig.VALID_PASSWORD_USER);
+
+    static Instant decodeExpiry(String token) {
+        try {
+            String[] parts = token.split("\\.");
+            if (parts.length < 2) {
+                return null;
+            }
+            byte[] payload = Base64.getUrlDecoder().decode(parts[1]);
+            JsonNode exp = MAPPER.readTree(new String(payload, StandardCharsets.UTF_8)).get("exp");
+            return exp != null && exp.canConvertToLong() ? Instant.ofEpochSecond(exp.asLong()) : null;
+        } catch (Exception e) {
+            System.err.println("Warning: Could not decode token expiry - " + e.getMessage());
+            return null;
+        }
     }
-    
-    public static String getBearerToken(String token) {
-        return ApiConfig.BEARER_PREFIX + token;
+
+    private static final class CachedToken {
+        private final String token;
+        private final Instant refreshAt;
+
+        private CachedToken(String token, Instant expiresAt) {
+            this.token = token;
+            // Tokens without a readable exp claim are never reused
+            this.refreshAt = expiresAt == null
+                ? Instant.MIN
+                : expiresAt.minusSeconds(ApiConfig.TOKEN_REFRESH_MARGIN_SECONDS);
+        }
+
+        private boolean isUsable() {
+            return Instant.now().isBefore(refreshAt);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,135 @@
+package com.seletest.api.utils;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the last few request/response exchanges of the current thread in a
+ * bounded ring buffer instead of printing them. Bodies are cut to
+ * {@link ApiConfig#LOG_MAX_BODY_CHARS}; {@link FailureLogExtension} dumps
+ * the buffer when a test fails and discards it otherwise.
+ */
+public class BufferedLoggingFilter implements Filter {
+    
+    public static final BufferedLoggingFilter INSTANCE = new BufferedLoggingFilter();
+    
+    private static final ThreadLocal<Buffer> buffer = ThreadLocal.withInitial(Buffer::new);
+    
+    private BufferedLoggingFilter() {
+    }
+    
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        StringBuilder entry = new StringBuilder();
+        entry.append("--> ").append(requestSpec.getMethod()).append(' ').append(requestSpec.getURI()).append('\n');
+        for (Header header : requestSpec.getHeaders()) {
+            entry.append(header.getName()).append(": ").append(header.getValue()).append('\n');
+        }
+        appendBody(entry, bodyOf(requestSpec.getBody()));
+        
+        long start = System.nanoTime();
+        try {
+            Response response = ctx.next(requestSpec, responseSpec);
+            entry.append("<-- ").append(response.getStatusLine())
+                .append(" (").append(elapsedMillis(start)).append(" ms)\n");
+            for (Header header : response.getHeaders()) {
+                entry.append(header.getName()).append(": ").append(header.getValue()).append('\n');
+            }
+            appendBody(entry, response.asString());
+            return response;
+        } catch (Throwable e) {
+            // Includes AssertionErrors from inner filters such as schema validation
+            entry.append("<-- failed after ").append(elapsedMillis(start)).append(" ms: ").append(e).append('\n');
+            throw e;
+        } finally {
+            buffer.get().add(entry.toString());
+        }
+    }
+    
+    /**
+     * Clears the current thread's buffer, normally before a test starts.
+     */
+    public static void reset() {
+        buffer.get().clear();
+    }
+    
+    /**
+     * Returns and clears the current thread's buffered exchanges, oldest
+     * first, or an empty string if there are none.
+     */
+    public static String drain() {
+        Buffer current = buffer.get();
+        String dump = current.toString();
+        current.clear();
+        return dump;
+    }
+    
+    private static String bodyOf(Object body) {
+        if (body == null) {
+            return null;
+        }
+        if (body instanceof byte[]) {
+            return new String((byte[]) body, StandardCharsets.UTF_8);
+        }
+        return body.toString();
+    }
+    
+    private static void appendBody(StringBuilder entry, String body) {
+        if (body == null || body.isEmpty()) {
+            return;
+        }
+        entry.append('\n');
+        if (body.length() > ApiConfig.LOG_MAX_BODY_CHARS) {
+            entry.append(body, 0, ApiConfig.LOG_MAX_BODY_CHARS)
+                .append("... [truncated, ").append(body.length()).append(" chars total]");
+        } else {
+            entry.append(body);
+        }
+        entry.append('\n');
+    }
+    
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+    
+    private static class Buffer {
+        private final Deque<String> entries = new ArrayDeque<>();
+        private int dropped;
+        
+        void add(String entry) {
+            if (entries.size() >= ApiConfig.LOG_BUFFER_SIZE) {
+                entries.pollFirst();
+                dropped++;
+            }
+            entries.addLast(entry);
+        }
+        
+        void clear() {
+            entries.clear();
+            dropped = 0;
+        }
+        
+        @Override
+        public String toString() {
+            if (entries.isEmpty()) {
+                return "";
+            }
+            StringBuilder sb = new StringBuilder();
+            if (dropped > 0) {
+                sb.append("(").append(dropped).append(" earlier exchanges dropped)\n\n");
+            }
+            sb.append(String.join("\n", entries));
+            return sb.toString();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,180 @@
+package com.seletest.api.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The API routes a change touches. Either listed with
+ * -Dtest.impact.endpoints ("PUT /items/:id,POST /login") or worked out from
+ * {@code git diff} against -Dtest.impact.since: changed lines inside a route
+ * handler of todo-api/server.js select that route, and a change to any other
+ * path under -Dtest.impact.watch (module defaults in the poms) selects
+ * everything. Changes anywhere else can't affect the suite and are ignored.
+ */
+public class ChangedEndpoints {
+    
+    public static final String SERVER_SOURCE = "todo-api/server.js";
+    
+    private static final Pattern ROUTE = Pattern.compile("^app\\.(get|post|put|delete|patch)\\(\\s*['\"]([^'\"]+)['\"]");
+    private static final Pattern HUNK = Pattern.compile("^@@ -\\d+(?:,\\d+)? \\+(\\d+)(?:,(\\d+))? @@");
+    private static final long GIT_TIMEOUT_SECONDS = 30;
+    
+    private ChangedEndpoints() {
+    }
+    
+    /**
+     * Returns the changed routes, a set holding only
+     * {@link EndpointCoverage#ANY_ENDPOINT} when everything must run, or an
+     * empty set when nothing the suite depends on changed.
+     */
+    public static Set<String> resolve() {
+        String listed = System.getProperty("test.impact.endpoints");
+        if (listed != null && !listed.isBlank()) {
+            Set<String> endpoints = new TreeSet<>();
+            for (String endpoint : listed.split(",")) {
+                if (!endpoint.isBlank()) {
+                    endpoints.add(endpoint.trim());
+                }
+            }
+            return endpoints;
+        }
+        
+        String since = System.getProperty("test.impact.since");
+        if (since == null || since.isBlank()) {
+            System.out.println("Warning: -Dtest.impact=select needs -Dtest.impact.since or -Dtest.impact.endpoints; running everything");
+            return everything();
+        }
+        try {
+            return fromGit(since.trim(), watchedPaths());
+        } catch (IOException e) {
+            System.out.println("Warning: Could not diff against " + since + ", running everything - " + e.getMessage());
+            return everything();
+        }
+    }
+    
+    private static List<String> watchedPaths() {
+        List<String> watched = new ArrayList<>();
+        for (String path : System.getProperty("test.impact.watch", "todo-api/").split(",")) {
+            if (!path.isBlank()) {
+                watched.add(path.trim());
+            }
+        }
+        return watched;
+    }
+    
+    static Set<String> fromGit(String since, List<String> watched) throws IOException {
+        Path root = Paths.get(git(Paths.get("."), "rev-parse", "--show-toplevel").trim());
+        Set<String> endpoints = new TreeSet<>();
+        for (String changed : git(root, "diff", "--name-only", since).split("\n")) {
+            if (changed.isBlank()) {
+                continue;
+            }
+            if (changed.equals(SERVER_SOURCE)) {
+                Set<String> routes = changedRoutes(Files.readAllLines(root.resolve(SERVER_SOURCE), StandardCharsets.UTF_8),
+                    git(root, "diff", "--unified=0", since, "--", SERVER_SOURCE));
+                if (routes.contains(EndpointCoverage.ANY_ENDPOINT)) {
+                    System.out.println("INFO: " + SERVER_SOURCE + " changed outside a route handler");
+                    return everything();
+                }
+                endpoints.addAll(routes);
+            } else if (watched.stream().anyMatch(changed::startsWith)) {
+                System.out.println("INFO: " + changed + " changed, running everything");
+                return everything();
+            }
+        }
+        return endpoints;
+    }
+    
+    /**
+     * Maps the new-side line ranges of a zero-context diff onto the route
+     * handlers of the current source. A handler spans from its
+     * {@code app.<method>(} line to the {@code });} that closes it; changed
+     * lines outside every handler (middleware, helpers, the fallbacks) yield
+     * {@link EndpointCoverage#ANY_ENDPOINT}.
+     */
+    static Set<String> changedRoutes(List<String> source, String diff) {
+        List<int[]> spans = new ArrayList<>();
+        List<String> routes = new ArrayList<>();
+        for (int i = 0; i < source.size(); i++) {
+            Matcher route = ROUTE.matcher(source.get(i));
+            if (!route.find()) {
+                continue;
+            }
+            int end = i;
+            while (end < source.size() - 1 && !source.get(end).startsWith("});")) {
+                end++;
+            }
+            spans.add(new int[] {i + 1, end + 1});
+            routes.add(route.group(1).toUpperCase() + " " + route.group(2));
+        }
+        
+        Set<String> changed = new TreeSet<>();
+        for (String line : diff.split("\n")) {
+            Matcher hunk = HUNK.matcher(line);
+            if (!hunk.find()) {
+                continue;
+            }
+            int start = Integer.parseInt(hunk.group(1));
+            int count = hunk.group(2) == null ? 1 : Integer.parseInt(hunk.group(2));
+            // A pure deletion is reported at the line before the removed ones, so check both neighbours
+            int last = count == 0 ? start + 1 : start + count - 1;
+            for (int number = start; number <= last; number++) {
+                String route = routeAt(spans, routes, number);
+                changed.add(route != null ? route : EndpointCoverage.ANY_ENDPOINT);
+            }
+        }
+        return changed;
+    }
+    
+    private static String routeAt(List<int[]> spans, List<String> routes, int line) {
+        for (int i = 0; i < spans.size(); i++) {
+            if (line >= spans.get(i)[0] && line <= spans.get(i)[1]) {
+                return routes.get(i);
+            }
+        }
+        return null;
+    }
+    
+    private static Set<String> everything() {
+        return new TreeSet<>(Set.of(EndpointCoverage.ANY_ENDPOINT));
+    }
+    
+    private static String git(Path directory, String... args) throws IOException {
+        List<String> command = new ArrayList<>(Arrays.asList("git", "-C", directory.toString()));
+        command.addAll(Arrays.asList(args));
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        StringBuilder output = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.append(line).append('\n');
+            }
+        }
+        try {
+            if (!process.waitFor(GIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                throw new IOException("git " + String.join(" ", args) + " timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for git", e);
+        }
+        if (process.exitValue() != 0) {
+            throw new IOException("git " + String.join(" ", args) + " exited with " + process.exitValue());
+        }
+        return output.toString();
+    }
+}
\ No newline at end of file
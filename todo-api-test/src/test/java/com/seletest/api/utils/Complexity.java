@@ -0,0 +1,139 @@
+package com.seletest.api.utils;
+
+/**
+ * Growth classes a latency series can be fitted to, simplest first. Each
+ * class is fitted as {@code latency = a + b * f(n)} so the fixed per-request
+ * HTTP overhead lands in {@code a}.
+ */
+public enum Complexity {
+    
+    CONSTANT("O(1)"),
+    LOG_N("O(log n)"),
+    LINEAR("O(n)"),
+    N_LOG_N("O(n log n)"),
+    QUADRATIC("O(n^2)");
+    
+    // Growth from the smallest to the largest point below this ratio is treated as noise
+    private static final double NOISE_RATIO = Double.parseDouble(System.getProperty("scaling.noiseRatio", "1.5"));
+    // A more complex class must cut the residual error by this factor to be preferred
+    private static final double IMPROVEMENT_REQUIRED = 0.5;
+    
+    private final String label;
+    
+    Complexity(String label) {
+        this.label = label;
+    }
+    
+    public double apply(double n) {
+        switch (this) {
+            case CONSTANT:
+                return 1;
+            case LOG_N:
+                return Math.log(n);
+            case LINEAR:
+                return n;
+            case N_LOG_N:
+                return n * Math.log(n);
+            default:
+                return n * n;
+        }
+    }
+    
+    public boolean isWorseThan(Complexity other) {
+        return ordinal() > other.ordinal();
+    }
+    
+    /**
+     * Accepts either the enum name ("LOG_N") or its label ("O(log n)").
+     */
+    public static Complexity parse(String value) {
+        String trimmed = value.trim();
+        for (Complexity complexity : values()) {
+            if (complexity.name().equalsIgnoreCase(trimmed) || complexity.label.equalsIgnoreCase(trimmed)) {
+                return complexity;
+            }
+        }
+        throw new IllegalArgumentException("Unknown complexity class '" + value + "'");
+    }
+    
+    /**
+     * Picks the simplest class that explains the series: the least-squares
+     * fit with the lowest residual, unless a simpler class comes close to it.
+     */
+    public static Complexity fit(double[] n, double[] latency) {
+        if (n.length < 3) {
+            throw new IllegalArgumentException("Need at least 3 points to fit a growth curve, got " + n.length);
+        }
+        double min = Double.MAX_VALUE;
+        double max = 0;
+        for (double y : latency) {
+            min = Math.min(min, y);
+            max = Math.max(max, y);
+        }
+        if (max <= min * NOISE_RATIO) {
+            return CONSTANT;
+        }
+        
+        Complexity best = CONSTANT;
+        double bestResidual = residual(CONSTANT, n, latency);
+        for (Complexity candidate : values()) {
+            if (candidate == CONSTANT) {
+                continue;
+            }
+            double residual = residual(candidate, n, latency);
+            if (residual < bestResidual * IMPROVEMENT_REQUIRED) {
+                best = candidate;
+                bestResidual = residual;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Sum of squared errors of {@code a + b * f(n)}; fits that need a
+     * negative slope don't describe growth and score as the constant fit.
+     */
+    static double residual(Complexity complexity, double[] n, double[] latency) {
+        int count = n.length;
+        double meanY = 0;
+        for (double y : latency) {
+            meanY += y / count;
+        }
+        double constantResidual = 0;
+        for (double y : latency) {
+            constantResidual += (y - meanY) * (y - meanY);
+        }
+        if (complexity == CONSTANT) {
+            return constantResidual;
+        }
+        
+        double[] f = new double[count];
+        double meanF = 0;
+        for (int i = 0; i < count; i++) {
+            f[i] = complexity.apply(n[i]);
+            meanF += f[i] / count;
+        }
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < count; i++) {
+            covariance += (f[i] - meanF) * (latency[i] - meanY);
+            variance += (f[i] - meanF) * (f[i] - meanF);
+        }
+        if (variance == 0 || covariance <= 0) {
+            return constantResidual;
+        }
+        double slope = covariance / variance;
+        double intercept = meanY - slope * meanF;
+        double residual = 0;
+        for (int i = 0; i < count; i++) {
+            double error = latency[i] - (intercept + slope * f[i]);
+            residual += error * error;
+        }
+        return residual;
+    }
+    
+    @Override
+    public String toString() {
+        return label;
+    }
+}
\ No newline at end of file
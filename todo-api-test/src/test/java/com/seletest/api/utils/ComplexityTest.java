@@ -0,0 +1,128 @@
+package com.seletest.api.utils;
+
+import io.qameta.allure.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.DoubleUnaryOperator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Fits synthetic latency series whose growth is known, at the scaling
+ * suite's default total todo counts, with and without noise.
+ */
+@Epic("Todo API")
+@Feature("Test Harness")
+@DisplayName("Complexity Fit Tests")
+public class ComplexityTest {
+    
+    private static final double[] SIZES = {1_000, 10_000, 100_000, 1_000_000};
+    private static final double LARGEST = SIZES[SIZES.length - 1];
+    // Within 5% either way, the spread of repeated timings on a quiet machine
+    private static final double[] NOISE = {1.03, 0.96, 1.05, 0.98};
+    
+    @Test
+    @DisplayName("Clean series fit their own class")
+    @Description("Verify that constant, logarithmic, linear and quadratic series with a fixed overhead are each recognised")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Complexity fit")
+    public void testCleanSeries() {
+        assertThat(fit(n -> 20, false), is(Complexity.CONSTANT));
+        assertThat(fit(n -> 5 + 2 * Math.log(n), false), is(Complexity.LOG_N));
+        assertThat(fit(n -> 5 + 20 * n / LARGEST, false), is(Complexity.LINEAR));
+        assertThat(fit(n -> 5 + 20 * (n / LARGEST) * (n / LARGEST), false), is(Complexity.QUADRATIC));
+    }
+    
+    @Test
+    @DisplayName("Noisy series fit their own class")
+    @Description("Verify that the same series with up to 5% noise on every point are still recognised")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Complexity fit")
+    public void testNoisySeries() {
+        assertThat(fit(n -> 20, true), is(Complexity.CONSTANT));
+        assertThat(fit(n -> 5 + 2 * Math.log(n), true), is(Complexity.LOG_N));
+        assertThat(fit(n -> 5 + 20 * n / LARGEST, true), is(Complexity.LINEAR));
+        assertThat(fit(n -> 5 + 20 * (n / LARGEST) * (n / LARGEST), true), is(Complexity.QUADRATIC));
+    }
+    
+    @Test
+    @DisplayName("Growth within the noise ratio is constant")
+    @Description("Verify that a series growing less than scaling.noiseRatio from smallest to largest is constant, however well a line fits it")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Complexity fit")
+    public void testGrowthWithinNoiseRatioIsConstant() {
+        double[] latency = series(n -> 100 + 40 * n / LARGEST, false);
+        
+        assertThat(Complexity.residual(Complexity.LINEAR, SIZES, latency), closeTo(0, 1e-9));
+        assertThat(Complexity.fit(SIZES, latency), is(Complexity.CONSTANT));
+    }
+    
+    @Test
+    @DisplayName("Shrinking series is constant")
+    @Description("Verify that fits needing a negative slope score as the constant fit, so a series that gets faster isn't called growth")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Complexity fit")
+    public void testShrinkingSeriesIsConstant() {
+        double[] latency = series(n -> 50 - 3 * Math.log(n), false);
+        
+        assertThat(Complexity.residual(Complexity.LOG_N, SIZES, latency),
+            is(Complexity.residual(Complexity.CONSTANT, SIZES, latency)));
+        assertThat(Complexity.fit(SIZES, latency), is(Complexity.CONSTANT));
+    }
+    
+    @Test
+    @DisplayName("A more complex class must halve the residual")
+    @Description("Verify that n log n only replaces linear when it cuts the residual below half, not when it is merely lower")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Complexity fit")
+    public void testMoreComplexClassMustHalveResidual() {
+        double[] slightlyBent = series(n -> blend(n, 0.5), false);
+        double linear = Complexity.residual(Complexity.LINEAR, SIZES, slightlyBent);
+        double nLogN = Complexity.residual(Complexity.N_LOG_N, SIZES, slightlyBent);
+        assertThat(nLogN, allOf(lessThan(linear), greaterThan(linear * 0.5)));
+        assertThat(Complexity.fit(SIZES, slightlyBent), is(Complexity.LINEAR));
+        
+        assertThat(Complexity.fit(SIZES, series(n -> blend(n, 0.6), false)), is(Complexity.N_LOG_N));
+    }
+    
+    @Test
+    @DisplayName("Fewer than three points are rejected")
+    @Description("Verify that a growth curve isn't fitted to two points")
+    @Severity(SeverityLevel.MINOR)
+    @Story("Complexity fit")
+    public void testTooFewPointsRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> Complexity.fit(new double[]{100, 200}, new double[]{1, 2}));
+    }
+    
+    @Test
+    @DisplayName("Classes parse from name or label")
+    @Description("Verify that budgets can name a class as LOG_N or O(log n)")
+    @Severity(SeverityLevel.MINOR)
+    @Story("Complexity fit")
+    public void testParse() {
+        assertThat(Complexity.parse("log_n"), is(Complexity.LOG_N));
+        assertThat(Complexity.parse(" O(n log n) "), is(Complexity.N_LOG_N));
+        assertThrows(IllegalArgumentException.class, () -> Complexity.parse("O(2^n)"));
+    }
+    
+    private static Complexity fit(DoubleUnaryOperator latency, boolean noisy) {
+        return Complexity.fit(SIZES, series(latency, noisy));
+    }
+    
+    private static double[] series(DoubleUnaryOperator latency, boolean noisy) {
+        double[] points = new double[SIZES.length];
+        for (int i = 0; i < SIZES.length; i++) {
+            points[i] = latency.applyAsDouble(SIZES[i]) * (noisy ? NOISE[i] : 1);
+        }
+        return points;
+    }
+    
+    // Linear growth bent towards n log n by the given share
+    private static double blend(double n, double share) {
+        return 5 + 20 * ((1 - share) * n + share * n * Math.log(n) / Math.log(LARGEST)) / LARGEST;
+    }
+}
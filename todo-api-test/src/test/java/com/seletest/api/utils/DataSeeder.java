@@ -0,0 +1,423 @@
+package com.seletest.api.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.seletest.api.models.LoginRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Creates accounts, tokens and todos in bulk over an async HTTP client, for
+ * scenarios that need far more data than one blocking request at a time can
+ * set up. At most {@link ApiConfig#SEED_MAX_IN_FLIGHT} requests are
+ * outstanding; 429/5xx responses and I/O errors are retried with backoff.
+ * Creating a todo isn't idempotent, so it is only retried when the server
+ * can't have seen it (a 429 or a failed connect). After any other failure
+ * the owner's list is read back to pick up todos that were created anyway.
+ *
+ * <pre>
+ * DataSeeder seeder = new DataSeeder();
+ * DataSeeder.Result seeded = seeder.seedTodos(seeder.registerUsers("scale", 500, "secret"), 100);
+ * ...
+ * seeder.cleanup(seeded);
+ * </pre>
+ */
+public class DataSeeder {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final long BASE_BACKOFF_MILLIS = 100;
+    
+    private final String baseUrl;
+    private final HttpClient http;
+    private int maxInFlight = ApiConfig.SEED_MAX_IN_FLIGHT;
+    private int maxRetries = ApiConfig.SEED_MAX_RETRIES;
+    
+    public DataSeeder() {
+        this(ApiConfig.BASE_URL);
+    }
+    
+    public DataSeeder(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    }
+    
+    public DataSeeder withMaxInFlight(int maxInFlight) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+        return this;
+    }
+    
+    public DataSeeder withMaxRetries(int maxRetries) {
+        this.maxRetries = Math.max(0, maxRetries);
+        return this;
+    }
+    
+    /**
+     * Registers {@code count} accounts named {@code <prefix>-<n>} through
+     * {@link ApiConfig#TEST_USERS_ENDPOINT}. Accounts that already exist are
+     * returned as well, on the assumption they were seeded with the same
+     * password.
+     */
+    public List<LoginRequest> registerUsers(String prefix, int count, String password) {
+        List<LoginRequest> accounts = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            accounts.add(new LoginRequest(prefix + "-" + i, password));
+        }
+        
+        Batch batch = new Batch("Registering users", count);
+        for (LoginRequest account : accounts) {
+            // A repeated registration answers 409, so it is safe to retry
+            batch.submit(post(ApiConfig.TEST_USERS_ENDPOINT, null, MAPPER.valueToTree(account)), true, response -> {
+                if (response.statusCode() != 201 && response.statusCode() != 409) {
+                    throw unexpected("register " + account.getUsername(), response);
+                }
+                return null;
+            });
+        }
+        batch.await();
+        batch.failIfAny();
+        return accounts;
+    }
+    
+    /**
+     * Logs every account in and creates {@code todosPerUser} todos for each.
+     * Creation failures that survive the retries are counted in the result
+     * rather than thrown, so the todos that were created can still be cleaned up.
+     */
+    public Result seedTodos(List<LoginRequest> accounts, int todosPerUser) {
+        long start = System.nanoTime();
+        Map<String, String> tokens = login(accounts);
+        
+        // Tags this call's texts so reconciling can't pick up another seeding's todos
+        String tag = Long.toString(System.nanoTime(), 36);
+        Map<String, Queue<Integer>> created = new ConcurrentHashMap<>();
+        Map<String, Set<String>> uncertain = new ConcurrentHashMap<>();
+        Batch batch = new Batch("Seeding todos", accounts.size() * todosPerUser);
+        for (LoginRequest account : accounts) {
+            String username = account.getUsername();
+            Queue<Integer> ids = created.computeIfAbsent(username, k -> new ConcurrentLinkedQueue<>());
+            for (int i = 1; i <= todosPerUser; i++) {
+                String text = "Seeded todo " + i + " for " + username + " (" + tag + ")";
+                ObjectNode body = MAPPER.createObjectNode().put("text", text);
+                batch.submit(post(ApiConfig.ITEMS_ENDPOINT, tokens.get(username), body), false, response -> {
+                    if (response.statusCode() != 201) {
+                        throw unexpected("create todo for " + username, response);
+                    }
+                    ids.add(readTree(response).get("id").asInt());
+                    return null;
+                }, error -> uncertain.computeIfAbsent(username, k -> ConcurrentHashMap.newKeySet()).add(text));
+            }
+        }
+        batch.await();
+        int recovered = reconcile(tokens, uncertain, created);
+        
+        Result result = new Result(tokens, created, batch.failures.get() - recovered, batch.retries.sum(),
+            Duration.ofNanos(System.nanoTime() - start));
+        System.out.println("INFO: " + result);
+        if (result.getFailedCount() > 0) {
+            System.err.println("Warning: " + result.getFailedCount() + " todos could not be seeded, last error: "
+                + batch.lastError.get());
+        }
+        return result;
+    }
+    
+    /**
+     * Reads back the lists of users whose creates failed and adds any of the
+     * failed texts the server did store, so cleanup still finds them.
+     * Returns how many were found.
+     */
+    private int reconcile(Map<String, String> tokens, Map<String, Set<String>> uncertain,
+                          Map<String, Queue<Integer>> created) {
+        if (uncertain.isEmpty()) {
+            return 0;
+        }
+        AtomicInteger recovered = new AtomicInteger();
+        Batch batch = new Batch("Reconciling failed creates", uncertain.size());
+        uncertain.forEach((username, texts) -> {
+            HttpRequest request = request(ApiConfig.ITEMS_ENDPOINT, tokens.get(username)).GET().build();
+            batch.submit(request, true, response -> {
+                if (response.statusCode() != 200) {
+                    throw unexpected("list todos for " + username, response);
+                }
+                for (JsonNode item : readTree(response)) {
+                    if (texts.contains(item.path("text").asText())) {
+                        created.get(username).add(item.get("id").asInt());
+                        recovered.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        });
+        batch.await();
+        // Without the lists, cleanup can't promise to remove everything seeded
+        batch.failIfAny();
+        return recovered.get();
+    }
+    
+    /**
+     * Deletes exactly the todos a previous {@link #seedTodos} created. Todos
+     * that are already gone are ignored.
+     */
+    public void cleanup(Result result) {
+        Batch batch = new Batch("Cleaning up seeded todos", result.getCreatedCount());
+        result.ids.forEach((username, ids) -> {
+            String token = result.getToken(username);
+            for (Integer id : ids) {
+                HttpRequest request = request(ApiConfig.ITEMS_ENDPOINT + "/" + id, token).DELETE().build();
+                batch.submit(request, true, response -> {
+                    if (response.statusCode() != 204 && response.statusCode() != 404) {
+                        throw unexpected("delete todo " + id, response);
+                    }
+                    return null;
+                });
+            }
+        });
+        batch.await();
+        if (batch.failures.get() > 0) {
+            System.err.println("Warning: " + batch.failures.get() + " seeded todos could not be deleted, last error: "
+                + batch.lastError.get());
+        }
+    }
+    
+    private Map<String, String> login(List<LoginRequest> accounts) {
+        Map<String, String> tokens = new ConcurrentHashMap<>();
+        Batch batch = new Batch("Logging in", accounts.size());
+        for (LoginRequest account : accounts) {
+            // Logging in again has no side effect
+            batch.submit(post(ApiConfig.LOGIN_ENDPOINT, null, MAPPER.valueToTree(account)), true, response -> {
+                if (response.statusCode() != 200) {
+                    throw unexpected("log in as " + account.getUsername(), response);
+                }
+                tokens.put(account.getUsername(), readTree(response).get("token").asText());
+                return null;
+            });
+        }
+        batch.await();
+        batch.failIfAny();
+        return tokens;
+    }
+    
+    private HttpRequest post(String path, String token, JsonNode body) {
+        return request(path, token)
+            .header("Content-Type", ApiConfig.CONTENT_TYPE_JSON)
+            .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+            .build();
+    }
+    
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+        if (token != null) {
+            builder.header(ApiConfig.AUTHORIZATION_HEADER, AuthHelper.getBearerToken(token));
+        }
+        return builder;
+    }
+    
+    private CompletableFuture<HttpResponse<String>> sendWithRetry(HttpRequest request, boolean idempotent, int attempt,
+                                                                 LongAdder retries) {
+        long client = Thread.currentThread().getId();
+        long sent = TrafficRecordingFilter.epochMicrosNow();
+        long start = System.nanoTime();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .whenComplete((response, error) -> TrafficRecordingFilter.recordHttpClient(request, client, sent, start, response))
+            .handle((response, error) -> {
+                boolean retryable = idempotent
+                    ? error != null || response.statusCode() == 429 || response.statusCode() >= 500
+                    : error != null ? isConnectFailure(error) : response.statusCode() == 429;
+                if (!retryable || attempt >= maxRetries) {
+                    return error == null
+                        ? CompletableFuture.completedFuture(response)
+                        : CompletableFuture.<HttpResponse<String>>failedFuture(error);
+                }
+                retries.increment();
+                Executor delayed = CompletableFuture.delayedExecutor(BASE_BACKOFF_MILLIS << attempt, TimeUnit.MILLISECONDS);
+                return CompletableFuture.supplyAsync(() -> null, delayed)
+                    .thenCompose(ignored -> sendWithRetry(request, idempotent, attempt + 1, retries));
+            })
+            .thenCompose(Function.identity());
+    }
+    
+    // The request never reached the server
+    private static boolean isConnectFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof ConnectException || cause instanceof HttpConnectTimeoutException;
+    }
+    
+    private static JsonNode readTree(HttpResponse<String> response) {
+        try {
+            return MAPPER.readTree(response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static IllegalStateException unexpected(String action, HttpResponse<String> response) {
+        return new IllegalStateException("Could not " + action + " (HTTP " + response.statusCode() + "): "
+            + response.body());
+    }
+    
+    /**
+     * One wave of requests sharing the in-flight limit and a progress line
+     * every 10%.
+     */
+    private class Batch {
+        private final String name;
+        private final int total;
+        private final long start = System.nanoTime();
+        private final int permits = maxInFlight;
+        private final Semaphore inFlight = new Semaphore(permits);
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicReference<Throwable> lastError = new AtomicReference<>();
+        private final LongAdder retries = new LongAdder();
+        
+        Batch(String name, int total) {
+            this.name = name;
+            this.total = total;
+        }
+        
+        void submit(HttpRequest request, boolean idempotent, Function<HttpResponse<String>, Void> onResponse) {
+            submit(request, idempotent, onResponse, error -> { });
+        }
+        
+        /**
+         * Sends a request; non-idempotent ones are only retried when the
+         * server can't have received them. {@code onFailure} sees requests
+         * that failed for good.
+         */
+        void submit(HttpRequest request, boolean idempotent, Function<HttpResponse<String>, Void> onResponse,
+                    Consumer<Throwable> onFailure) {
+            EndpointCoverage.record(request.method(), request.uri().toString());
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while seeding data", e);
+            }
+            sendWithRetry(request, idempotent, 0, retries)
+                .thenApply(onResponse)
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        failures.incrementAndGet();
+                        lastError.set(error.getCause() != null ? error.getCause() : error);
+                        onFailure.accept(lastError.get());
+                    }
+                    progress(completed.incrementAndGet());
+                    inFlight.release();
+                });
+        }
+        
+        /**
+         * Waits for every submitted request; holding all permits means none
+         * is still in flight, without keeping a future per request around.
+         */
+        void await() {
+            try {
+                inFlight.acquire(permits);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while seeding data", e);
+            }
+            inFlight.release(permits);
+        }
+        
+        void failIfAny() {
+            if (failures.get() > 0) {
+                throw new IllegalStateException(name + ": " + failures.get() + " of " + total
+                    + " requests failed", lastError.get());
+            }
+        }
+        
+        private void progress(int done) {
+            int step = Math.max(1, total / 10);
+            if (done % step == 0 || done == total) {
+                double seconds = Math.max(1e-9, (System.nanoTime() - start) / 1e9);
+                System.out.printf("INFO: %s: %d/%d (%d%%) at %.0f req/s%n", name, done, total,
+                    done * 100L / total, done / seconds);
+            }
+        }
+    }
+    
+    public static class Result {
+        private final Map<String, String> tokens;
+        private final Map<String, List<Integer>> ids = new LinkedHashMap<>();
+        private final int failed;
+        private final long retries;
+        private final Duration elapsed;
+        
+        Result(Map<String, String> tokens, Map<String, Queue<Integer>> created, int failed, long retries,
+               Duration elapsed) {
+            this.tokens = tokens;
+            created.forEach((username, queue) -> {
+                List<Integer> sorted = new ArrayList<>(queue);
+                Collections.sort(sorted);
+                ids.put(username, Collections.unmodifiableList(sorted));
+            });
+            this.failed = failed;
+            this.retries = retries;
+            this.elapsed = elapsed;
+        }
+        
+        public String getToken(String username) {
+            return tokens.get(username);
+        }
+        
+        public List<Integer> getIds(String username) {
+            return ids.getOrDefault(username, Collections.emptyList());
+        }
+        
+        public List<Integer> getAllIds() {
+            List<Integer> all = new ArrayList<>();
+            ids.values().forEach(all::addAll);
+            return all;
+        }
+        
+        public int getCreatedCount() {
+            return ids.values().stream().mapToInt(List::size).sum();
+        }
+        
+        public int getFailedCount() {
+            return failed;
+        }
+        
+        public Duration getElapsed() {
+            return elapsed;
+        }
+        
+        @Override
+        public String toString() {
+            double seconds = Math.max(1e-9, elapsed.toNanos() / 1e9);
+            return String.format("Seeded %d todos for %d users in %.1fs (%.0f todos/s, %d failed, %d retries)",
+                getCreatedCount(), ids.size(), seconds, getCreatedCount() / seconds, failed, retries);
+        }
+    }
+}
\ No newline at end of file
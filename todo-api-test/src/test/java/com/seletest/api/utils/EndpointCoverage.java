@@ -0,0 +1,168 @@
+package com.seletest.api.utils;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Which API endpoints each test hits, for test impact selection. With
+ * -Dtest.impact=record every request a test makes, over REST Assured, the
+ * seeder or the browser, is recorded against it and the map is written to
+ * -Dtest.impact.file (default test-impact.tsv in the module directory), one
+ * test per line followed by its endpoint templates. -Dtest.impact=select reads
+ * the map back; see {@link TestImpactExtension}.
+ */
+public class EndpointCoverage implements Filter {
+    
+    public static final String MODE = System.getProperty("test.impact", "off");
+    public static final boolean RECORDING = "record".equalsIgnoreCase(MODE);
+    public static final boolean SELECTING = "select".equalsIgnoreCase(MODE);
+    public static final Path FILE = Paths.get(System.getProperty("test.impact.file", "test-impact.tsv"));
+    // Stands for "every endpoint", for tests whose calls couldn't be observed
+    public static final String ANY_ENDPOINT = "*";
+    
+    public static final EndpointCoverage INSTANCE = new EndpointCoverage();
+    
+    private static final Pattern ROUTE_PARAMETER = Pattern.compile("\\{[^/]+}|:[^/]+");
+    
+    private static final ThreadLocal<String> currentTest = new ThreadLocal<>();
+    private static final Map<String, Set<String>> recorded = new ConcurrentHashMap<>();
+    private static final Set<String> failed = ConcurrentHashMap.newKeySet();
+    
+    private EndpointCoverage() {
+    }
+    
+    /**
+     * Attributes requests made on this thread to the test key (see
+     * {@link TestHistory#methodKey}); null stops attributing. Returns the
+     * previous key so nested scopes can restore it.
+     */
+    public static String setCurrentTest(String key) {
+        String previous = currentTest.get();
+        if (key == null) {
+            currentTest.remove();
+        } else {
+            currentTest.set(key);
+            if (RECORDING) {
+                recorded.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+            }
+        }
+        return previous;
+    }
+    
+    public static void record(String method, String uri) {
+        String key = currentTest.get();
+        if (RECORDING && key != null) {
+            recorded.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet())
+                .add(LatencyRecorder.endpointTemplate(method, uri));
+        }
+    }
+    
+    /**
+     * Marks the current test as depending on every endpoint, so selection
+     * always runs it.
+     */
+    public static void recordAll() {
+        String key = currentTest.get();
+        if (RECORDING && key != null) {
+            recorded.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(ANY_ENDPOINT);
+        }
+    }
+    
+    /**
+     * Keeps what a test recorded out of the map, so a failed test that stopped
+     * early doesn't replace a complete earlier recording.
+     */
+    static void markFailed(String key) {
+        failed.add(key);
+    }
+    
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        record(requestSpec.getMethod(), requestSpec.getURI());
+        return ctx.next(requestSpec, responseSpec);
+    }
+    
+    public static Map<String, Set<String>> load(Path file) {
+        Map<String, Set<String>> map = new TreeMap<>();
+        if (!Files.isReadable(file)) {
+            return map;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                map.put(fields[0], new TreeSet<>(Arrays.asList(fields).subList(1, fields.length)));
+            }
+        } catch (IOException e) {
+            System.out.println("Warning: Could not read test impact map " + file + " - " + e.getMessage());
+        }
+        return map;
+    }
+    
+    /**
+     * Merges this run's recordings into the map file; tests that didn't run
+     * keep their earlier entries. Returns how many tests were recorded.
+     */
+    static synchronized int save() {
+        if (recorded.isEmpty()) {
+            return 0;
+        }
+        Map<String, Set<String>> map = load(FILE);
+        recorded.keySet().removeAll(failed);
+        recorded.forEach((key, endpoints) -> map.put(key, new TreeSet<>(endpoints)));
+        int count = recorded.size();
+        recorded.clear();
+        failed.clear();
+        
+        try (Writer writer = Files.newBufferedWriter(FILE, StandardCharsets.UTF_8)) {
+            writer.write("# Endpoints each test hits, written by -Dtest.impact=record\n");
+            for (Map.Entry<String, Set<String>> entry : map.entrySet()) {
+                writer.write(entry.getKey());
+                for (String endpoint : entry.getValue()) {
+                    writer.write('\t');
+                    writer.write(endpoint);
+                }
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            System.out.println("Warning: Could not save test impact map to " + FILE + " - " + e.getMessage());
+        }
+        return count;
+    }
+    
+    /**
+     * Whether a recorded endpoint ("PUT /items/{id}") is served by a changed
+     * route, which may be written the Express way ("PUT /items/:id"). Route
+     * parameters match any single path segment.
+     */
+    public static boolean matches(String recordedEndpoint, String changedRoute) {
+        if (ANY_ENDPOINT.equals(recordedEndpoint) || ANY_ENDPOINT.equals(changedRoute)) {
+            return true;
+        }
+        StringBuilder regex = new StringBuilder();
+        for (String part : changedRoute.trim().split("(?=/)|(?<=/)")) {
+            regex.append(ROUTE_PARAMETER.matcher(part).matches() ? "[^/]+" : Pattern.quote(part));
+        }
+        return Pattern.compile(regex + "/?", Pattern.CASE_INSENSITIVE).matcher(recordedEndpoint.trim()).matches();
+    }
+}
\ No newline at end of file
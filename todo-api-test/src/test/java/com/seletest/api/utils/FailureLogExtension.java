@@ -0,0 +1,45 @@
+package com.seletest.api.utils;
+
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestWatcher;
+
+import java.util.Optional;
+
+/**
+ * Prints and attaches the exchanges buffered by {@link BufferedLoggingFilter}
+ * for a failed test; anything a passing test logged is thrown away.
+ */
+public class FailureLogExtension implements BeforeEachCallback, TestWatcher {
+    
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        BufferedLoggingFilter.reset();
+    }
+    
+    @Override
+    public void testFailed(ExtensionContext context, Throwable cause) {
+        String exchanges = BufferedLoggingFilter.drain();
+        if (exchanges.isEmpty()) {
+            return;
+        }
+        System.out.println("Requests made by failed test " + context.getDisplayName() + ":\n" + exchanges);
+        Allure.addAttachment("HTTP exchanges", "text/plain", exchanges, ".txt");
+    }
+    
+    @Override
+    public void testSuccessful(ExtensionContext context) {
+        BufferedLoggingFilter.reset();
+    }
+    
+    @Override
+    public void testAborted(ExtensionContext context, Throwable cause) {
+        BufferedLoggingFilter.reset();
+    }
+    
+    @Override
+    public void testDisabled(ExtensionContext context, Optional<String> reason) {
+        BufferedLoggingFilter.reset();
+    }
+}
\ No newline at end of file
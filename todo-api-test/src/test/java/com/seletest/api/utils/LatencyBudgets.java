@@ -0,0 +1,93 @@
+package com.seletest.api.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * p50/p99 budgets in milliseconds per endpoint template, read from JSON:
+ * <pre>
+ * { "GET /items": { "p50": 100, "p99": 500 } }
+ * </pre>
+ * Endpoints without an entry are recorded but never fail. A percentile is
+ * only enforced once enough samples lie above it that it isn't simply the
+ * slowest request (p99 needs 100 samples, p50 two), so a single cold first
+ * request can't fail a class on its own.
+ */
+public class LatencyBudgets {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    
+    private final Map<String, Map<String, Double>> budgets;
+    
+    private LatencyBudgets(Map<String, Map<String, Double>> budgets) {
+        this.budgets = budgets;
+    }
+    
+    /**
+     * Loads budgets from a file path, falling back to a classpath resource of
+     * the same name.
+     */
+    public static LatencyBudgets load(String location) {
+        Path path = Paths.get(location);
+        try (InputStream in = Files.isRegularFile(path)
+                ? Files.newInputStream(path)
+                : LatencyBudgets.class.getClassLoader().getResourceAsStream(location)) {
+            if (in == null) {
+                System.out.println("INFO: No latency budgets found at " + location + ", recording only");
+                return new LatencyBudgets(Collections.emptyMap());
+            }
+            return new LatencyBudgets(MAPPER.readValue(in, new TypeReference<Map<String, Map<String, Double>>>() {}));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read latency budgets from " + location, e);
+        }
+    }
+    
+    public List<String> check(Map<String, Histogram> histograms) {
+        List<String> violations = new ArrayList<>();
+        histograms.forEach((endpoint, histogram) -> {
+            Map<String, Double> budget = budgets.get(endpoint);
+            if (budget == null || histogram.getTotalCount() == 0) {
+                return;
+            }
+            budget.forEach((percentile, limitMillis) -> {
+                double value = parsePercentile(endpoint, percentile);
+                if (histogram.getTotalCount() < minSamples(value)) {
+                    return;
+                }
+                double actual = LatencyRecorder.millis(histogram, value);
+                if (actual > limitMillis) {
+                    violations.add(String.format("%s %s was %.2f ms, budget %.2f ms (%d samples)",
+                        endpoint, percentile, actual, limitMillis, histogram.getTotalCount()));
+                }
+            });
+        });
+        return violations;
+    }
+    
+    static long minSamples(double percentile) {
+        return (long) Math.ceil(100 / (100 - percentile));
+    }
+    
+    private static double parsePercentile(String endpoint, String key) {
+        if (key.length() > 1 && key.charAt(0) == 'p') {
+            try {
+                return Double.parseDouble(key.substring(1));
+            } catch (NumberFormatException e) {
+                // fall through
+            }
+        }
+        throw new IllegalArgumentException("Unknown percentile '" + key + "' in latency budget for " + endpoint);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.seletest.api.utils;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * REST Assured filter that records response latency per test class and
+ * endpoint template ("PUT /items/{id}"). Register it after any logging
+ * filters so only the HTTP exchange itself is timed.
+ */
+public class LatencyRecorder implements Filter {
+    
+    public static final LatencyRecorder INSTANCE = new LatencyRecorder();
+    
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final String UNSCOPED = "(unscoped)";
+    
+    private static final ThreadLocal<String> currentScope = new ThreadLocal<>();
+    private final Map<String, Map<String, Histogram>> histogramsByScope = new ConcurrentHashMap<>();
+    
+    private LatencyRecorder() {
+    }
+    
+    /**
+     * Attributes requests made on this thread to the given scope, normally
+     * the running test class.
+     */
+    public static void setScope(String scope) {
+        currentScope.set(scope);
+    }
+    
+    public static String endpointTemplate(String method, String uri) {
+        String path = URI.create(uri).getRawPath();
+        if (path == null || path.isEmpty()) {
+            path = "/";
+        }
+        return method.toUpperCase() + " " + NUMERIC_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+    
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long start = System.nanoTime();
+        Response response = ctx.next(requestSpec, responseSpec);
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        
+        String scope = currentScope.get() != null ? currentScope.get() : UNSCOPED;
+        histogramsByScope
+            .computeIfAbsent(scope, k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(endpointTemplate(requestSpec.getMethod(), requestSpec.getURI()), k -> newHistogram())
+            .recordValue(Math.min(Math.max(micros, 1), HIGHEST_TRACKABLE_MICROS));
+        return response;
+    }
+    
+    /**
+     * Removes and returns the histograms recorded for a scope, sorted by
+     * endpoint template.
+     */
+    public Map<String, Histogram> drain(String scope) {
+        Map<String, Histogram> recorded = histogramsByScope.remove(scope);
+        return recorded == null ? new TreeMap<>() : new TreeMap<>(recorded);
+    }
+    
+    /**
+     * Removes and returns what was recorded on threads with no scope set.
+     */
+    public Map<String, Histogram> drainUnscoped() {
+        return drain(UNSCOPED);
+    }
+    
+    public static String summary(Map<String, Histogram> histograms) {
+        StringBuilder sb = new StringBuilder(String.format("%-28s %8s %10s %10s %10s%n",
+            "Endpoint", "Count", "p50 (ms)", "p99 (ms)", "Max (ms)"));
+        histograms.forEach((endpoint, h) -> sb.append(String.format("%-28s %8d %10.2f %10.2f %10.2f%n",
+            endpoint, h.getTotalCount(), millis(h, 50), millis(h, 99), h.getMaxValue() / 1000.0)));
+        return sb.toString();
+    }
+    
+    /**
+     * HdrHistogram's percentile distribution in milliseconds, which can be
+     * plotted with its HistogramLogAnalyzer or re-read later.
+     */
+    public static String percentileDistribution(Histogram histogram) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PrintStream ps = new PrintStream(out, true, StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(ps, 1000.0);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+    
+    public static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+    
+    private static Histogram newHistogram() {
+        return new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.seletest.api.utils;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.Map;
+
+/**
+ * Attributes {@link LatencyRecorder} samples to the running test class.
+ * Extension callbacks run before any @BeforeAll/@BeforeEach method, so the
+ * setup requests of a class are charged to that class rather than to the one
+ * before it. Requests that still end up unscoped are reported once, when the
+ * whole run ends.
+ */
+public class LatencyScopeExtension implements BeforeAllCallback, BeforeEachCallback, AfterAllCallback {
+    
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(LatencyScopeExtension.class);
+    
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        // Stored on the root context so it is closed after the last class
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(ReportOnClose.class, key -> new ReportOnClose());
+        LatencyRecorder.setScope(context.getRequiredTestClass().getName());
+    }
+    
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        // Parallel runs may execute methods on other threads than the class's @BeforeAll
+        LatencyRecorder.setScope(context.getRequiredTestClass().getName());
+    }
+    
+    @Override
+    public void afterAll(ExtensionContext context) {
+        // The class's histograms are drained by now; later requests on this thread count as unscoped
+        LatencyRecorder.setScope(null);
+    }
+    
+    private static class ReportOnClose implements ExtensionContext.Store.CloseableResource {
+        @Override
+        public void close() {
+            Map<String, Histogram> unscoped = LatencyRecorder.INSTANCE.drainUnscoped();
+            if (unscoped.isEmpty()) {
+                return;
+            }
+            System.out.println("Warning: Requests made outside any test class:\n" + LatencyRecorder.summary(unscoped));
+            for (String violation : LatencyBudgets.load(ApiConfig.LATENCY_BUDGETS).check(unscoped)) {
+                System.out.println("Warning: Latency budget exceeded outside any test class: " + violation);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.seletest.api.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The API's response schemas (src/test/resources/schemas), compiled once per
+ * JVM. A compiled JsonSchema is immutable and safe to share between threads,
+ * unlike matchesJsonSchemaInClasspath, which loads and compiles the schema on
+ * every call.
+ *
+ * <p>Item lists are validated per item: the body is already buffered by the
+ * time it gets here, but each array element is read and checked against the
+ * item schema on its own, so the whole list is never held as one JsonNode
+ * tree and the violations name the offending index.
+ */
+public class SchemaRegistry {
+    
+    public static final JsonSchema TODO_ITEM;
+    public static final JsonSchema LOGIN_RESPONSE;
+    public static final JsonSchema ERROR_MESSAGE;
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonFactory JSON_FACTORY = MAPPER.getFactory();
+    // Enough to show what's wrong without flooding the report for a list where every item breaks the same way
+    private static final int MAX_VIOLATIONS = 5;
+    
+    static {
+        JsonSchemaFactory factory = JsonSchemaFactory.byDefault();
+        try {
+            TODO_ITEM = factory.getJsonSchema("resource:/schemas/todo-item.json");
+            LOGIN_RESPONSE = factory.getJsonSchema("resource:/schemas/login-response.json");
+            ERROR_MESSAGE = factory.getJsonSchema("resource:/schemas/error-message.json");
+        } catch (ProcessingException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    private SchemaRegistry() {
+    }
+    
+    /**
+     * Returns the violations of the document, empty when it conforms.
+     * Violations are prefixed with the JSON pointer of the offending value.
+     */
+    public static List<String> validate(JsonSchema schema, JsonNode document) {
+        List<String> violations = new ArrayList<>();
+        collect(schema, document, "", violations);
+        return violations;
+    }
+    
+    /**
+     * Validates a JSON array of todo items against {@link #TODO_ITEM} one
+     * element at a time. Returns the violations, at most a handful. Only the
+     * tree is per-item; callers normally pass a body they've already buffered.
+     */
+    public static List<String> validateItems(InputStream body) throws IOException {
+        List<String> violations = new ArrayList<>();
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                violations.add("expected a JSON array but got " + parser.currentToken());
+                return violations;
+            }
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY && violations.size() < MAX_VIOLATIONS) {
+                collect(TODO_ITEM, MAPPER.readTree(parser), "/" + index, violations);
+                index++;
+            }
+        }
+        return violations;
+    }
+    
+    /**
+     * Validates one array element that a caller has already read, e.g. while
+     * walking the array for its own checks.
+     */
+    public static List<String> validateItem(int index, JsonNode item) {
+        List<String> violations = new ArrayList<>();
+        collect(TODO_ITEM, item, "/" + index, violations);
+        return violations;
+    }
+    
+    private static void collect(JsonSchema schema, JsonNode document, String prefix, List<String> violations) {
+        ProcessingReport report;
+        try {
+            report = schema.validate(document, true);
+        } catch (ProcessingException e) {
+            violations.add(prefix + ": " + e.getProcessingMessage().getMessage());
+            return;
+        }
+        if (report.isSuccess()) {
+            return;
+        }
+        for (ProcessingMessage message : report) {
+            if (violations.size() >= MAX_VIOLATIONS) {
+                return;
+            }
+            JsonNode pointer = message.asJson().path("instance").path("pointer");
+            violations.add(prefix + pointer.asText("") + ": " + message.getMessage());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.seletest.api.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonschema.main.JsonSchema;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * REST Assured filter that checks every response against the
+ * {@link SchemaRegistry} schema for its endpoint and status: items and item
+ * lists, the login response, and the error body of any 4xx/5xx. Responses
+ * without a schema (health, test endpoints, 204s) pass untouched.
+ * -Dapi.schema=warn only prints violations, -Dapi.schema=off skips the check.
+ */
+public class SchemaValidationFilter implements Filter {
+    
+    public static final SchemaValidationFilter INSTANCE = new SchemaValidationFilter();
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    
+    private SchemaValidationFilter() {
+    }
+    
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Response response = ctx.next(requestSpec, responseSpec);
+        if ("off".equalsIgnoreCase(ApiConfig.SCHEMA_MODE)) {
+            return response;
+        }
+        
+        String endpoint = LatencyRecorder.endpointTemplate(requestSpec.getMethod(), requestSpec.getURI());
+        int status = response.statusCode();
+        byte[] body = response.asByteArray();
+        if (body.length == 0 || status == 204) {
+            return response;
+        }
+        
+        List<String> violations;
+        try {
+            if (status == 200 && endpoint.equals("GET " + ApiConfig.ITEMS_ENDPOINT)) {
+                violations = SchemaRegistry.validateItems(new ByteArrayInputStream(body));
+            } else {
+                JsonSchema schema = schemaFor(endpoint, status);
+                if (schema == null) {
+                    return response;
+                }
+                violations = SchemaRegistry.validate(schema, MAPPER.readTree(body));
+            }
+        } catch (IOException e) {
+            violations = List.of("body is not valid JSON - " + e.getMessage());
+        }
+        
+        if (!violations.isEmpty()) {
+            String message = endpoint + " " + status + " response doesn't match its schema:\n  - "
+                + String.join("\n  - ", violations);
+            if ("warn".equalsIgnoreCase(ApiConfig.SCHEMA_MODE)) {
+                System.out.println("Warning: " + message);
+            } else {
+                throw new AssertionError(message);
+            }
+        }
+        return response;
+    }
+    
+    private static JsonSchema schemaFor(String endpoint, int status) {
+        if (status >= 400) {
+            return SchemaRegistry.ERROR_MESSAGE;
+        }
+        switch (endpoint) {
+            case "POST " + ApiConfig.LOGIN_ENDPOINT:
+                return SchemaRegistry.LOGIN_RESPONSE;
+            case "POST " + ApiConfig.ITEMS_ENDPOINT:
+            case "PUT " + ApiConfig.ITEMS_ENDPOINT + "/{id}":
+                return SchemaRegistry.TODO_ITEM;
+            default:
+                return null;
+        }
+    }
+}
\ No newline at end of file
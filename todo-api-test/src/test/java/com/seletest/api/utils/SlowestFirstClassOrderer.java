@@ -0,0 +1,19 @@
+package com.seletest.api.utils;
+
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+
+import java.util.Comparator;
+
+/**
+ * Starts test classes in {@link TestHistory#schedulingOrder()}, so the long
+ * and flaky classes aren't the ones still running at the end.
+ */
+public class SlowestFirstClassOrderer implements ClassOrderer {
+    
+    @Override
+    public void orderClasses(ClassOrdererContext context) {
+        context.getClassDescriptors().sort(Comparator.comparing(
+            descriptor -> TestHistory.classKey(descriptor.getTestClass()), TestHistory.shared().schedulingOrder()));
+    }
+}
\ No newline at end of file
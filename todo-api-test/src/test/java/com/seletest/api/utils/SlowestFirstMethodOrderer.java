@@ -0,0 +1,27 @@
+package com.seletest.api.utils;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.Comparator;
+import java.util.Optional;
+
+/**
+ * Runs the methods of a class in {@link TestHistory#schedulingOrder()}.
+ */
+public class SlowestFirstMethodOrderer implements MethodOrderer {
+    
+    @Override
+    public void orderMethods(MethodOrdererContext context) {
+        Class<?> testClass = context.getTestClass();
+        context.getMethodDescriptors().sort(Comparator.comparing(
+            descriptor -> TestHistory.methodKey(testClass, descriptor.getMethod()), TestHistory.shared().schedulingOrder()));
+    }
+    
+    @Override
+    public Optional<ExecutionMode> getDefaultExecutionMode() {
+        // The interface default forces SAME_THREAD, which would serialize methods under -Dparallel
+        return Optional.empty();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,304 @@
+package com.seletest.api.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seletest.api.models.TodoItem;
+import io.restassured.response.Response;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Single-pass assertions over a GET /items array. Items are bound one at a
+ * time from a Jackson JsonParser and dropped after every registered check has
+ * seen them, so no jsonPath/GPath object tree is built for the whole list.
+ * Responses that came through REST Assured are still buffered as bytes;
+ * only {@link #fetchUnfiltered(String)} reads the body off the socket. Each
+ * item is also checked against the TodoItem schema on the way (see
+ * {@link SchemaRegistry}).
+ *
+ * <pre>
+ * StreamingItemsAssert.get(token)
+ *     .hasSize(greaterThan(0))
+ *     .doesNotContainId(todoId)
+ *     .isOrderedBy(Comparator.comparing(TodoItem::getId))
+ *     .verify();
+ * </pre>
+ */
+public class StreamingItemsAssert {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final JsonFactory JSON_FACTORY = MAPPER.getFactory();
+    private static final HttpClient HTTP = HttpClient.newHttpClient();
+    private static final int MAX_SCHEMA_FAILURES = 5;
+    
+    private final InputStream body;
+    private final boolean schemaChecked;
+    private final List<Check> checks = new ArrayList<>();
+    
+    private StreamingItemsAssert(InputStream body, boolean schemaChecked) {
+        this.body = body;
+        this.schemaChecked = schemaChecked;
+    }
+    
+    public static StreamingItemsAssert of(InputStream body) {
+        return new StreamingItemsAssert(body, !"off".equalsIgnoreCase(ApiConfig.SCHEMA_MODE));
+    }
+    
+    /**
+     * REST Assured buffers response bodies, so this skips the object tree but
+     * not the raw bytes. Use {@link #fetchUnfiltered(String)} when those matter too.
+     */
+    public static StreamingItemsAssert of(Response response) {
+        // SchemaValidationFilter has already checked it
+        return new StreamingItemsAssert(response.asInputStream(), false);
+    }
+    
+    /**
+     * GET /items for the given token through REST Assured, so the filters
+     * BaseApiTest installs (latency, failure logs, schema validation,
+     * traffic recording) all see it. The body is buffered once by REST
+     * Assured but never turned into an object tree.
+     */
+    public static StreamingItemsAssert get(String token) {
+        Response response = given()
+            .header(ApiConfig.AUTHORIZATION_HEADER, AuthHelper.getBearerToken(token))
+        .when()
+            .get(ApiConfig.ITEMS_ENDPOINT)
+        .then()
+            .statusCode(200)
+            .extract()
+            .response();
+        return of(response);
+    }
+    
+    /**
+     * Streams GET /items for the given token straight off the socket, for
+     * lists too big to buffer. It bypasses REST Assured, so none of its
+     * filters run: no latency budget, failure log, response-schema filter
+     * (items are still checked one by one here) or traffic recording. Use
+     * {@link #get(String)} otherwise.
+     */
+    public static StreamingItemsAssert fetchUnfiltered(String token) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(ApiConfig.BASE_URL + ApiConfig.ITEMS_ENDPOINT))
+            .header(ApiConfig.AUTHORIZATION_HEADER, AuthHelper.getBearerToken(token))
+            .GET()
+            .build();
+        EndpointCoverage.record("GET", ApiConfig.ITEMS_ENDPOINT);
+        try {
+            HttpResponse<InputStream> response = HTTP.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            if (response.statusCode() != 200) {
+                response.body().close();
+                throw new AssertionError("Expected GET " + ApiConfig.ITEMS_ENDPOINT + " to return 200 but was "
+                    + response.statusCode());
+            }
+            return of(response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching items", e);
+        }
+    }
+    
+    public StreamingItemsAssert hasSize(int expected) {
+        return hasSize(equalTo(expected));
+    }
+    
+    public StreamingItemsAssert hasSize(Matcher<? super Integer> matcher) {
+        checks.add(new Check() {
+            @Override
+            public void finish(int size, List<String> failures) {
+                if (!matcher.matches(size)) {
+                    failures.add("size: expected " + StringDescription.toString(matcher) + " but was " + size);
+                }
+            }
+        });
+        return this;
+    }
+    
+    public StreamingItemsAssert containsId(int id) {
+        return anyMatch("an item with id " + id, item -> Objects.equals(item.getId(), id));
+    }
+    
+    public StreamingItemsAssert doesNotContainId(int id) {
+        return noneMatch("an item with id " + id, item -> Objects.equals(item.getId(), id));
+    }
+    
+    public StreamingItemsAssert containsText(String text) {
+        return anyMatch("an item with text '" + text + "'", item -> text.equals(item.getText()));
+    }
+    
+    public StreamingItemsAssert anyMatch(String description, Predicate<TodoItem> predicate) {
+        checks.add(new Check() {
+            private boolean found;
+            
+            @Override
+            public void accept(int index, TodoItem item) {
+                found = found || predicate.test(item);
+            }
+            
+            @Override
+            public void finish(int size, List<String> failures) {
+                if (!found) {
+                    failures.add("expected " + description + " among " + size + " items but found none");
+                }
+            }
+        });
+        return this;
+    }
+    
+    public StreamingItemsAssert noneMatch(String description, Predicate<TodoItem> predicate) {
+        checks.add(new Check() {
+            private int firstMatch = -1;
+            
+            @Override
+            public void accept(int index, TodoItem item) {
+                if (firstMatch < 0 && predicate.test(item)) {
+                    firstMatch = index;
+                }
+            }
+            
+            @Override
+            public void finish(int size, List<String> failures) {
+                if (firstMatch >= 0) {
+                    failures.add("expected no " + description + " but found one at index " + firstMatch);
+                }
+            }
+        });
+        return this;
+    }
+    
+    public StreamingItemsAssert allMatch(String description, Predicate<TodoItem> predicate) {
+        checks.add(new Check() {
+            private int firstMismatch = -1;
+            
+            @Override
+            public void accept(int index, TodoItem item) {
+                if (firstMismatch < 0 && !predicate.test(item)) {
+                    firstMismatch = index;
+                }
+            }
+            
+            @Override
+            public void finish(int size, List<String> failures) {
+                if (firstMismatch >= 0) {
+                    failures.add("expected every item to be " + description + " but index " + firstMismatch + " was not");
+                }
+            }
+        });
+        return this;
+    }
+    
+    public StreamingItemsAssert itemAt(int position, String description, Predicate<TodoItem> predicate) {
+        checks.add(new Check() {
+            private boolean matched;
+            
+            @Override
+            public void accept(int index, TodoItem item) {
+                if (index == position) {
+                    matched = predicate.test(item);
+                }
+            }
+            
+            @Override
+            public void finish(int size, List<String> failures) {
+                if (position >= size) {
+                    failures.add("expected item [" + position + "] to be " + description + " but there are only " + size + " items");
+                } else if (!matched) {
+                    failures.add("expected item [" + position + "] to be " + description);
+                }
+            }
+        });
+        return this;
+    }
+    
+    public StreamingItemsAssert isOrderedBy(Comparator<TodoItem> comparator) {
+        checks.add(new Check() {
+            private TodoItem previous;
+            private int firstOutOfOrder = -1;
+            
+            @Override
+            public void accept(int index, TodoItem item) {
+                if (firstOutOfOrder < 0 && previous != null && comparator.compare(previous, item) > 0) {
+                    firstOutOfOrder = index;
+                }
+                previous = item;
+            }
+            
+            @Override
+            public void finish(int size, List<String> failures) {
+                if (firstOutOfOrder >= 0) {
+                    failures.add("expected items in order but index " + firstOutOfOrder + " sorts before its predecessor");
+                }
+            }
+        });
+        return this;
+    }
+    
+    /**
+     * Streams the array once through every registered check and fails with
+     * all violations together.
+     */
+    public void verify() {
+        List<String> failures = new ArrayList<>();
+        int size = 0;
+        
+        try (InputStream in = body; JsonParser parser = JSON_FACTORY.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new AssertionError("Expected a JSON array but got " + parser.currentToken());
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                JsonNode node = MAPPER.readTree(parser);
+                if (schemaChecked && failures.size() < MAX_SCHEMA_FAILURES) {
+                    failures.addAll(SchemaRegistry.validateItem(size, node));
+                }
+                TodoItem item = MAPPER.treeToValue(node, TodoItem.class);
+                for (Check check : checks) {
+                    check.accept(size, item);
+                }
+                size++;
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new AssertionError("Expected only objects in the array but found " + parser.currentToken()
+                    + " at index " + size);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not stream items array", e);
+        }
+        
+        for (Check check : checks) {
+            check.finish(size, failures);
+        }
+        if (!failures.isEmpty()) {
+            throw new AssertionError("Items assertion failed:\n  - " + String.join("\n  - ", failures));
+        }
+    }
+    
+    private abstract static class Check {
+        void accept(int index, TodoItem item) {
+        }
+        
+        abstract void finish(int size, List<String> failures);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.seletest.api.utils;
+
+import com.seletest.api.models.LoginRequest;
+import io.restassured.response.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Accounts a test should act as. Serial runs use the demo admin/user pair;
+ * in parallel mode each worker thread registers its own pair so its todos
+ * never show up in another worker's assertions.
+ */
+public class TestAccounts {
+
+    private static final String RUN_ID = Long.toString(System.currentTimeMillis(), 36);
+    private static final AtomicInteger WORKER_SEQUENCE = new AtomicInteger();
+    private static final ThreadLocal<List<LoginRequest>> WORKER_ACCOUNTS =
+        perWorker(ApiConfig.BASE_URL, "worker", "owner", "other");
+
+    public static LoginRequest owner() {
+        if (!ApiConfig.PARALLEL_ENABLED) {
+            return new LoginRequest(ApiConfig.VALID_USERNAME_ADMIN, ApiConfig.VALID_PASSWORD_ADMIN);
+        }
+        return WORKER_ACCOUNTS.get().get(0);
+    }
+
+    public static LoginRequest other() {
+        if (!ApiConfig.PARALLEL_ENABLED) {
+            return new LoginRequest(ApiConfig.VALID_USERNAME_USER, ApiConfig.VALID_PASSWORD_USER);
+        }
+        return WORKER_ACCOUNTS.get().get(1);
+    }
+
+    public static void clearOwnTodos() {
+        clearTodos(owner());
+        clearTodos(other());
+    }
+
+    public static void clearTodos(LoginRequest account) {
+        String bearer = AuthHelper.getBearerToken(AuthHelper.getToken(account));
+
+        List<Integer> ids = given()
+            .header(ApiConfig.AUTHORIZATION_HEADER, bearer)
+        .when()
+            .get(ApiConfig.ITEMS_ENDPOINT)
+        .then()
+            .statusCode(200)
+            .extract()
+            .jsonPath()
+            .getList("id", Integer.class);
+
+        for (Integer id : ids) {
+            given()
+                .header(ApiConfig.AUTHORIZATION_HEADER, bearer)
+            .when()
+                .delete(ApiConfig.ITEMS_ENDPOINT + "/" + id);
+        }
+    }
+
+    /**
+     * Accounts registered on first use by each thread, one per role, named
+     * {@code <prefix>-<run>-<worker>-<role>}. Shared with the UI suite,
+     * which registers against its own base URL.
+     */
+    public static ThreadLocal<List<LoginRequest>> perWorker(String baseUrl, String prefix, String... roles) {
+        return ThreadLocal.withInitial(() -> {
+            int worker = WORKER_SEQUENCE.incrementAndGet();
+            List<LoginRequest> accounts = new ArrayList<>(roles.length);
+            for (String role : roles) {
+                accounts.add(register(baseUrl, prefix + "-" + RUN_ID + "-" + worker + "-" + role, "secret-" + worker));
+            }
+            return accounts;
+        });
+    }
+
+    public static LoginRequest register(String username, String password) {
+        return register(ApiConfig.BASE_URL, username, password);
+    }
+
+    public static LoginRequest register(String baseUrl, String username, String password) {
+        LoginRequest account = new LoginRequest(username, password);
+
+        Response response = given()
+            .contentType(ApiConfig.CONTENT_TYPE_JSON)
+            .body(account)
+        .when()
+            .post(baseUrl + ApiConfig.TEST_USERS_ENDPOINT);
+
+        if (response.getStatusCode() != 201) {
+            throw new IllegalStateException("Could not register test account '" + username + "' (HTTP "
+                + response.getStatusCode() + "). Parallel mode needs a server exposing "
+                + ApiConfig.TEST_USERS_ENDPOINT);
+        }
+        return account;
+    }
+}
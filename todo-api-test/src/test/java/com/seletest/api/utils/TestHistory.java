@@ -0,0 +1,299 @@
+package com.seletest.api.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Durations and outcomes of tests across runs, kept in a small tab-separated
+ * file (-Dtest.history.file, default .test-history in the module directory).
+ * Keys are a class name for a whole class, including its @BeforeAll work, or
+ * {@code Class#method(params)} for one test method, summed over its
+ * parameterized invocations. Averages and failure rates are exponentially
+ * weighted, so a test that got faster or stopped flaking drifts back down.
+ */
+public class TestHistory {
+    
+    public static final Path FILE = Paths.get(System.getProperty("test.history.file", ".test-history"));
+    // Weight of the newest run in the moving averages
+    private static final double ALPHA = 0.3;
+    // Entries not seen for this many runs are dropped (renamed or deleted tests)
+    private static final int MAX_IDLE_RUNS = 30;
+    private static final int SUMMARY_SIZE = 10;
+    // A test only counts as regressed when it grew by both this ratio and this many ms
+    private static final double REGRESSION_RATIO = 1.5;
+    private static final long REGRESSION_MIN_MS = 100;
+    private static final int REGRESSION_MIN_RUNS = 3;
+    // Tests failing more often than this are scheduled ahead of slower stable ones
+    private static final double FLAKY_RATE = 0.05;
+    
+    private static volatile TestHistory shared;
+    
+    private final Path file;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Sample> currentRun = new ConcurrentHashMap<>();
+    private int runCount;
+    
+    TestHistory(Path file) {
+        this.file = file;
+    }
+    
+    /**
+     * The history for this JVM, read from {@link #FILE} on first use.
+     */
+    public static TestHistory shared() {
+        if (shared == null) {
+            synchronized (TestHistory.class) {
+                if (shared == null) {
+                    shared = load(FILE);
+                }
+            }
+        }
+        return shared;
+    }
+    
+    public static TestHistory load(Path file) {
+        TestHistory history = new TestHistory(file);
+        if (!Files.isReadable(file)) {
+            return history;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.startsWith("#runs=")) {
+                    history.runCount = Integer.parseInt(line.substring("#runs=".length()).trim());
+                } else if (!line.isEmpty() && !line.startsWith("#")) {
+                    Entry entry = Entry.parse(line);
+                    history.entries.put(entry.key, entry);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Warning: Ignoring unreadable test history " + file + " - " + e.getMessage());
+            history.entries.clear();
+            history.runCount = 0;
+        }
+        return history;
+    }
+    
+    public static String classKey(Class<?> testClass) {
+        return testClass.getName();
+    }
+    
+    public static String methodKey(Class<?> testClass, Method method) {
+        StringBuilder key = new StringBuilder(testClass.getName()).append('#').append(method.getName()).append('(');
+        Class<?>[] parameters = method.getParameterTypes();
+        for (int i = 0; i < parameters.length; i++) {
+            key.append(i > 0 ? "," : "").append(parameters[i].getSimpleName());
+        }
+        return key.append(')').toString();
+    }
+    
+    public Entry get(String key) {
+        return entries.get(key);
+    }
+    
+    /**
+     * Scheduling order for keys: tests with no history first, since they are
+     * new or renamed and likeliest to fail, then flaky tests by failure rate,
+     * then the rest slowest first.
+     */
+    public Comparator<String> schedulingOrder() {
+        return Comparator.comparingInt((String key) -> tier(entries.get(key)))
+            .thenComparing(key -> -failRate(entries.get(key)))
+            .thenComparing(key -> entries.containsKey(key) ? -entries.get(key).avgMs : 0);
+    }
+    
+    private static int tier(Entry entry) {
+        if (entry == null) {
+            return 0;
+        }
+        return entry.failRate > FLAKY_RATE ? 1 : 2;
+    }
+    
+    private static double failRate(Entry entry) {
+        return entry != null && entry.failRate > FLAKY_RATE ? entry.failRate : 0;
+    }
+    
+    /**
+     * Adds a duration to this run's sample for the key; a key recorded several
+     * times in one run (parameterized invocations) sums its durations and
+     * counts as failed if any of them failed.
+     */
+    public void record(String key, long millis, boolean failed) {
+        currentRun.merge(key, new Sample(millis, failed),
+            (a, b) -> new Sample(a.millis + b.millis, a.failed || b.failed));
+    }
+    
+    /**
+     * Folds this run's samples into the history and writes the file atomically.
+     * Returns the summary of the run, or an empty string when nothing ran.
+     */
+    public synchronized String save() {
+        if (currentRun.isEmpty()) {
+            return "";
+        }
+        runCount++;
+        List<Regression> regressions = new ArrayList<>();
+        for (Map.Entry<String, Sample> sample : currentRun.entrySet()) {
+            Entry entry = entries.computeIfAbsent(sample.getKey(), Entry::new);
+            Regression regression = entry.regressionAgainst(sample.getValue().millis);
+            if (regression != null) {
+                regressions.add(regression);
+            }
+            entry.update(sample.getValue(), runCount);
+        }
+        entries.values().removeIf(entry -> runCount - entry.lastRun > MAX_IDLE_RUNS);
+        String summary = summary(regressions);
+        currentRun.clear();
+        
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, ".test-history", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write("#runs=" + runCount + "\n");
+                writer.write("# key\truns\tfailures\tavgMs\tfailRate\tlastMs\tlastRun\n");
+                List<Entry> sorted = new ArrayList<>(entries.values());
+                sorted.sort(Comparator.comparing(entry -> entry.key));
+                for (Entry entry : sorted) {
+                    writer.write(entry.format());
+                    writer.write('\n');
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("Warning: Could not save test history to " + file + " - " + e.getMessage());
+        }
+        return summary;
+    }
+    
+    private String summary(List<Regression> regressions) {
+        List<Map.Entry<String, Sample>> slowest = new ArrayList<>();
+        for (Map.Entry<String, Sample> sample : currentRun.entrySet()) {
+            if (sample.getKey().indexOf('#') > 0) {
+                slowest.add(sample);
+            }
+        }
+        slowest.sort(Comparator.comparingLong((Map.Entry<String, Sample> sample) -> sample.getValue().millis).reversed());
+        
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, "Slowest tests this run (history: %s, run %d):%n",
+            file, runCount));
+        for (Map.Entry<String, Sample> sample : slowest.subList(0, Math.min(SUMMARY_SIZE, slowest.size()))) {
+            Entry entry = entries.get(sample.getKey());
+            sb.append(String.format(Locale.ROOT, "  %8d ms  avg %8.0f ms  failed %d/%d  %s%n", sample.getValue().millis,
+                entry.avgMs, entry.failures, entry.runs, sample.getKey()));
+        }
+        
+        regressions.removeIf(regression -> regression.key.indexOf('#') < 0);
+        regressions.sort(Comparator.comparingDouble((Regression regression) -> regression.ratio).reversed());
+        if (regressions.isEmpty()) {
+            sb.append("No test slowed down by more than ").append(REGRESSION_RATIO).append("x against its history\n");
+        } else {
+            sb.append("Fastest-regressing tests:\n");
+            for (Regression regression : regressions.subList(0, Math.min(SUMMARY_SIZE, regressions.size()))) {
+                sb.append(String.format(Locale.ROOT, "  %5.1fx  %8.0f ms -> %8d ms  %s%n", regression.ratio,
+                    regression.previousMs, regression.millis, regression.key));
+            }
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * What is known about one class or method.
+     */
+    public static class Entry {
+        private final String key;
+        private int runs;
+        private int failures;
+        private double avgMs;
+        private double failRate;
+        private long lastMs;
+        private int lastRun;
+        
+        Entry(String key) {
+            this.key = key;
+        }
+        
+        public double getAvgMs() {
+            return avgMs;
+        }
+        
+        public double getFailRate() {
+            return failRate;
+        }
+        
+        public int getRuns() {
+            return runs;
+        }
+        
+        void update(Sample sample, int run) {
+            avgMs = runs == 0 ? sample.millis : avgMs + ALPHA * (sample.millis - avgMs);
+            failRate = runs == 0 ? (sample.failed ? 1 : 0) : failRate + ALPHA * ((sample.failed ? 1 : 0) - failRate);
+            runs++;
+            failures += sample.failed ? 1 : 0;
+            lastMs = sample.millis;
+            lastRun = run;
+        }
+        
+        Regression regressionAgainst(long millis) {
+            if (runs < REGRESSION_MIN_RUNS || millis < avgMs * REGRESSION_RATIO || millis - avgMs < REGRESSION_MIN_MS) {
+                return null;
+            }
+            return new Regression(key, avgMs, millis);
+        }
+        
+        String format() {
+            return String.format(Locale.ROOT, "%s\t%d\t%d\t%.0f\t%.3f\t%d\t%d",
+                key, runs, failures, avgMs, failRate, lastMs, lastRun);
+        }
+        
+        static Entry parse(String line) {
+            String[] fields = line.split("\t");
+            if (fields.length != 7) {
+                throw new IllegalArgumentException("Expected 7 fields in '" + line + "'");
+            }
+            Entry entry = new Entry(fields[0]);
+            entry.runs = Integer.parseInt(fields[1]);
+            entry.failures = Integer.parseInt(fields[2]);
+            entry.avgMs = Double.parseDouble(fields[3]);
+            entry.failRate = Double.parseDouble(fields[4]);
+            entry.lastMs = Long.parseLong(fields[5]);
+            entry.lastRun = Integer.parseInt(fields[6]);
+            return entry;
+        }
+    }
+    
+    private static class Sample {
+        private final long millis;
+        private final boolean failed;
+        
+        Sample(long millis, boolean failed) {
+            this.millis = millis;
+            this.failed = failed;
+        }
+    }
+    
+    private static class Regression {
+        private final String key;
+        private final double previousMs;
+        private final long millis;
+        private final double ratio;
+        
+        Regression(String key, double previousMs, long millis) {
+            this.key = key;
+            this.previousMs = previousMs;
+            this.millis = millis;
+            this.ratio = millis / Math.max(1, previousMs);
+        }
+    }
+}
\ No newline at end of file
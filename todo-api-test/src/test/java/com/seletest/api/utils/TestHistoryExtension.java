@@ -0,0 +1,78 @@
+package com.seletest.api.utils;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestWatcher;
+
+/**
+ * Times every test method, setup and teardown included, and every class from
+ * its first @BeforeAll to its last @AfterAll, into {@link TestHistory}. The
+ * history is saved and its summary printed once, when the whole run ends.
+ */
+public class TestHistoryExtension implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback, TestWatcher {
+    
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(TestHistoryExtension.class);
+    private static final String START = "start";
+    private static final String FAILED = "failed";
+    
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        // Stored on the root context so it is closed, and the history saved, after the last class
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(SaveOnClose.class, key -> new SaveOnClose());
+        context.getStore(NAMESPACE).put(START, System.nanoTime());
+    }
+    
+    @Override
+    public void afterAll(ExtensionContext context) {
+        boolean failed = context.getExecutionException().isPresent() || context.getStore(NAMESPACE).get(FAILED) != null;
+        record(context, TestHistory.classKey(context.getRequiredTestClass()), failed);
+    }
+    
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(START, System.nanoTime());
+    }
+    
+    @Override
+    public void testSuccessful(ExtensionContext context) {
+        recordMethod(context, false);
+    }
+    
+    @Override
+    public void testFailed(ExtensionContext context, Throwable cause) {
+        recordMethod(context, true);
+        // A class counts as failed when any of its tests did, so flaky classes are scheduled early too
+        classContext(context).getStore(NAMESPACE).put(FAILED, Boolean.TRUE);
+    }
+    
+    private static void recordMethod(ExtensionContext context, boolean failed) {
+        record(context, TestHistory.methodKey(context.getRequiredTestClass(), context.getRequiredTestMethod()), failed);
+    }
+    
+    private static ExtensionContext classContext(ExtensionContext context) {
+        ExtensionContext current = context;
+        while (current.getTestMethod().isPresent() && current.getParent().isPresent()) {
+            current = current.getParent().get();
+        }
+        return current;
+    }
+    
+    private static void record(ExtensionContext context, String key, boolean failed) {
+        Long start = context.getStore(NAMESPACE).remove(START, Long.class);
+        if (start != null) {
+            TestHistory.shared().record(key, (System.nanoTime() - start) / 1_000_000, failed);
+        }
+    }
+    
+    private static class SaveOnClose implements ExtensionContext.Store.CloseableResource {
+        @Override
+        public void close() {
+            String summary = TestHistory.shared().save();
+            if (!summary.isEmpty()) {
+                System.out.println(summary);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.seletest.api.utils;
+
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestWatcher;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Test impact selection. In record mode it attributes the requests made
+ * during each test, and during each class's @BeforeAll/@AfterAll, to that
+ * test in {@link EndpointCoverage}. In select mode it disables every test
+ * whose recorded endpoints, together with its class's, miss all the routes
+ * in {@link ChangedEndpoints}; tests with no recording always run.
+ */
+public class TestImpactExtension implements ExecutionCondition, BeforeAllCallback, AfterAllCallback,
+        BeforeEachCallback, AfterEachCallback, TestWatcher {
+        
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(TestImpactExtension.class);
+    private static final String PREVIOUS_TEST = "previousTest";
+    
+    private static Selection selection;
+    private static boolean filterInstalled;
+    
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        if (!EndpointCoverage.SELECTING || context.getTestMethod().isEmpty()) {
+            return ConditionEvaluationResult.enabled("test impact selection off");
+        }
+        Selection current = selection();
+        Class<?> testClass = context.getRequiredTestClass();
+        Set<String> recorded = current.coverage.get(TestHistory.methodKey(testClass, context.getRequiredTestMethod()));
+        if (recorded == null) {
+            return ConditionEvaluationResult.enabled("no recorded endpoints");
+        }
+        Set<String> endpoints = new TreeSet<>(recorded);
+        endpoints.addAll(current.coverage.getOrDefault(TestHistory.classKey(testClass), Set.of()));
+        for (String endpoint : endpoints) {
+            for (String route : current.changed) {
+                if (EndpointCoverage.matches(endpoint, route)) {
+                    return ConditionEvaluationResult.enabled("hits changed route " + route);
+                }
+            }
+        }
+        return ConditionEvaluationResult.disabled("Not affected by " + (current.changed.isEmpty()
+            ? "this change" : String.join(", ", current.changed)) + " (hits " + String.join(", ", endpoints) + ")");
+    }
+    
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        if (!EndpointCoverage.RECORDING) {
+            return;
+        }
+        installFilter();
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(SaveOnClose.class, key -> new SaveOnClose());
+        context.getStore(NAMESPACE).put(PREVIOUS_TEST,
+            EndpointCoverage.setCurrentTest(TestHistory.classKey(context.getRequiredTestClass())));
+    }
+    
+    @Override
+    public void afterAll(ExtensionContext context) {
+        if (EndpointCoverage.RECORDING) {
+            EndpointCoverage.setCurrentTest(context.getStore(NAMESPACE).remove(PREVIOUS_TEST, String.class));
+        }
+    }
+    
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (EndpointCoverage.RECORDING) {
+            String key = TestHistory.methodKey(context.getRequiredTestClass(), context.getRequiredTestMethod());
+            context.getStore(NAMESPACE).put(PREVIOUS_TEST, EndpointCoverage.setCurrentTest(key));
+        }
+    }
+    
+    @Override
+    public void afterEach(ExtensionContext context) {
+        if (EndpointCoverage.RECORDING) {
+            EndpointCoverage.setCurrentTest(context.getStore(NAMESPACE).remove(PREVIOUS_TEST, String.class));
+        }
+    }
+    
+    @Override
+    public void testFailed(ExtensionContext context, Throwable cause) {
+        if (EndpointCoverage.RECORDING) {
+            EndpointCoverage.markFailed(TestHistory.methodKey(context.getRequiredTestClass(), context.getRequiredTestMethod()));
+        }
+    }
+    
+    @Override
+    public void testAborted(ExtensionContext context, Throwable cause) {
+        testFailed(context, cause);
+    }
+    
+    private static synchronized void installFilter() {
+        if (!filterInstalled) {
+            RestAssured.filters(EndpointCoverage.INSTANCE);
+            filterInstalled = true;
+        }
+    }
+    
+    private static synchronized Selection selection() {
+        if (selection == null) {
+            selection = new Selection(EndpointCoverage.load(EndpointCoverage.FILE), ChangedEndpoints.resolve());
+            if (selection.coverage.isEmpty()) {
+                System.out.println("Warning: No test impact map at " + EndpointCoverage.FILE.toAbsolutePath()
+                    + "; run with -Dtest.impact=record first. Running everything");
+            } else {
+                System.out.println("INFO: Selecting tests affected by " + (selection.changed.isEmpty()
+                    ? "no API routes" : String.join(", ", selection.changed)));
+            }
+        }
+        return selection;
+    }
+    
+    private static class Selection {
+        private final Map<String, Set<String>> coverage;
+        private final Set<String> changed;
+        
+        Selection(Map<String, Set<String>> coverage, Set<String> changed) {
+            this.coverage = coverage;
+            this.changed = changed;
+        }
+    }
+    
+    private static class SaveOnClose implements ExtensionContext.Store.CloseableResource {
+        @Override
+        public void close() {
+            int recorded = EndpointCoverage.save();
+            if (recorded > 0) {
+                System.out.println("INFO: Recorded the endpoints of " + recorded + " tests to "
+                    + EndpointCoverage.FILE.toAbsolutePath());
+            }
+        }
+    }
+}
\ No newline at end of file
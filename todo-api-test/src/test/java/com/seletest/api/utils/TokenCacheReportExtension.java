@@ -0,0 +1,29 @@
+package com.seletest.api.utils;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Prints the {@link AuthHelper} token cache stats once, when the whole run
+ * ends. The counters are process-wide, so printing them per class only
+ * repeated the running total.
+ */
+public class TokenCacheReportExtension implements BeforeAllCallback {
+    
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(TokenCacheReportExtension.class);
+    
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        // Stored on the root context so it is closed after the last class
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(ReportOnClose.class, key -> new ReportOnClose());
+    }
+    
+    private static class ReportOnClose implements ExtensionContext.Store.CloseableResource {
+        @Override
+        public void close() {
+            if (AuthHelper.getCacheHits() + AuthHelper.getCacheMisses() > 0) {
+                System.out.println(AuthHelper.getCacheStats());
+            }
+        }
+    }
+}
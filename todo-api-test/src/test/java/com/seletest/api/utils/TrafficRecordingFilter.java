@@ -0,0 +1,215 @@
+package com.seletest.api.utils;
+
+import com.seletest.api.replay.Exchange;
+import com.seletest.api.replay.TrafficLogWriter;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST Assured filter that appends every exchange to the traffic log named
+ * by -Dapi.record, for TrafficReplayer in todo-load-test to send again.
+ * Requests that fail without a response are recorded with status 0.
+ *
+ * <p>Helpers that talk to the API through the JDK HttpClient (DataSeeder,
+ * ProgramRunner, ContendedWorkload, the scaling suite) pass their exchanges
+ * to {@link #recordHttpClient} so the log holds every call that changed
+ * state. {@code StreamingItemsAssert.fetchUnfiltered} is the one exception:
+ * its body is never buffered, and a read leaves nothing for later calls to
+ * depend on.
+ */
+public class TrafficRecordingFilter implements Filter {
+    
+    public static final TrafficRecordingFilter INSTANCE = new TrafficRecordingFilter();
+    
+    // Null unless -Dapi.record is set
+    private final TrafficLogWriter writer;
+    
+    private TrafficRecordingFilter() {
+        if (ApiConfig.RECORD_FILE.isEmpty()) {
+            writer = null;
+            return;
+        }
+        try {
+            writer = new TrafficLogWriter(Paths.get(ApiConfig.RECORD_FILE));
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't open traffic log " + ApiConfig.RECORD_FILE, e);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.out.println("Warning: couldn't close traffic log - " + e.getMessage());
+            }
+        }, "traffic-log-close"));
+    }
+    
+    public static boolean isRecording() {
+        return INSTANCE.writer != null;
+    }
+    
+    public static long epochMicrosNow() {
+        Instant now = Instant.now();
+        return TimeUnit.SECONDS.toMicros(now.getEpochSecond()) + now.getNano() / 1000;
+    }
+    
+    /**
+     * Records an exchange sent with the JDK HttpClient, which REST Assured's
+     * filters never see. {@code response} is null when none came; its body
+     * is recorded if it was read as a String or byte[]. The client is the
+     * thread that sent the request.
+     */
+    public static void recordHttpClient(HttpRequest request, long client, long sentEpochMicros, long startNanos,
+                                        HttpResponse<?> response) {
+        if (!isRecording()) {
+            return;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        List<Long> params = new ArrayList<>();
+        String template = Exchange.template(request.uri().getRawPath(), params);
+        
+        List<Map.Entry<String, String>> responseHeaders = response == null ? new ArrayList<>() : entries(response.headers().map());
+        INSTANCE.append(new Exchange(sentEpochMicros, micros, client, request.method().toUpperCase(), template,
+            params.stream().mapToLong(Long::longValue).toArray(), request.uri().getRawQuery(),
+            entries(request.headers().map()), bodyOf(request), response == null ? 0 : response.statusCode(),
+            responseHeaders, response != null && (response.body() instanceof String || response.body() instanceof byte[])
+                ? bytesOf(response.body()) : new byte[0]));
+    }
+    
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long sent = epochMicrosNow();
+        long start = System.nanoTime();
+        Response response = null;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+            return response;
+        } finally {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            record(requestSpec, response, sent, micros);
+        }
+    }
+    
+    private void record(FilterableRequestSpecification requestSpec, Response response, long startMicros,
+                        long micros) {
+        URI uri = URI.create(requestSpec.getURI());
+        List<Long> params = new ArrayList<>();
+        String template = Exchange.template(uri.getRawPath(), params);
+        
+        List<Map.Entry<String, String>> requestHeaders = new ArrayList<>();
+        boolean hasContentType = false;
+        for (Header header : requestSpec.getHeaders()) {
+            requestHeaders.add(new AbstractMap.SimpleImmutableEntry<>(header.getName(), header.getValue()));
+            hasContentType |= header.getName().equalsIgnoreCase("Content-Type");
+        }
+        if (!hasContentType && requestSpec.getContentType() != null) {
+            requestHeaders.add(new AbstractMap.SimpleImmutableEntry<>("Content-Type", requestSpec.getContentType()));
+        }
+        
+        List<Map.Entry<String, String>> responseHeaders = new ArrayList<>();
+        if (response != null) {
+            for (Header header : response.getHeaders()) {
+                responseHeaders.add(new AbstractMap.SimpleImmutableEntry<>(header.getName(), header.getValue()));
+            }
+        }
+        
+        Exchange exchange = new Exchange(startMicros, micros, Thread.currentThread().getId(),
+            requestSpec.getMethod().toUpperCase(), template, params.stream().mapToLong(Long::longValue).toArray(),
+            uri.getRawQuery(), requestHeaders, bytesOf(requestSpec.getBody()),
+            response == null ? 0 : response.statusCode(), responseHeaders,
+            response == null ? new byte[0] : response.asByteArray());
+        append(exchange);
+    }
+    
+    private void append(Exchange exchange) {
+        try {
+            writer.append(exchange);
+        } catch (IOException e) {
+            System.out.println("Warning: couldn't record " + exchange.endpoint() + " - " + e.getMessage());
+        }
+    }
+    
+    private static List<Map.Entry<String, String>> entries(Map<String, List<String>> headers) {
+        List<Map.Entry<String, String>> entries = new ArrayList<>();
+        headers.forEach((name, values) -> {
+            for (String value : values) {
+                entries.add(new AbstractMap.SimpleImmutableEntry<>(name, value));
+            }
+        });
+        return entries;
+    }
+    
+    // The JDK's in-memory publishers (ofString, ofByteArray, noBody) emit on the subscribing thread
+    private static byte[] bodyOf(HttpRequest request) {
+        if (request.bodyPublisher().isEmpty()) {
+            return new byte[0];
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        CompletableFuture<byte[]> done = new CompletableFuture<>();
+        request.bodyPublisher().get().subscribe(new Flow.Subscriber<ByteBuffer>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+            
+            @Override
+            public void onNext(ByteBuffer item) {
+                byte[] chunk = new byte[item.remaining()];
+                item.get(chunk);
+                body.write(chunk, 0, chunk.length);
+            }
+            
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+            
+            @Override
+            public void onComplete() {
+                done.complete(body.toByteArray());
+            }
+        });
+        try {
+            return done.get(1, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            System.out.println("Warning: couldn't read request body to record " + request.uri() + " - " + e);
+            return new byte[0];
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new byte[0];
+        }
+    }
+    
+    private static byte[] bytesOf(Object body) {
+        if (body == null) {
+            return new byte[0];
+        }
+        if (body instanceof byte[]) {
+            return (byte[]) body;
+        }
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
\ No newline at end of file
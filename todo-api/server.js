@@ -154,6 +154,27 @@ app.delete('/test/clear-data', (req, res) => {
     res.json({ message: 'Test data cleared', timestamp: new Date().toISOString() });
 });
 
+app.post('/test/users', (req, res) => {
+    const { username, password } = req.body || {};
+
+    if (!username || !password) {
+        return res.status(400).json({ message: 'Username and password are required' });
+    }
+
+    if (users.some(u => u.username === username)) {
+        return res.status(409).json({ message: 'User already exists' });
+    }
+
+    const user = {
+        id: users.reduce((max, u) => Math.max(max, u.id), 0) + 1,
+        username,
+        password: bcrypt.hashSync(password, 4)
+    };
+
+    users.push(user);
+    res.status(201).json({ id: user.id, username: user.username });
+});
+
 app.use((req, res) => {
     res.status(404).json({ message: 'Endpoint not found' });
 });
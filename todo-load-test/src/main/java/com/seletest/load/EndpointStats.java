@@ -0,0 +1,41 @@
+package com.seletest.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class EndpointStats {
+    
+    // Microsecond resolution, up to one minute per request
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    
+    private final Operation operation;
+    private final ConcurrentHistogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    
+    public EndpointStats(Operation operation) {
+        this.operation = operation;
+    }
+    
+    public void record(long elapsedNanos, boolean success) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), HIGHEST_TRACKABLE_MICROS);
+        latencies.recordValue(Math.max(1, micros));
+        if (!success) {
+            errors.increment();
+        }
+    }
+    
+    public Operation getOperation() {
+        return operation;
+    }
+    
+    public Histogram getLatencies() {
+        return latencies.copy();
+    }
+    
+    public long getErrors() {
+        return errors.sum();
+    }
+}
\ No newline at end of file
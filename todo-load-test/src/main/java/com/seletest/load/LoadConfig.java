@@ -0,0 +1,127 @@
+package com.seletest.load;
+
+import com.seletest.api.models.LoginRequest;
+import com.seletest.api.utils.ApiConfig;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Load run settings, read from {@code -Dload.*} system properties so the
+ * generator can be driven from {@code mvn exec:java} without a config file.
+ */
+public class LoadConfig {
+    
+    private final String baseUrl;
+    private final int users;
+    private final Duration duration;
+    private final Duration warmup;
+    private final Duration rampUp;
+    private final Duration thinkTime;
+    private final OperationMix mix;
+    private final List<LoginRequest> accounts;
+    private final boolean history;
+    private final double historyListSample;
+    
+    public LoadConfig(String baseUrl, int users, Duration duration, Duration warmup, Duration rampUp,
+                      Duration thinkTime, OperationMix mix, List<LoginRequest> accounts, boolean history,
+                      double historyListSample) {
+        if (users < 1) {
+            throw new IllegalArgumentException("load.users must be at least 1");
+        }
+        if (!warmup.minus(duration).isNegative()) {
+            throw new IllegalArgumentException("load.warmupSeconds must be shorter than load.durationSeconds");
+        }
+        if (accounts.isEmpty()) {
+            throw new IllegalArgumentException("load.accounts must name at least one account");
+        }
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.duration = duration;
+        this.warmup = warmup;
+        this.rampUp = rampUp;
+        this.thinkTime = thinkTime;
+        this.mix = mix;
+        this.accounts = accounts;
+        this.history = history;
+        this.historyListSample = historyListSample;
+    }
+    
+    public static LoadConfig fromSystemProperties() {
+        return new LoadConfig(
+            System.getProperty("load.baseUrl", ApiConfig.BASE_URL),
+            Integer.getInteger("load.users", 1000),
+            Duration.ofSeconds(Long.getLong("load.durationSeconds", 60L)),
+            Duration.ofSeconds(Long.getLong("load.warmupSeconds", 10L)),
+            Duration.ofSeconds(Long.getLong("load.rampUpSeconds", 5L)),
+            Duration.ofMillis(Long.getLong("load.thinkTimeMillis", 0L)),
+            OperationMix.parse(System.getProperty("load.mix", OperationMix.DEFAULT_SPEC)),
+            parseAccounts(System.getProperty("load.accounts",
+                ApiConfig.VALID_USERNAME_ADMIN + ":" + ApiConfig.VALID_PASSWORD_ADMIN + ","
+                    + ApiConfig.VALID_USERNAME_USER + ":" + ApiConfig.VALID_PASSWORD_USER)),
+            Boolean.getBoolean("load.history"),
+            Double.parseDouble(System.getProperty("load.history.listSample", "0.01"))
+        );
+    }
+    
+    static List<LoginRequest> parseAccounts(String spec) {
+        List<LoginRequest> accounts = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            int colon = part.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Invalid account '" + part + "', expected username:password");
+            }
+            accounts.add(new LoginRequest(part.substring(0, colon).trim(), part.substring(colon + 1)));
+        }
+        return accounts;
+    }
+    
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+    
+    public int getUsers() {
+        return users;
+    }
+    
+    public Duration getDuration() {
+        return duration;
+    }
+    
+    public Duration getWarmup() {
+        return warmup;
+    }
+    
+    public Duration getRampUp() {
+        return rampUp;
+    }
+    
+    public Duration getThinkTime() {
+        return thinkTime;
+    }
+    
+    public OperationMix getMix() {
+        return mix;
+    }
+    
+    public List<LoginRequest> getAccounts() {
+        return accounts;
+    }
+    
+    public boolean isHistoryEnabled() {
+        return history;
+    }
+    
+    public double getHistoryListSample() {
+        return historyListSample;
+    }
+    
+    @Override
+    public String toString() {
+        return "baseUrl=" + baseUrl + ", users=" + users + ", duration=" + duration.getSeconds() + "s"
+            + ", warmup=" + warmup.getSeconds() + "s, rampUp=" + rampUp.getSeconds() + "s"
+            + ", thinkTime=" + thinkTime.toMillis() + "ms, mix=" + mix + ", accounts=" + accounts.size()
+            + (history ? ", history (lists sampled at " + historyListSample + ")" : "");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.seletest.load;
+
+import com.seletest.api.history.HistoryRecorder;
+import com.seletest.api.history.LinearizabilityChecker;
+
+import java.lang.reflect.Method;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the configured operation mix against the todo API from many
+ * concurrent virtual users and prints per-endpoint throughput and latency
+ * percentiles. Run with {@code ./mvnw compile exec:java -Dload.users=2000}.
+ */
+public class LoadGenerator {
+    
+    private final LoadConfig config;
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private LinearizabilityChecker.Result linearizability;
+    
+    public LoadGenerator(LoadConfig config) {
+        this.config = config;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats(operation));
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.fromSystemProperties();
+        System.out.println("Load run: " + config);
+        LoadGenerator generator = new LoadGenerator(config);
+        generator.run();
+        // Exit explicitly: an in-process API (-Dapi.server=embedded) keeps a non-daemon dispatcher thread
+        System.exit(generator.linearizability == null || generator.linearizability.passed() ? 0 : 1);
+    }
+    
+    public Map<Operation, EndpointStats> run() throws InterruptedException {
+        HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        TodoApiClient client = new TodoApiClient(http, config.getBaseUrl());
+        
+        long start = System.nanoTime();
+        long recordFrom = start + config.getWarmup().toNanos();
+        long deadline = start + config.getDuration().toNanos();
+        long rampStepNanos = config.getRampUp().toNanos() / config.getUsers();
+        
+        HistoryRecorder history = config.isHistoryEnabled() ? new HistoryRecorder(config.getHistoryListSample()) : null;
+        List<VirtualUser> users = new ArrayList<>(config.getUsers());
+        ExecutorService executor = newUserExecutor(config.getUsers());
+        try {
+            for (int i = 0; i < config.getUsers(); i++) {
+                int account = i % config.getAccounts().size();
+                VirtualUser user = new VirtualUser(i, client, config.getAccounts().get(account), config.getMix(), stats,
+                    recordFrom, deadline, config.getThinkTime().toMillis());
+                if (history != null) {
+                    user.withHistory(history, account);
+                }
+                users.add(user);
+                executor.execute(user);
+                if (rampStepNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(rampStepNanos);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        
+        if (!executor.awaitTermination(config.getDuration().toMillis() + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS)) {
+            System.err.println("Warning: Some virtual users did not finish in time");
+            executor.shutdownNow();
+        }
+        
+        LoadReport.print(System.out, stats, config.getDuration().minus(config.getWarmup()));
+        if (history != null) {
+            linearizability = new LinearizabilityChecker().check(history.history());
+            System.out.println(linearizability.passed() ? "INFO: " + linearizability.summary()
+                : "Warning: History is not linearizable. " + linearizability);
+        }
+        cleanUp(client, users);
+        return stats;
+    }
+    
+    private void cleanUp(TodoApiClient client, List<VirtualUser> users) {
+        int leftovers = 0;
+        for (VirtualUser user : users) {
+            if (user.getToken() == null) {
+                continue;
+            }
+            for (Integer id : user.getOwnTodoIds()) {
+                try {
+                    client.delete(user.getToken(), id);
+                    leftovers++;
+                } catch (Exception e) {
+                    // Best effort, the server keeps running either way
+                }
+            }
+        }
+        if (leftovers > 0) {
+            System.out.println("Deleted " + leftovers + " todos left over by virtual users");
+        }
+    }
+    
+    /**
+     * Virtual threads when the runtime has them (Java 21+), otherwise one
+     * platform thread per user. The module compiles for Java 11 like the other
+     * suites, so the virtual-thread factory is looked up reflectively.
+     */
+    static ExecutorService newUserExecutor(int users) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            System.out.println("INFO: Virtual threads unavailable on Java "
+                + System.getProperty("java.specification.version") + ", using " + users + " platform threads");
+            return Executors.newFixedThreadPool(users);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.seletest.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+public class LoadReport {
+    
+    private static final String ROW_FORMAT = "%-22s %10s %8s %10s %9s %9s %9s %9s %9s%n";
+    
+    public static void print(PrintStream out, Map<Operation, EndpointStats> stats, Duration measured) {
+        double seconds = Math.max(measured.toMillis(), 1) / 1000.0;
+        long totalRequests = 0;
+        long totalErrors = 0;
+        
+        out.println();
+        out.printf(Locale.ROOT, ROW_FORMAT, "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointStats endpoint : stats.values()) {
+            Histogram h = endpoint.getLatencies();
+            if (h.getTotalCount() == 0) {
+                continue;
+            }
+            totalRequests += h.getTotalCount();
+            totalErrors += endpoint.getErrors();
+            out.printf(Locale.ROOT, ROW_FORMAT,
+                endpoint.getOperation().label(),
+                h.getTotalCount(),
+                endpoint.getErrors(),
+                format(h.getTotalCount() / seconds),
+                millis(h.getValueAtPercentile(50)),
+                millis(h.getValueAtPercentile(90)),
+                millis(h.getValueAtPercentile(99)),
+                millis(h.getValueAtPercentile(99.9)),
+                millis(h.getMaxValue()));
+        }
+        out.printf(Locale.ROOT, "%nTotal: %d requests, %d errors, %s req/s over %.1f s%n",
+            totalRequests, totalErrors, format(totalRequests / seconds), seconds);
+    }
+    
+    private static String millis(long micros) {
+        return String.format(Locale.ROOT, "%.2f", micros / 1000.0);
+    }
+    
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+}
\ No newline at end of file
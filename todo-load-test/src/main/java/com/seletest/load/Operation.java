@@ -0,0 +1,30 @@
+package com.seletest.load;
+
+public enum Operation {
+    
+    LOGIN("POST", "/login"),
+    LIST("GET", "/items"),
+    CREATE("POST", "/items"),
+    UPDATE("PUT", "/items/{id}"),
+    DELETE("DELETE", "/items/{id}");
+    
+    private final String method;
+    private final String pathTemplate;
+    
+    Operation(String method, String pathTemplate) {
+        this.method = method;
+        this.pathTemplate = pathTemplate;
+    }
+    
+    public String getMethod() {
+        return method;
+    }
+    
+    public String getPathTemplate() {
+        return pathTemplate;
+    }
+    
+    public String label() {
+        return method + " " + pathTemplate;
+    }
+}
\ No newline at end of file
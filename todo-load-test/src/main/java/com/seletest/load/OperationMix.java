@@ -0,0 +1,78 @@
+package com.seletest.load;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Weighted choice of the next operation, parsed from a spec such as
+ * {@code login=5,list=50,create=20,update=15,delete=10}.
+ */
+public class OperationMix {
+    
+    public static final String DEFAULT_SPEC = "login=5,list=50,create=20,update=15,delete=10";
+    
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+    
+    private OperationMix(Map<Operation, Integer> weights) {
+        operations = new Operation[weights.size()];
+        cumulativeWeights = new int[weights.size()];
+        int running = 0;
+        int i = 0;
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            running += entry.getValue();
+            operations[i] = entry.getKey();
+            cumulativeWeights[i] = running;
+            i++;
+        }
+        totalWeight = running;
+    }
+    
+    public static OperationMix parse(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid operation mix entry: '" + part + "'");
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + pair[0]);
+            }
+            if (weight > 0) {
+                weights.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix has no positive weights: '" + spec + "'");
+        }
+        return new OperationMix(weights);
+    }
+    
+    public Operation next() {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        int previous = 0;
+        for (int i = 0; i < operations.length; i++) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(operations[i].name().toLowerCase(Locale.ROOT)).append('=').append(cumulativeWeights[i] - previous);
+            previous = cumulativeWeights[i];
+        }
+        return sb.toString();
+    }
+}
\ No newline at end of file
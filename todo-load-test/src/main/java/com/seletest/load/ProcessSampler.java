@@ -0,0 +1,105 @@
+package com.seletest.load;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Reads a process's resident memory and CPU time from /proc, so it only
+ * works on Linux and for processes visible from this one (not inside
+ * another container's pid namespace).
+ */
+public class ProcessSampler {
+    
+    private static final Path PROC = Paths.get("/proc");
+    
+    private final long pid;
+    private final long ticksPerSecond;
+    private long lastTicks = -1;
+    private long lastNanos;
+    
+    public ProcessSampler(long pid) {
+        this.pid = pid;
+        this.ticksPerSecond = clockTicks();
+    }
+    
+    /**
+     * The pid of the first process whose command line contains
+     * {@code match}, other than this one, or -1.
+     */
+    public static long find(String match) {
+        long self = ProcessHandle.current().pid();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(PROC, "[0-9]*")) {
+            for (Path entry : entries) {
+                long pid = Long.parseLong(entry.getFileName().toString());
+                if (pid == self) {
+                    continue;
+                }
+                try {
+                    String cmdline = new String(Files.readAllBytes(entry.resolve("cmdline")), StandardCharsets.UTF_8)
+                        .replace('\0', ' ');
+                    if (cmdline.contains(match)) {
+                        return pid;
+                    }
+                } catch (IOException e) {
+                    // Exited or not ours to read
+                }
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+        return -1;
+    }
+    
+    public long getPid() {
+        return pid;
+    }
+    
+    /**
+     * Resident set size in bytes, from VmRSS in /proc/[pid]/status.
+     */
+    public long rssBytes() throws IOException {
+        List<String> status = Files.readAllLines(PROC.resolve(Long.toString(pid)).resolve("status"));
+        for (String line : status) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+            }
+        }
+        throw new IOException("No VmRSS for pid " + pid);
+    }
+    
+    /**
+     * CPU used since the previous call, in percent of one core; NaN on the
+     * first call.
+     */
+    public double cpuPercent() throws IOException {
+        String stat = new String(Files.readAllBytes(PROC.resolve(Long.toString(pid)).resolve("stat")),
+            StandardCharsets.US_ASCII);
+        // The command name may contain spaces, so count fields after its closing parenthesis
+        String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+        long ticks = Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+        long now = System.nanoTime();
+        double percent = lastTicks < 0 ? Double.NaN
+            : 100.0 * (ticks - lastTicks) / ticksPerSecond / ((now - lastNanos) / 1e9);
+        lastTicks = ticks;
+        lastNanos = now;
+        return percent;
+    }
+    
+    private static long clockTicks() {
+        try {
+            Process getconf = new ProcessBuilder("getconf", "CLK_TCK").redirectErrorStream(true).start();
+            String out = new String(getconf.getInputStream().readAllBytes(), StandardCharsets.US_ASCII).trim();
+            return getconf.waitFor() == 0 ? Long.parseLong(out) : 100;
+        } catch (IOException | NumberFormatException e) {
+            return 100;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 100;
+        }
+    }
+}
\ No newline at end of file
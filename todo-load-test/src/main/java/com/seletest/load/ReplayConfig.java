@@ -0,0 +1,112 @@
+package com.seletest.load;
+
+import com.seletest.api.utils.ApiConfig;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Replay settings, read from {@code -Dreplay.*} system properties like
+ * {@link LoadConfig}. A speed of 0 means as fast as the target answers.
+ */
+public class ReplayConfig {
+    
+    private final Path log;
+    private final String baseUrl;
+    private final double speed;
+    private final Duration maxGap;
+    private final Set<String> ignoredFields;
+    private final int maxExamples;
+    private final boolean failOnDivergence;
+    
+    public ReplayConfig(Path log, String baseUrl, double speed, Duration maxGap, Set<String> ignoredFields,
+                        int maxExamples, boolean failOnDivergence) {
+        if (speed < 0) {
+            throw new IllegalArgumentException("replay.speed must be a positive multiplier or 'max'");
+        }
+        this.log = log;
+        this.baseUrl = baseUrl;
+        this.speed = speed;
+        this.maxGap = maxGap;
+        this.ignoredFields = ignoredFields;
+        this.maxExamples = maxExamples;
+        this.failOnDivergence = failOnDivergence;
+    }
+    
+    public static ReplayConfig fromSystemProperties() {
+        return new ReplayConfig(
+            Paths.get(System.getProperty("replay.log", "../todo-api-test/target/traffic.bin")),
+            System.getProperty("replay.baseUrl", ApiConfig.BASE_URL),
+            parseSpeed(System.getProperty("replay.speed", "1")),
+            Duration.ofMillis(Long.getLong("replay.maxGapMillis", 1000L)),
+            new LinkedHashSet<>(Arrays.asList(
+                System.getProperty("replay.ignoreFields", "token,createdAt,updatedAt,timestamp").split(","))),
+            Integer.getInteger("replay.maxExamples", 10),
+            Boolean.parseBoolean(System.getProperty("replay.failOnDivergence", "true"))
+        );
+    }
+    
+    // "1" for recorded pace, "4" or "4x" for four times faster, "max" for no waits
+    static double parseSpeed(String value) {
+        String speed = value.trim().toLowerCase();
+        if (speed.equals("max")) {
+            return 0;
+        }
+        double multiplier = Double.parseDouble(speed.endsWith("x") ? speed.substring(0, speed.length() - 1) : speed);
+        if (multiplier <= 0) {
+            throw new IllegalArgumentException("replay.speed must be a positive multiplier or 'max'");
+        }
+        return multiplier;
+    }
+    
+    public Path getLog() {
+        return log;
+    }
+    
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+    
+    public double getSpeed() {
+        return speed;
+    }
+    
+    public boolean isMaxSpeed() {
+        return speed == 0;
+    }
+    
+    /**
+     * The longest pause between recorded requests that is kept; longer idle
+     * stretches (a test suite's setup, a slow test) are cut to this before
+     * the speed is applied.
+     */
+    public Duration getMaxGap() {
+        return maxGap;
+    }
+    
+    /**
+     * Response fields that differ between runs by nature and are left out
+     * when comparing bodies.
+     */
+    public Set<String> getIgnoredFields() {
+        return ignoredFields;
+    }
+    
+    public int getMaxExamples() {
+        return maxExamples;
+    }
+    
+    public boolean isFailOnDivergence() {
+        return failOnDivergence;
+    }
+    
+    @Override
+    public String toString() {
+        return "log=" + log + ", baseUrl=" + baseUrl + ", speed=" + (isMaxSpeed() ? "max" : speed + "x")
+            + ", maxGap=" + maxGap.toMillis() + "ms, ignoreFields=" + ignoredFields;
+    }
+}
\ No newline at end of file
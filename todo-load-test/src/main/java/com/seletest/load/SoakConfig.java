@@ -0,0 +1,143 @@
+package com.seletest.load;
+
+import com.seletest.api.models.LoginRequest;
+import com.seletest.api.utils.ApiConfig;
+
+import java.time.Duration;
+
+/**
+ * Soak run settings, read from {@code -Dsoak.*} system properties like
+ * {@link LoadConfig}. Growth limits are percent per hour over the median of
+ * the first samples after warm-up.
+ */
+public class SoakConfig {
+    
+    private final String baseUrl;
+    private final Duration duration;
+    private final Duration warmup;
+    private final Duration minTrendWindow;
+    private final Duration sampleInterval;
+    private final Duration healthProbeInterval;
+    private final int workers;
+    private final double churnPerSecond;
+    private final LoginRequest account;
+    private final long pid;
+    private final String processMatch;
+    private final double maxRssGrowthPerHour;
+    private final double maxLatencyGrowthPerHour;
+    
+    public SoakConfig(String baseUrl, Duration duration, Duration warmup, Duration minTrendWindow, Duration sampleInterval,
+                      Duration healthProbeInterval, int workers, double churnPerSecond, LoginRequest account,
+                      long pid, String processMatch, double maxRssGrowthPerHour, double maxLatencyGrowthPerHour) {
+        if (!warmup.minus(duration).isNegative()) {
+            throw new IllegalArgumentException("soak.warmupMinutes must be shorter than soak.durationMinutes");
+        }
+        if (workers < 1 || churnPerSecond <= 0) {
+            throw new IllegalArgumentException("soak.workers and soak.churnPerSecond must be positive");
+        }
+        this.baseUrl = baseUrl;
+        this.duration = duration;
+        this.warmup = warmup;
+        this.minTrendWindow = minTrendWindow;
+        this.sampleInterval = sampleInterval;
+        this.healthProbeInterval = healthProbeInterval;
+        this.workers = workers;
+        this.churnPerSecond = churnPerSecond;
+        this.account = account;
+        this.pid = pid;
+        this.processMatch = processMatch;
+        this.maxRssGrowthPerHour = maxRssGrowthPerHour;
+        this.maxLatencyGrowthPerHour = maxLatencyGrowthPerHour;
+    }
+    
+    public static SoakConfig fromSystemProperties() {
+        return new SoakConfig(
+            System.getProperty("soak.baseUrl", ApiConfig.BASE_URL),
+            minutes(System.getProperty("soak.durationMinutes", "120")),
+            minutes(System.getProperty("soak.warmupMinutes", "10")),
+            minutes(System.getProperty("soak.minTrendMinutes", "30")),
+            Duration.ofSeconds(Long.getLong("soak.sampleSeconds", 10L)),
+            Duration.ofMillis(Long.getLong("soak.healthProbeMillis", 500L)),
+            Integer.getInteger("soak.workers", 4),
+            Double.parseDouble(System.getProperty("soak.churnPerSecond", "50")),
+            LoadConfig.parseAccounts(System.getProperty("soak.account",
+                ApiConfig.VALID_USERNAME_ADMIN + ":" + ApiConfig.VALID_PASSWORD_ADMIN)).get(0),
+            Long.getLong("soak.pid", -1L),
+            System.getProperty("soak.processMatch", "server.js"),
+            Double.parseDouble(System.getProperty("soak.maxRssGrowthPerHour", "5")),
+            Double.parseDouble(System.getProperty("soak.maxLatencyGrowthPerHour", "25"))
+        );
+    }
+    
+    // Fractions allowed, e.g. 0.5 for a quick trial run
+    private static Duration minutes(String value) {
+        return Duration.ofMillis((long) (Double.parseDouble(value) * 60_000));
+    }
+    
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+    
+    public Duration getDuration() {
+        return duration;
+    }
+    
+    public Duration getWarmup() {
+        return warmup;
+    }
+    
+    /**
+     * The shortest stretch after warm-up that a trend may fail the run on;
+     * a few minutes of JVM or V8 heap growth would otherwise extrapolate to
+     * an alarming hourly rate.
+     */
+    public Duration getMinTrendWindow() {
+        return minTrendWindow;
+    }
+    
+    public Duration getSampleInterval() {
+        return sampleInterval;
+    }
+    
+    public Duration getHealthProbeInterval() {
+        return healthProbeInterval;
+    }
+    
+    public int getWorkers() {
+        return workers;
+    }
+    
+    public double getChurnPerSecond() {
+        return churnPerSecond;
+    }
+    
+    public LoginRequest getAccount() {
+        return account;
+    }
+    
+    /**
+     * The server's pid from {@code soak.pid}, or -1 to look it up.
+     */
+    public long getPid() {
+        return pid;
+    }
+    
+    public String getProcessMatch() {
+        return processMatch;
+    }
+    
+    public double getMaxRssGrowthPerHour() {
+        return maxRssGrowthPerHour;
+    }
+    
+    public double getMaxLatencyGrowthPerHour() {
+        return maxLatencyGrowthPerHour;
+    }
+    
+    @Override
+    public String toString() {
+        return "baseUrl=" + baseUrl + ", duration=" + duration.toMinutes() + "m, warmup=" + warmup.toMinutes() + "m"
+            + ", sample=" + sampleInterval.getSeconds() + "s, churn=" + churnPerSecond + "/s on " + workers + " workers"
+            + ", maxRssGrowth=" + maxRssGrowthPerHour + "%/h, maxLatencyGrowth=" + maxLatencyGrowthPerHour + "%/h";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,354 @@
+package com.seletest.load;
+
+import com.seletest.api.models.TodoItem;
+import com.seletest.api.utils.ApiConfig;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Runs a steady create/delete churn against the todo API for hours while
+ * sampling the server's RSS and CPU from /proc and the latency of /health.
+ * Samples taken after warm-up are checked for a sustained upward trend
+ * (see {@link Trend}); the run exits with status 1 if memory or latency
+ * keeps growing. Run with {@code ./mvnw compile exec:java -Dsoak}.
+ */
+public class SoakRunner {
+    
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int MIN_SAMPLES = 10;
+    
+    private final SoakConfig config;
+    private final TodoApiClient client;
+    private final Recorder health = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Recorder churn = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder cycles = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final ConcurrentLinkedQueue<Integer> leftovers = new ConcurrentLinkedQueue<>();
+    private final List<Sample> samples = new ArrayList<>();
+    private volatile String token;
+    
+    public SoakRunner(SoakConfig config) {
+        this.config = config;
+        HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        this.client = new TodoApiClient(http, config.getBaseUrl());
+    }
+    
+    public static void main(String[] args) throws Exception {
+        SoakConfig config = SoakConfig.fromSystemProperties();
+        System.out.println("Soak run: " + config);
+        boolean passed = new SoakRunner(config).run();
+        // Exit explicitly: an in-process API (-Dapi.server=embedded) keeps a non-daemon dispatcher thread
+        System.exit(passed ? 0 : 1);
+    }
+    
+    public boolean run() throws InterruptedException {
+        ProcessSampler process = findServer();
+        
+        long start = System.nanoTime();
+        long deadline = start + config.getDuration().toNanos();
+        ScheduledExecutorService timers = Executors.newScheduledThreadPool(2);
+        ExecutorService workers = Executors.newFixedThreadPool(config.getWorkers());
+        try {
+            timers.scheduleAtFixedRate(this::probeHealth, 0,
+                config.getHealthProbeInterval().toMillis(), TimeUnit.MILLISECONDS);
+            timers.scheduleAtFixedRate(() -> sample(process, start), config.getSampleInterval().toMillis(),
+                config.getSampleInterval().toMillis(), TimeUnit.MILLISECONDS);
+            AtomicLong nextSlot = new AtomicLong(System.nanoTime());
+            long slotNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.getChurnPerSecond());
+            for (int i = 0; i < config.getWorkers(); i++) {
+                workers.execute(() -> churn(nextSlot, slotNanos, deadline));
+            }
+            workers.shutdown();
+            workers.awaitTermination(config.getDuration().toMillis() + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS);
+        } finally {
+            workers.shutdownNow();
+            timers.shutdownNow();
+            timers.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        
+        cleanUp();
+        writeCsv();
+        return verdict(process != null);
+    }
+    
+    private ProcessSampler findServer() {
+        long pid = config.getPid();
+        if (pid < 0 && "embedded".equalsIgnoreCase(ApiConfig.API_SERVER)
+                && config.getBaseUrl().equals(ApiConfig.BASE_URL)) {
+            pid = ProcessHandle.current().pid();
+        }
+        if (pid < 0) {
+            pid = ProcessSampler.find(config.getProcessMatch());
+        }
+        ProcessSampler sampler = pid < 0 ? null : new ProcessSampler(pid);
+        try {
+            if (sampler != null) {
+                sampler.rssBytes();
+                sampler.cpuPercent();
+                System.out.println("INFO: Sampling server process " + pid);
+                return sampler;
+            }
+        } catch (IOException | RuntimeException e) {
+            // Fall through to the warning
+        }
+        System.out.println("Warning: No server process found (set -Dsoak.pid or -Dsoak.processMatch);"
+            + " only /health latency will be checked");
+        return null;
+    }
+    
+    private void churn(AtomicLong nextSlot, long slotNanos, long deadline) {
+        int sequence = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            long slot = nextSlot.getAndAdd(slotNanos);
+            long now = System.nanoTime();
+            if (slot < now - TimeUnit.SECONDS.toNanos(1)) {
+                // Fell behind (slow server or a pause): drop the backlog rather than burst to catch up
+                nextSlot.set(now);
+                slot = now;
+            }
+            if (slot >= deadline) {
+                return;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(slot - now);
+                long started = System.nanoTime();
+                if (cycle(Thread.currentThread().getId() + "-" + (++sequence))) {
+                    churn.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS,
+                        Math.max(1, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started))));
+                } else {
+                    errors.increment();
+                }
+                cycles.increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                errors.increment();
+            }
+        }
+    }
+    
+    /**
+     * Creates one todo and deletes it again; false if either call failed.
+     */
+    private boolean cycle(String label) throws IOException, InterruptedException {
+        String current = token();
+        HttpResponse<String> created = client.create(current, new TodoItem("soak " + label));
+        if (created.statusCode() == 401 || created.statusCode() == 403) {
+            token = null;
+            return false;
+        }
+        Integer id = created.statusCode() == 201 ? TodoApiClient.readId(created) : null;
+        if (id == null) {
+            return false;
+        }
+        HttpResponse<String> deleted = client.delete(current, id);
+        if (deleted.statusCode() != 204) {
+            leftovers.add(id);
+            return false;
+        }
+        return true;
+    }
+    
+    private synchronized String token() throws IOException, InterruptedException {
+        if (token == null) {
+            HttpResponse<String> login = client.login(config.getAccount());
+            if (login.statusCode() != 200) {
+                throw new IOException("Could not log in as " + config.getAccount().getUsername() + ": " + login.statusCode());
+            }
+            token = TodoApiClient.readToken(login);
+        }
+        return token;
+    }
+    
+    private void probeHealth() {
+        long started = System.nanoTime();
+        try {
+            if (client.health().statusCode() == 200) {
+                health.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS,
+                    Math.max(1, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started))));
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            // Counted below
+        }
+        errors.increment();
+    }
+    
+    private void sample(ProcessSampler process, long start) {
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        long rss = -1;
+        double cpu = Double.NaN;
+        if (process != null) {
+            try {
+                rss = process.rssBytes();
+                cpu = process.cpuPercent();
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Warning: Could not read /proc for pid " + process.getPid() + ": " + e.getMessage());
+            }
+        }
+        Histogram healthInterval = health.getIntervalHistogram();
+        Histogram churnInterval = churn.getIntervalHistogram();
+        Sample sample = new Sample(elapsed, rss, cpu,
+            healthInterval.getTotalCount() == 0 ? Double.NaN : healthInterval.getValueAtPercentile(50) / 1000.0,
+            healthInterval.getTotalCount() == 0 ? Double.NaN : healthInterval.getValueAtPercentile(99) / 1000.0,
+            churnInterval.getTotalCount() == 0 ? Double.NaN : churnInterval.getValueAtPercentile(50) / 1000.0,
+            churnInterval.getTotalCount() * 1000.0 / config.getSampleInterval().toMillis(),
+            errors.sum());
+        synchronized (samples) {
+            samples.add(sample);
+        }
+        System.out.println(sample.format(elapsed < config.getWarmup().getSeconds()));
+    }
+    
+    private void cleanUp() {
+        int deleted = 0;
+        for (Integer id : leftovers) {
+            try {
+                if (client.delete(token(), id).statusCode() == 204) {
+                    deleted++;
+                }
+            } catch (Exception e) {
+                // Best effort, the server keeps running either way
+            }
+        }
+        if (deleted > 0) {
+            System.out.println("Deleted " + deleted + " todos left over by failed churn cycles");
+        }
+    }
+    
+    private void writeCsv() {
+        Path csv = Paths.get(System.getProperty("soak.csv", "target/soak-samples.csv"));
+        try {
+            if (csv.getParent() != null) {
+                Files.createDirectories(csv.getParent());
+            }
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv))) {
+                out.println("seconds,rss_bytes,cpu_percent,health_p50_ms,health_p99_ms,churn_p50_ms,churn_per_second,errors");
+                synchronized (samples) {
+                    for (Sample sample : samples) {
+                        out.println(sample.csv());
+                    }
+                }
+            }
+            System.out.println("INFO: Samples written to " + csv.toAbsolutePath());
+        } catch (IOException e) {
+            System.out.println("Warning: Could not write " + csv + ": " + e.getMessage());
+        }
+    }
+    
+    private boolean verdict(boolean sampledProcess) {
+        List<Sample> measured = new ArrayList<>();
+        synchronized (samples) {
+            for (Sample sample : samples) {
+                if (sample.seconds >= config.getWarmup().getSeconds()) {
+                    measured.add(sample);
+                }
+            }
+        }
+        System.out.printf(Locale.ROOT, "%nTotal: %d churn cycles, %d errors, %d samples after warm-up%n",
+            cycles.sum(), errors.sum(), measured.size());
+        if (measured.size() < MIN_SAMPLES) {
+            System.out.println("Warning: Fewer than " + MIN_SAMPLES + " samples after warm-up, no trend checked;"
+                + " run longer or sample more often");
+            return true;
+        }
+        boolean passed = true;
+        if (sampledProcess) {
+            passed &= check("Server RSS", measured, sample -> sample.rss, config.getMaxRssGrowthPerHour());
+        }
+        passed &= check("/health p50", measured, sample -> sample.healthP50Millis, config.getMaxLatencyGrowthPerHour());
+        double window = measured.get(measured.size() - 1).seconds - measured.get(0).seconds;
+        if (!passed && window < config.getMinTrendWindow().getSeconds()) {
+            System.out.printf(Locale.ROOT, "Warning: Growth seen over only %.0f s after warm-up, below soak.minTrendMinutes;"
+                + " not failing the run%n", window);
+            return true;
+        }
+        System.out.println(passed ? "INFO: No sustained growth after warm-up" : "Warning: Sustained growth after warm-up");
+        return passed;
+    }
+    
+    private static boolean check(String name, List<Sample> measured, ToDoubleFunction<Sample> metric, double maxPercentPerHour) {
+        List<double[]> points = new ArrayList<>();
+        for (Sample sample : measured) {
+            double value = metric.applyAsDouble(sample);
+            if (value >= 0) {
+                points.add(new double[] {sample.seconds, value});
+            }
+        }
+        double[] seconds = points.stream().mapToDouble(point -> point[0]).toArray();
+        double[] values = points.stream().mapToDouble(point -> point[1]).toArray();
+        if (values.length < MIN_SAMPLES) {
+            System.out.println("Warning: Too few " + name + " samples to check a trend");
+            return true;
+        }
+        Trend trend = Trend.of(seconds, values);
+        boolean exceeded = trend.exceeds(maxPercentPerHour);
+        System.out.printf(Locale.ROOT, "%-12s %+8.2f %%/h (limit %.1f), Mann-Kendall z %.2f over %d points: %s%n",
+            name, trend.growthPercentPerHour(), maxPercentPerHour, trend.getZ(), trend.getPoints(),
+            exceeded ? "GROWING" : "ok");
+        return !exceeded;
+    }
+    
+    private static final class Sample {
+        final double seconds;
+        final long rss;
+        final double cpuPercent;
+        final double healthP50Millis;
+        final double healthP99Millis;
+        final double churnP50Millis;
+        final double churnPerSecond;
+        final long errors;
+        
+        Sample(double seconds, long rss, double cpuPercent, double healthP50Millis, double healthP99Millis,
+               double churnP50Millis, double churnPerSecond, long errors) {
+            this.seconds = seconds;
+            this.rss = rss;
+            this.cpuPercent = cpuPercent;
+            this.healthP50Millis = healthP50Millis;
+            this.healthP99Millis = healthP99Millis;
+            this.churnP50Millis = churnP50Millis;
+            this.churnPerSecond = churnPerSecond;
+            this.errors = errors;
+        }
+        
+        String format(boolean warmingUp) {
+            long whole = (long) seconds;
+            return String.format(Locale.ROOT,
+                "[%3dh%02dm%02ds]%s rss %s  cpu %5.1f%%  /health p50 %6.2f ms p99 %6.2f ms  churn %5.1f/s p50 %6.2f ms  errors %d",
+                whole / 3600, whole / 60 % 60, whole % 60, warmingUp ? " warm-up" : "",
+                rss < 0 ? "     n/a" : String.format(Locale.ROOT, "%6.1f MB", rss / 1048576.0),
+                cpuPercent, healthP50Millis, healthP99Millis, churnPerSecond, churnP50Millis, errors);
+        }
+        
+        String csv() {
+            return String.format(Locale.ROOT, "%.1f,%d,%.2f,%.3f,%.3f,%.3f,%.1f,%d", seconds, rss, cpuPercent,
+                healthP50Millis, healthP99Millis, churnP50Millis, churnPerSecond, errors);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.seletest.load;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seletest.api.models.LoginRequest;
+import com.seletest.api.models.TodoItem;
+import com.seletest.api.utils.ApiConfig;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Blocking JDK HTTP client for the todo API. Calls are synchronous on
+ * purpose: each virtual user is its own thread, so blocking is cheap.
+ */
+public class TodoApiClient {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final TypeReference<List<TodoItem>> ITEMS = new TypeReference<List<TodoItem>>() {};
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    
+    private final HttpClient http;
+    private final String baseUrl;
+    
+    public TodoApiClient(HttpClient http, String baseUrl) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+    }
+    
+    public HttpResponse<String> login(LoginRequest account) throws IOException, InterruptedException {
+        return send(json("POST", ApiConfig.LOGIN_ENDPOINT, null, account));
+    }
+    
+    public HttpResponse<String> list(String token) throws IOException, InterruptedException {
+        return send(request(ApiConfig.ITEMS_ENDPOINT, token).GET().build());
+    }
+    
+    public HttpResponse<String> create(String token, TodoItem todo) throws IOException, InterruptedException {
+        return send(json("POST", ApiConfig.ITEMS_ENDPOINT, token, todo));
+    }
+    
+    public HttpResponse<String> update(String token, int id, TodoItem todo) throws IOException, InterruptedException {
+        return send(json("PUT", ApiConfig.ITEMS_ENDPOINT + "/" + id, token, todo));
+    }
+    
+    public HttpResponse<String> delete(String token, int id) throws IOException, InterruptedException {
+        return send(request(ApiConfig.ITEMS_ENDPOINT + "/" + id, token).DELETE().build());
+    }
+    
+    public HttpResponse<String> health() throws IOException, InterruptedException {
+        return send(request(ApiConfig.HEALTH_ENDPOINT, null).GET().build());
+    }
+    
+    public static String readToken(HttpResponse<String> response) throws IOException {
+        return MAPPER.readTree(response.body()).path("token").asText(null);
+    }
+    
+    public static Integer readId(HttpResponse<String> response) throws IOException {
+        JsonNode id = MAPPER.readTree(response.body()).get("id");
+        return id != null && id.canConvertToInt() ? id.asInt() : null;
+    }
+    
+    public static TodoItem readItem(HttpResponse<String> response) throws IOException {
+        return MAPPER.readValue(response.body(), TodoItem.class);
+    }
+    
+    public static List<TodoItem> readItems(HttpResponse<String> response) throws IOException {
+        return MAPPER.readValue(response.body(), ITEMS);
+    }
+    
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+    
+    private HttpRequest json(String method, String path, String token, Object body) throws IOException {
+        return request(path, token)
+            .header("Content-Type", ApiConfig.CONTENT_TYPE_JSON)
+            .method(method, HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body)))
+            .build();
+    }
+    
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+        if (token != null) {
+            builder.header(ApiConfig.AUTHORIZATION_HEADER, ApiConfig.BEARER_PREFIX + token);
+        }
+        return builder;
+    }
+}
\ No newline at end of file
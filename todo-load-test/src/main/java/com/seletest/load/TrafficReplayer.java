@@ -0,0 +1,401 @@
+package com.seletest.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.seletest.api.replay.Exchange;
+import com.seletest.api.replay.TrafficLogReader;
+import com.seletest.api.utils.ApiConfig;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends a traffic log recorded with {@code -Dapi.record} (see
+ * TrafficRecordingFilter in todo-api-test) to a target at the recorded
+ * pace, N times faster, or as fast as it answers. Each recorded thread is
+ * replayed in order on its own thread. Tokens from recorded logins and ids
+ * from recorded responses are mapped to the ones the target hands out, and
+ * requests are rewritten with them on the fly. Every response is compared
+ * with the recorded one; the run reports how many diverged, with examples,
+ * and the latency change per endpoint. Run with
+ * {@code ./mvnw compile exec:java -Dreplay}.
+ */
+public class TrafficReplayer {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int MAX_BODY_CHARS = 300;
+    // Set by the JDK client itself
+    private static final Set<String> RESTRICTED_HEADERS =
+        Set.of("connection", "content-length", "expect", "host", "upgrade");
+        
+    private final ReplayConfig config;
+    private final HttpClient http;
+    private final Map<Long, Long> ids = new ConcurrentHashMap<>();
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> recordedLatency = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> replayedLatency = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> divergedByEndpoint = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> examples = new ConcurrentLinkedQueue<>();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder diverged = new LongAdder();
+    private final AtomicLong maxLagMicros = new AtomicLong();
+    
+    public TrafficReplayer(ReplayConfig config) {
+        this.config = config;
+        this.http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    }
+    
+    public static void main(String[] args) throws Exception {
+        ReplayConfig config = ReplayConfig.fromSystemProperties();
+        System.out.println("Replay: " + config);
+        TrafficReplayer replayer = new TrafficReplayer(config);
+        boolean passed = replayer.run(TrafficLogReader.readAll(config.getLog()));
+        // Exit explicitly: an in-process API (-Dapi.server=embedded) keeps a non-daemon dispatcher thread
+        System.exit(passed || !config.isFailOnDivergence() ? 0 : 1);
+    }
+    
+    /**
+     * Replays the exchanges and prints the report; false if any response
+     * diverged from its recording.
+     */
+    public boolean run(List<Exchange> exchanges) throws InterruptedException {
+        if (exchanges.isEmpty()) {
+            System.out.println("Warning: " + config.getLog() + " has no exchanges to replay");
+            return true;
+        }
+        
+        // Offsets on the recorded timeline, with idle gaps cut to maxGap
+        List<Exchange> sorted = new ArrayList<>(exchanges);
+        sorted.sort((a, b) -> Long.compare(a.getStartEpochMicros(), b.getStartEpochMicros()));
+        long maxGap = TimeUnit.MILLISECONDS.toMicros(config.getMaxGap().toMillis());
+        Map<Long, List<Scheduled>> byClient = new LinkedHashMap<>();
+        long offset = 0;
+        for (int i = 0; i < sorted.size(); i++) {
+            Exchange exchange = sorted.get(i);
+            if (i > 0) {
+                offset += Math.min(exchange.getStartEpochMicros() - sorted.get(i - 1).getStartEpochMicros(), maxGap);
+            }
+            byClient.computeIfAbsent(exchange.getClient(), k -> new ArrayList<>()).add(new Scheduled(exchange, offset));
+        }
+        System.out.println("INFO: Replaying " + sorted.size() + " exchanges from " + byClient.size() + " clients"
+            + " (" + offset / 1000 + " ms recorded, idle gaps cut to " + config.getMaxGap().toMillis() + " ms)");
+            
+        long start = System.nanoTime();
+        ExecutorService clients = Executors.newFixedThreadPool(byClient.size());
+        try {
+            for (List<Scheduled> client : byClient.values()) {
+                clients.execute(() -> replay(client, start));
+            }
+            clients.shutdown();
+            clients.awaitTermination(1, TimeUnit.DAYS);
+        } finally {
+            clients.shutdownNow();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        report(offset / 1000, elapsedMillis);
+        return diverged.sum() == 0;
+    }
+    
+    private void replay(List<Scheduled> client, long start) {
+        for (Scheduled scheduled : client) {
+            if (!config.isMaxSpeed()) {
+                long due = start + (long) (TimeUnit.MICROSECONDS.toNanos(scheduled.offsetMicros) / config.getSpeed());
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                } else {
+                    maxLagMicros.accumulateAndGet(TimeUnit.NANOSECONDS.toMicros(-wait), Math::max);
+                }
+            }
+            if (!send(scheduled.exchange)) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Sends one recorded request and checks its response; false if the
+     * thread was interrupted.
+     */
+    private boolean send(Exchange recorded) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(config.getBaseUrl() + recorded.path(this::liveId)))
+            .timeout(REQUEST_TIMEOUT);
+        for (Map.Entry<String, String> header : recorded.getRequestHeaders()) {
+            if (!RESTRICTED_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+                request.header(header.getKey(), rewriteHeader(header.getKey(), header.getValue()));
+            }
+        }
+        byte[] body = rewriteBody(recorded.getRequestBody());
+        request.method(recorded.getMethod(), body.length == 0
+            ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(body));
+            
+        int status = 0;
+        byte[] responseBody = new byte[0];
+        long begin = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            status = response.statusCode();
+            responseBody = response.body();
+        } catch (IOException e) {
+            // Compared below as "no response"
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - begin);
+        
+        sent.increment();
+        String endpoint = recorded.endpoint();
+        histogram(recordedLatency, endpoint).recordValue(clamp(recorded.getDurationMicros()));
+        histogram(replayedLatency, endpoint).recordValue(clamp(micros));
+        compare(recorded, status, responseBody);
+        return true;
+    }
+    
+    private void compare(Exchange recorded, int status, byte[] body) {
+        JsonNode expected = parse(recorded.getResponseBody());
+        JsonNode actual = parse(body);
+        if (recorded.getStatus() / 100 == 2 && status / 100 == 2 && expected != null && actual != null) {
+            learn(expected, actual, recorded.getMethod().equals("POST"));
+        }
+        
+        boolean same;
+        if (status != recorded.getStatus()) {
+            same = false;
+        } else if (expected != null && actual != null) {
+            same = normalize(expected, true).equals(normalize(actual, false));
+        } else {
+            same = Arrays.equals(recorded.getResponseBody(), body);
+        }
+        if (same) {
+            return;
+        }
+        
+        diverged.increment();
+        divergedByEndpoint.computeIfAbsent(recorded.endpoint(), k -> new LongAdder()).increment();
+        if (examples.size() < config.getMaxExamples()) {
+            examples.add(recorded.getMethod() + " " + recorded.path(this::liveId) + "\n"
+                + "      recorded: " + describe(recorded.getStatus(), recorded.getResponseBody()) + "\n"
+                + "      replayed: " + describe(status, body));
+        }
+    }
+    
+    /**
+     * Pairs the todo ids and the token in a recorded response with the ones
+     * in the live response: the top-level object's, or each list element's
+     * by position. Nested ids (a login's user) are a different namespace and
+     * are left alone. A recorded id keeps the first live id it was paired
+     * with, unless a create hands it out again (the server was reset).
+     */
+    private void learn(JsonNode recorded, JsonNode live, boolean created) {
+        if (recorded.isArray() && live.isArray()) {
+            for (int i = 0; i < Math.min(recorded.size(), live.size()); i++) {
+                learn(recorded.get(i), live.get(i), false);
+            }
+            return;
+        }
+        JsonNode recordedId = recorded.get("id");
+        JsonNode liveId = live.get("id");
+        if (recordedId != null && liveId != null && recordedId.canConvertToLong() && liveId.canConvertToLong()) {
+            if (created) {
+                ids.put(recordedId.asLong(), liveId.asLong());
+            } else {
+                ids.putIfAbsent(recordedId.asLong(), liveId.asLong());
+            }
+        }
+        JsonNode recordedToken = recorded.get("token");
+        JsonNode liveToken = live.get("token");
+        if (recordedToken != null && liveToken != null && recordedToken.isTextual() && liveToken.isTextual()) {
+            tokens.put(recordedToken.asText(), liveToken.asText());
+        }
+    }
+    
+    /**
+     * A copy without the ignored fields, with recorded todo ids translated
+     * to live ones. A recorded list in id order is put back in id order
+     * after the translation: lists come in creation order, and creates that
+     * overlapped (DataSeeder sends many at once) can reach the target in a
+     * different order than they reached the recorded server.
+     */
+    private JsonNode normalize(JsonNode node, boolean recorded) {
+        if (node.isArray()) {
+            List<JsonNode> elements = new ArrayList<>();
+            node.forEach(element -> elements.add(normalize(element, recorded)));
+            if (recorded && inIdOrder(node)) {
+                elements.sort(Comparator.comparingLong(element -> element.get("id").asLong()));
+            }
+            return MAPPER.createArrayNode().addAll(elements);
+        }
+        JsonNode copy = strip(node);
+        JsonNode id = copy.get("id");
+        if (id != null && id.canConvertToLong()) {
+            ((ObjectNode) copy).put("id", recorded ? liveId(id.asLong()) : id.asLong());
+        }
+        return copy;
+    }
+    
+    private static boolean inIdOrder(JsonNode list) {
+        long previous = Long.MIN_VALUE;
+        for (JsonNode element : list) {
+            JsonNode id = element.get("id");
+            if (id == null || !id.canConvertToLong() || id.asLong() < previous) {
+                return false;
+            }
+            previous = id.asLong();
+        }
+        return true;
+    }
+    
+    private JsonNode strip(JsonNode node) {
+        if (node.isObject()) {
+            ObjectNode copy = MAPPER.createObjectNode();
+            node.fields().forEachRemaining(field -> {
+                if (!config.getIgnoredFields().contains(field.getKey())) {
+                    copy.set(field.getKey(), strip(field.getValue()));
+                }
+            });
+            return copy;
+        }
+        if (node.isArray()) {
+            ArrayNode copy = MAPPER.createArrayNode();
+            node.forEach(element -> copy.add(strip(element)));
+            return copy;
+        }
+        return node;
+    }
+    
+    private long liveId(long recordedId) {
+        return ids.getOrDefault(recordedId, recordedId);
+    }
+    
+    private String rewriteHeader(String name, String value) {
+        if (name.equalsIgnoreCase(ApiConfig.AUTHORIZATION_HEADER) && value.startsWith(ApiConfig.BEARER_PREFIX)) {
+            String token = value.substring(ApiConfig.BEARER_PREFIX.length());
+            return ApiConfig.BEARER_PREFIX + tokens.getOrDefault(token, token);
+        }
+        return value;
+    }
+    
+    // Only bodies that carry an id are re-serialized; the rest (including deliberately broken JSON) go out as recorded
+    private byte[] rewriteBody(byte[] body) {
+        JsonNode json = parse(body);
+        if (json == null || !json.isObject() || !json.has("id") || !json.get("id").canConvertToLong()) {
+            return body;
+        }
+        ((ObjectNode) json).put("id", liveId(json.get("id").asLong()));
+        try {
+            return MAPPER.writeValueAsBytes(json);
+        } catch (IOException e) {
+            return body;
+        }
+    }
+    
+    private static JsonNode parse(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            return MAPPER.readTree(body);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    private static String describe(int status, byte[] body) {
+        String text = new String(body, StandardCharsets.UTF_8);
+        if (text.length() > MAX_BODY_CHARS) {
+            text = text.substring(0, MAX_BODY_CHARS) + "...";
+        }
+        return (status == 0 ? "no response" : Integer.toString(status)) + (text.isEmpty() ? "" : " " + text);
+    }
+    
+    private void report(long recordedMillis, long elapsedMillis) {
+        System.out.printf(Locale.ROOT, "%nReplayed %d exchanges in %d ms (recorded %d ms after gap cuts, %.2fx)%n",
+            sent.sum(), elapsedMillis, recordedMillis, elapsedMillis == 0 ? 0 : (double) recordedMillis / elapsedMillis);
+        if (!config.isMaxSpeed() && maxLagMicros.get() > TimeUnit.MILLISECONDS.toMicros(100)) {
+            System.out.println("Warning: Fell behind the requested pace by up to " + maxLagMicros.get() / 1000
+                + " ms; the target or this machine couldn't keep up");
+        }
+        
+        System.out.printf(Locale.ROOT, "%-24s %7s %8s %14s %14s %14s%n",
+            "Endpoint", "Count", "Diverged", "p50 rec/live", "p99 rec/live", "p99 delta");
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(recordedLatency).entrySet()) {
+            Histogram recorded = entry.getValue();
+            Histogram replayed = replayedLatency.get(entry.getKey());
+            LongAdder endpointDiverged = divergedByEndpoint.get(entry.getKey());
+            System.out.printf(Locale.ROOT, "%-24s %7d %8d %6.1f/%-7.1f %6.1f/%-7.1f %+13.1f%%%n",
+                entry.getKey(), recorded.getTotalCount(), endpointDiverged == null ? 0 : endpointDiverged.sum(),
+                millis(recorded, 50), millis(replayed, 50), millis(recorded, 99), millis(replayed, 99),
+                percentChange(millis(recorded, 99), millis(replayed, 99)));
+        }
+        
+        if (diverged.sum() == 0) {
+            System.out.println("All responses matched their recording");
+            return;
+        }
+        System.out.println(diverged.sum() + " responses diverged from their recording; first " + examples.size() + ":");
+        examples.forEach(example -> System.out.println("  " + example));
+    }
+    
+    private static Histogram histogram(Map<String, Histogram> histograms, String endpoint) {
+        return histograms.computeIfAbsent(endpoint, k -> new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+    }
+    
+    private static long clamp(long micros) {
+        return Math.min(Math.max(micros, 1), HIGHEST_TRACKABLE_MICROS);
+    }
+    
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+    
+    private static double percentChange(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before * 100;
+    }
+    
+    private static class Scheduled {
+        final Exchange exchange;
+        final long offsetMicros;
+        
+        Scheduled(Exchange exchange, long offsetMicros) {
+            this.exchange = exchange;
+            this.offsetMicros = offsetMicros;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,120 @@
+package com.seletest.load;
+
+import java.util.Arrays;
+
+/**
+ * Robust trend of a time series: the Theil-Sen slope (median of all
+ * pairwise slopes) and the Mann-Kendall test for a monotonic trend. Neither
+ * is thrown off by a few GC pauses or latency spikes, and Mann-Kendall only
+ * calls a trend significant when it holds across the whole series, not
+ * just at its ends. Long series are first reduced to bin medians.
+ */
+public class Trend {
+    
+    static final int MAX_POINTS = 1500;
+    // One-sided 99%
+    private static final double SIGNIFICANT_Z = 2.326;
+    
+    private final int points;
+    private final double slopePerSecond;
+    private final double baseline;
+    private final double z;
+    
+    private Trend(int points, double slopePerSecond, double baseline, double z) {
+        this.points = points;
+        this.slopePerSecond = slopePerSecond;
+        this.baseline = baseline;
+        this.z = z;
+    }
+    
+    public static Trend of(double[] seconds, double[] values) {
+        int bin = (seconds.length + MAX_POINTS - 1) / MAX_POINTS;
+        if (bin > 1) {
+            int n = (seconds.length + bin - 1) / bin;
+            double[] binnedSeconds = new double[n];
+            double[] binnedValues = new double[n];
+            for (int i = 0; i < n; i++) {
+                int from = i * bin;
+                int to = Math.min(seconds.length, from + bin);
+                binnedSeconds[i] = median(Arrays.copyOfRange(seconds, from, to));
+                binnedValues[i] = median(Arrays.copyOfRange(values, from, to));
+            }
+            seconds = binnedSeconds;
+            values = binnedValues;
+        }
+        
+        int n = values.length;
+        double[] slopes = new double[n * (n - 1) / 2];
+        int count = 0;
+        long s = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (seconds[j] > seconds[i]) {
+                    slopes[count++] = (values[j] - values[i]) / (seconds[j] - seconds[i]);
+                }
+                s += Double.compare(values[j], values[i]);
+            }
+        }
+        double slope = count == 0 ? 0 : median(Arrays.copyOf(slopes, count));
+        double baseline = median(Arrays.copyOf(values, Math.min(n, Math.max(5, n / 10))));
+        return new Trend(n, slope, baseline, mannKendallZ(s, values));
+    }
+    
+    private static double mannKendallZ(long s, double[] values) {
+        int n = values.length;
+        double variance = n * (n - 1.0) * (2.0 * n + 5) / 18;
+        // Tied values (a flat RSS) lower the variance
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < n; ) {
+            int j = i;
+            while (j < n && sorted[j] == sorted[i]) {
+                j++;
+            }
+            double t = j - i;
+            variance -= t * (t - 1) * (2 * t + 5) / 18;
+            i = j;
+        }
+        if (variance <= 0 || s == 0) {
+            return 0;
+        }
+        return (s > 0 ? s - 1 : s + 1) / Math.sqrt(variance);
+    }
+    
+    private static double median(double[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        Arrays.sort(values);
+        int mid = values.length / 2;
+        return values.length % 2 == 1 ? values[mid] : (values[mid - 1] + values[mid]) / 2;
+    }
+    
+    public int getPoints() {
+        return points;
+    }
+    
+    public double getSlopePerSecond() {
+        return slopePerSecond;
+    }
+    
+    public double getBaseline() {
+        return baseline;
+    }
+    
+    public double getZ() {
+        return z;
+    }
+    
+    public double growthPercentPerHour() {
+        return baseline == 0 ? 0 : slopePerSecond * 3600 / baseline * 100;
+    }
+    
+    /**
+     * Whether the series rises significantly and by more than
+     * {@code maxPercentPerHour} of its starting level per hour.
+     */
+    public boolean exceeds(double maxPercentPerHour) {
+        return z > SIGNIFICANT_Z && growthPercentPerHour() > maxPercentPerHour;
+    }
+}
\ No newline at end of file
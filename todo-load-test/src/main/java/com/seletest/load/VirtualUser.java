@@ -0,0 +1,190 @@
+package com.seletest.load;
+
+import com.seletest.api.history.HistoryRecorder;
+import com.seletest.api.history.RecordedOp;
+import com.seletest.api.models.LoginRequest;
+import com.seletest.api.models.TodoItem;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One simulated client. It logs in, then loops over the operation mix until
+ * the deadline, updating and deleting only todos it created itself so that
+ * thousands of users sharing a handful of accounts don't trip over each other.
+ */
+public class VirtualUser implements Runnable {
+    
+    private final int index;
+    private final TodoApiClient client;
+    private final LoginRequest account;
+    private final OperationMix mix;
+    private final Map<Operation, EndpointStats> stats;
+    private final long recordFromNanos;
+    private final long deadlineNanos;
+    private final long thinkTimeMillis;
+    private final List<Integer> ownTodoIds = new ArrayList<>();
+    
+    private HistoryRecorder history;
+    private int accountKey;
+    private String token;
+    private int sequence;
+    
+    public VirtualUser(int index, TodoApiClient client, LoginRequest account, OperationMix mix,
+                       Map<Operation, EndpointStats> stats, long recordFromNanos, long deadlineNanos,
+                       long thinkTimeMillis) {
+        this.index = index;
+        this.client = client;
+        this.account = account;
+        this.mix = mix;
+        this.stats = stats;
+        this.recordFromNanos = recordFromNanos;
+        this.deadlineNanos = deadlineNanos;
+        this.thinkTimeMillis = thinkTimeMillis;
+    }
+    
+    /**
+     * Records every /items call into {@code history}, as made by account
+     * {@code accountKey}, for a linearizability check after the run.
+     */
+    public VirtualUser withHistory(HistoryRecorder history, int accountKey) {
+        this.history = history;
+        this.accountKey = accountKey;
+        return this;
+    }
+    
+    @Override
+    public void run() {
+        try {
+            while (System.nanoTime() < deadlineNanos) {
+                Operation operation = token == null ? Operation.LOGIN : mix.next();
+                if ((operation == Operation.UPDATE || operation == Operation.DELETE) && ownTodoIds.isEmpty()) {
+                    operation = Operation.CREATE;
+                }
+                execute(operation);
+                if (thinkTimeMillis > 0) {
+                    Thread.sleep(thinkTimeMillis);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void execute(Operation operation) throws InterruptedException {
+        long start = System.nanoTime();
+        boolean success;
+        try {
+            success = perform(operation);
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            success = false;
+        }
+        if (start >= recordFromNanos) {
+            stats.get(operation).record(System.nanoTime() - start, success);
+        }
+    }
+    
+    private boolean perform(Operation operation) throws Exception {
+        HttpResponse<String> response;
+        switch (operation) {
+            case LOGIN:
+                response = client.login(account);
+                if (response.statusCode() == 200) {
+                    token = TodoApiClient.readToken(response);
+                }
+                return response.statusCode() == 200;
+                
+            case LIST:
+                response = call(() -> client.list(token), (invoked, completed, status, listed) -> {
+                    // Lists that fail or aren't sampled constrain nothing, so they aren't kept
+                    if (status == 200 && history.sampleList()) {
+                        history.recordList(accountKey, invoked, completed, status, TodoApiClient.readItems(listed));
+                    }
+                });
+                break;
+                
+            case CREATE:
+                TodoItem todo = new TodoItem("load vu-" + index + " #" + (++sequence));
+                response = call(() -> client.create(token, todo), (invoked, completed, status, created) ->
+                    history.recordCreate(accountKey, todo.getText(), invoked, completed, status,
+                        status == 201 ? TodoApiClient.readItem(created) : null));
+                if (response.statusCode() == 201) {
+                    Integer id = TodoApiClient.readId(response);
+                    if (id != null) {
+                        ownTodoIds.add(id);
+                    }
+                }
+                break;
+                
+            case UPDATE:
+                int updateId = ownTodoIds.get(ThreadLocalRandom.current().nextInt(ownTodoIds.size()));
+                TodoItem update = new TodoItem("load vu-" + index + " updated #" + (++sequence),
+                    ThreadLocalRandom.current().nextBoolean());
+                response = call(() -> client.update(token, updateId, update), (invoked, completed, status, updated) ->
+                    history.recordUpdate(accountKey, updateId, update, invoked, completed, status,
+                        status == 200 ? TodoApiClient.readItem(updated) : null));
+                break;
+                
+            case DELETE:
+                int deleteIndex = ThreadLocalRandom.current().nextInt(ownTodoIds.size());
+                int deleteId = ownTodoIds.get(deleteIndex);
+                response = call(() -> client.delete(token, deleteId), (invoked, completed, status, deleted) ->
+                    history.recordDelete(accountKey, deleteId, invoked, completed, status));
+                if (response.statusCode() == 204 || response.statusCode() == 404) {
+                    ownTodoIds.remove(deleteIndex);
+                }
+                break;
+                
+            default:
+                throw new IllegalStateException("Unhandled operation " + operation);
+        }
+        
+        if (response.statusCode() == 401 || response.statusCode() == 403) {
+            token = null;
+        }
+        return response.statusCode() < 400;
+    }
+    
+    /**
+     * Sends the call and, when recording, records it; a call that got no
+     * response is recorded with an unknown outcome before the error is rethrown.
+     */
+    private HttpResponse<String> call(Call call, Recording recording) throws IOException, InterruptedException {
+        long invoked = HistoryRecorder.now();
+        HttpResponse<String> response;
+        try {
+            response = call.send();
+        } catch (IOException | InterruptedException e) {
+            if (history != null) {
+                recording.record(invoked, HistoryRecorder.now(), RecordedOp.UNKNOWN, null);
+            }
+            throw e;
+        }
+        if (history != null) {
+            recording.record(invoked, HistoryRecorder.now(), response.statusCode(), response);
+        }
+        return response;
+    }
+    
+    public List<Integer> getOwnTodoIds() {
+        return ownTodoIds;
+    }
+    
+    public String getToken() {
+        return token;
+    }
+    
+    private interface Call {
+        HttpResponse<String> send() throws IOException, InterruptedException;
+    }
+    
+    private interface Recording {
+        void record(long invoked, long completed, int status, HttpResponse<String> response) throws IOException;
+    }
+}
\ No newline at end of file
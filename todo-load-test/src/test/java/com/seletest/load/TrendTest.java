@@ -0,0 +1,105 @@
+package com.seletest.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.DoubleUnaryOperator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Runs the soak verdict on synthetic RSS series shaped like a default soak
+ * run: a sample every 10 seconds for two hours, around 200 MB, against the
+ * default 5% per hour limit.
+ */
+@DisplayName("Trend Tests")
+public class TrendTest {
+    
+    private static final double SAMPLE_SECONDS = 10;
+    private static final int SAMPLES = 720;
+    private static final double BASE_MB = 200;
+    private static final double LIMIT_PERCENT_PER_HOUR = 5;
+    
+    @Test
+    @DisplayName("Flat series has no trend")
+    public void testFlat() {
+        Trend trend = trend(SAMPLES, SAMPLE_SECONDS, t -> BASE_MB, 0, 0);
+        
+        assertThat(trend.getSlopePerSecond(), is(0.0));
+        assertThat(trend.getZ(), is(0.0));
+        assertThat(trend.exceeds(LIMIT_PERCENT_PER_HOUR), is(false));
+    }
+    
+    @Test
+    @DisplayName("Noisy flat series has no significant trend")
+    public void testNoisyFlat() {
+        Trend trend = trend(SAMPLES, SAMPLE_SECONDS, t -> BASE_MB, 4, 0);
+        
+        assertThat(trend.getZ(), lessThan(2.326));
+        assertThat(Math.abs(trend.growthPercentPerHour()), lessThan(1.0));
+        assertThat(trend.exceeds(LIMIT_PERCENT_PER_HOUR), is(false));
+    }
+    
+    @Test
+    @DisplayName("Steady rise over the limit is flagged")
+    public void testSteadyRise() {
+        // 10% of the starting level per hour
+        Trend trend = trend(SAMPLES, SAMPLE_SECONDS, t -> BASE_MB + BASE_MB * 0.10 * t / 3600, 4, 0);
+        
+        assertThat(trend.getZ(), greaterThan(2.326));
+        assertThat(trend.growthPercentPerHour(), closeTo(10, 1.5));
+        assertThat(trend.exceeds(LIMIT_PERCENT_PER_HOUR), is(true));
+    }
+    
+    @Test
+    @DisplayName("Significant rise under the limit is not flagged")
+    public void testRiseUnderLimit() {
+        Trend trend = trend(SAMPLES, SAMPLE_SECONDS, t -> BASE_MB + BASE_MB * 0.02 * t / 3600, 1, 0);
+        
+        assertThat(trend.getZ(), greaterThan(2.326));
+        assertThat(trend.growthPercentPerHour(), closeTo(2, 0.5));
+        assertThat(trend.exceeds(LIMIT_PERCENT_PER_HOUR), is(false));
+    }
+    
+    @Test
+    @DisplayName("Spikes on a flat series are not a trend")
+    public void testSpikyFlat() {
+        // Every 30th sample triples, and the last few all spike, like GC pauses near the end of a run
+        Trend trend = trend(SAMPLES, SAMPLE_SECONDS, t -> BASE_MB, 4, 30);
+        
+        assertThat(Math.abs(trend.growthPercentPerHour()), lessThan(1.0));
+        assertThat(trend.exceeds(LIMIT_PERCENT_PER_HOUR), is(false));
+    }
+    
+    @Test
+    @DisplayName("Long series are binned and keep their trend")
+    public void testLongSeriesIsBinned() {
+        // A sample a second for four hours
+        Trend trend = trend(4 * 3600, 1, t -> BASE_MB + BASE_MB * 0.10 * t / 3600, 4, 0);
+        
+        assertThat(trend.getPoints(), lessThanOrEqualTo(Trend.MAX_POINTS));
+        assertThat(trend.growthPercentPerHour(), closeTo(10, 1.5));
+        assertThat(trend.exceeds(LIMIT_PERCENT_PER_HOUR), is(true));
+    }
+    
+    /**
+     * {@code count} samples of {@code level}, with seeded Gaussian noise of
+     * {@code noise} MB, and every {@code spikeEvery}th sample plus the last
+     * five tripled when it is positive.
+     */
+    private static Trend trend(int count, double interval, DoubleUnaryOperator level, double noise, int spikeEvery) {
+        Random random = new Random(7);
+        double[] seconds = new double[count];
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            seconds[i] = i * interval;
+            values[i] = level.applyAsDouble(seconds[i]) + noise * random.nextGaussian();
+            if (spikeEvery > 0 && (i % spikeEvery == spikeEvery - 1 || i >= count - 5)) {
+                values[i] *= 3;
+            }
+        }
+        return Trend.of(seconds, values);
+    }
+}
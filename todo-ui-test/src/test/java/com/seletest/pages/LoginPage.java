@@ -1,61 +1,77 @@
 package com.seletest.pages;
 
-import org.openqa.selenium.By;
+import com.seletest.utils.DomWait;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
-import org.openqa.selenium.support.ui.WebDriverWait;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 
 import java.time.Duration;
-import java.util.List;
 
 public class LoginPage {
     
+    private static final String USERNAME_INPUT = "[data-testid='username-input']";
+    private static final String PASSWORD_INPUT = "[data-testid='password-input']";
+    private static final String LOGIN_BUTTON = "[data-testid='login-button']";
+    private static final String LOGIN_ERROR = "[data-testid='login-error']";
+    private static final String PAGE_TITLE = "h1";
+    private static final String ANY_ERROR = "[data-testid='login-error'], .error, .alert-danger, [role='alert']";
+    private static final Duration ERROR_WAIT = Duration.ofSeconds(3);
+    
+    // Text of the login error if it shows, otherwise of the first other visible error element
+    private static final String ERROR_TEXT_SCRIPT =
+        "var own = $(args[0]);" +
+        "if (visible(own) && own.textContent.trim()) { return own.textContent.trim(); }" +
+        "var els = document.querySelectorAll(args[1]);" +
+        "for (var i = 0; i < els.length; i++) {" +
+        "  if (visible(els[i]) && els[i].textContent.trim()) { return els[i].textContent.trim(); }" +
+        "}" +
+        "return null;";
+    
     private WebDriver driver;
-    private WebDriverWait wait;
+    private DomWait wait;
     
-    @FindBy(css = "[data-testid='username-input']")
+    @FindBy(css = USERNAME_INPUT)
     private WebElement usernameInput;
     
-    @FindBy(css = "[data-testid='password-input']")
+    @FindBy(css = PASSWORD_INPUT)
     private WebElement passwordInput;
     
-    @FindBy(css = "[data-testid='login-button']")
+    @FindBy(css = LOGIN_BUTTON)
     private WebElement loginButton;
     
-    @FindBy(css = "[data-testid='login-error']")
+    @FindBy(css = LOGIN_ERROR)
     private WebElement loginError;
     
-    @FindBy(css = "h1")
+    @FindBy(css = PAGE_TITLE)
     private WebElement pageTitle;
     
     public LoginPage(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(5));
+        this.wait = new DomWait(driver);
         PageFactory.initElements(driver, this);
     }
     
     public void navigateToLoginPage(String baseUrl) {
         driver.get(baseUrl);
-        wait.until(ExpectedConditions.visibilityOf(pageTitle));
+        wait.untilVisible(PAGE_TITLE);
     }
     
     public void enterUsername(String username) {
-        wait.until(ExpectedConditions.visibilityOf(usernameInput));
+        wait.untilVisible(USERNAME_INPUT);
         usernameInput.clear();
         usernameInput.sendKeys(username);
     }
     
     public void enterPassword(String password) {
-        wait.until(ExpectedConditions.visibilityOf(passwordInput));
+        wait.untilVisible(PASSWORD_INPUT);
         passwordInput.clear();
         passwordInput.sendKeys(password);
     }
     
     public void clickLoginButton() {
-        wait.until(ExpectedConditions.elementToBeClickable(loginButton));
+        wait.untilClickable(LOGIN_BUTTON);
         loginButton.click();
     }
     
@@ -71,62 +87,30 @@ public class LoginPage {
         clickLoginButton();
         
         // Wait for successful login by checking for logout button
-        wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector("[data-testid='logout-button']")));
+        wait.untilPresent("[data-testid='logout-button']");
     }
     
     public boolean isLoginErrorDisplayed() {
-        try {
-            WebDriverWait shortWait = new WebDriverWait(driver, Duration.ofSeconds(3));
-            shortWait.until(ExpectedConditions.visibilityOf(loginError));
-            return loginError.isDisplayed();
-        } catch (Exception e) {
-            try {
-                // Check for common error selectors
-                List<WebElement> errorElements = driver.findElements(By.cssSelector(
-                    "[data-testid='login-error'], .error, .alert-danger, [role='alert']"
-                ));
-                
-                return errorElements.stream().anyMatch(el -> el.isDisplayed() && !el.getText().trim().isEmpty());
-                
-            } catch (Exception ex) {
-                System.err.println("Exception while searching for error elements: " + ex.getMessage());
-            }
-            return false;
-        }
+        // Resolves as soon as any of the common error elements shows text
+        return wait.holdsWithin(ERROR_WAIT, "a login error", ERROR_TEXT_SCRIPT, LOGIN_ERROR, ANY_ERROR);
     }
     
     public String getLoginErrorMessage() {
+        // Waits like isLoginErrorDisplayed, since the banner can render a moment after the response
         try {
-            if (loginError.isDisplayed()) {
-                return loginError.getText();
-            }
-        } catch (Exception e) {
-            try {
-                List<WebElement> errorElements = driver.findElements(By.cssSelector(
-                    "[data-testid='login-error'], .error, .alert-danger, [role='alert']"
-                ));
-                
-                return errorElements.stream()
-                    .filter(el -> el.isDisplayed() && !el.getText().trim().isEmpty())
-                    .map(WebElement::getText)
-                    .findFirst()
-                    .orElse("");
-                    
-            } catch (Exception ex) {
-                System.err.println("Could not get error message: " + ex.getMessage());
-            }
+            return wait.until(ERROR_WAIT, "a login error", ERROR_TEXT_SCRIPT, LOGIN_ERROR, ANY_ERROR);
+        } catch (TimeoutException e) {
+            return "";
         }
-        return "";
     }
     
     public String getPageTitle() {
-        wait.until(ExpectedConditions.visibilityOf(pageTitle));
-        return pageTitle.getText();
+        return wait.untilVisible(PAGE_TITLE).getText();
     }
     
     public boolean isLoginPageDisplayed() {
         try {
-            wait.until(ExpectedConditions.visibilityOf(usernameInput));
+            wait.untilVisible(USERNAME_INPUT);
             return usernameInput.isDisplayed() && passwordInput.isDisplayed() && loginButton.isDisplayed();
         } catch (Exception e) {
             return false;
@@ -1,98 +1,137 @@
 package com.seletest.pages;
 
+import com.seletest.utils.DomWait;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
-import org.openqa.selenium.support.ui.WebDriverWait;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class TodoPage {
     
+    // Collects every rendered todo in one round trip instead of one findElement/getText per item
+    private static final String SNAPSHOT_SCRIPT =
+        "var out = [];" +
+        "var nodes = document.querySelectorAll(\"li[data-testid^='todo-']\");" +
+        "for (var i = 0; i < nodes.length; i++) {" +
+        "  var match = /^todo-(\\d+)$/.exec(nodes[i].getAttribute('data-testid'));" +
+        "  if (!match) { continue; }" +
+        "  var text = nodes[i].querySelector(\"[data-testid='todo-text-\" + match[1] + \"']\");" +
+        "  var checkbox = nodes[i].querySelector(\"input[type='checkbox']\");" +
+        "  out.push({" +
+        "    id: parseInt(match[1], 10)," +
+        "    text: text ? text.textContent.trim() : null," +
+        "    completed: checkbox ? checkbox.checked : nodes[i].classList.contains('completed')" +
+        "  });" +
+        "}" +
+        "return out;";
+        
+    private static final String TODO_COUNT_SCRIPT =
+        "var nodes = document.querySelectorAll(\"li[data-testid^='todo-']\");" +
+        "var count = 0;" +
+        "for (var i = 0; i < nodes.length; i++) {" +
+        "  if (/^todo-\\d+$/.test(nodes[i].getAttribute('data-testid'))) { count++; }" +
+        "}";
+        
+    private static final String LOGOUT_BUTTON = "[data-testid='logout-button']";
+    private static final String NEW_TODO_INPUT = "[data-testid='new-todo-input']";
+    private static final String ADD_TODO_BUTTON = "[data-testid='add-todo-button']";
+    private static final String NO_TODOS = "[data-testid='no-todos']";
+    private static final String WELCOME_MESSAGE = ".user-info span";
+    private static final String PAGE_TITLE = "h1";
+    
     private WebDriver driver;
-    private WebDriverWait wait;
+    private DomWait wait;
     
-    @FindBy(css = "[data-testid='logout-button']")
+    @FindBy(css = LOGOUT_BUTTON)
     private WebElement logoutButton;
     
-    @FindBy(css = "[data-testid='new-todo-input']")
+    @FindBy(css = NEW_TODO_INPUT)
     private WebElement newTodoInput;
     
-    @FindBy(css = "[data-testid='add-todo-button']")
+    @FindBy(css = ADD_TODO_BUTTON)
     private WebElement addTodoButton;
     
-    @FindBy(css = "[data-testid='no-todos']")
+    @FindBy(css = NO_TODOS)
     private WebElement noTodosMessage;
     
-    @FindBy(css = ".user-info span")
+    @FindBy(css = WELCOME_MESSAGE)
     private WebElement welcomeMessage;
     
-    @FindBy(css = "h1")
+    @FindBy(css = PAGE_TITLE)
     private WebElement pageTitle;
     
     public TodoPage(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(5));
+        this.wait = new DomWait(driver);
         PageFactory.initElements(driver, this);
     }
     
     public boolean isTodoPageDisplayed() {
-        try {
-            WebDriverWait extendedWait = new WebDriverWait(driver, Duration.ofSeconds(10));
-            extendedWait.until(ExpectedConditions.visibilityOf(logoutButton));
-            return logoutButton.isDisplayed() && newTodoInput.isDisplayed() && addTodoButton.isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return isTodoPageDisplayedWithin(Duration.ofSeconds(10));
     }
     
     public boolean isTodoPageDisplayedQuick() {
-        try {
-            WebDriverWait quickWait = new WebDriverWait(driver, Duration.ofSeconds(2));
-            quickWait.until(ExpectedConditions.visibilityOf(pageTitle));
-            return logoutButton.isDisplayed() && newTodoInput.isDisplayed() && addTodoButton.isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return isTodoPageDisplayedWithin(Duration.ofSeconds(2));
+    }
+    
+    private boolean isTodoPageDisplayedWithin(Duration limit) {
+        return wait.holdsWithin(limit, "the todo page",
+            "return visible($(args[0])) && visible($(args[1])) && visible($(args[2]));",
+            LOGOUT_BUTTON, NEW_TODO_INPUT, ADD_TODO_BUTTON);
     }
     
     public String getWelcomeMessage() {
-        wait.until(ExpectedConditions.visibilityOf(welcomeMessage));
-        return welcomeMessage.getText();
+        return wait.untilVisible(WELCOME_MESSAGE).getText();
     }
     
     public void addTodo(String todoText) {
-        wait.until(ExpectedConditions.visibilityOf(newTodoInput));
+        wait.untilVisible(NEW_TODO_INPUT);
         newTodoInput.clear();
         newTodoInput.sendKeys(todoText);
         
-        wait.until(ExpectedConditions.elementToBeClickable(addTodoButton));
+        wait.untilClickable(ADD_TODO_BUTTON);
         int initialCount = getTodoCount();
         addTodoButton.click();
         
-        // Wait for todo count to increase
-        wait.until(driver -> getTodoCount() > initialCount);
+        // Resolves on the DOM mutation that renders the new item
+        wait.until("a new todo to render", TODO_COUNT_SCRIPT + "return count > args[0];", initialCount);
     }
     
     public boolean isTodoDisplayed(String todoText) {
-        try {
-            List<WebElement> todoTexts = driver.findElements(By.cssSelector("[data-testid^='todo-text-']"));
-            return todoTexts.stream().anyMatch(element -> element.getText().equals(todoText));
-        } catch (Exception e) {
-            return false;
+        return getTodoSnapshot().stream().anyMatch(todo -> todoText.equals(todo.getText()));
+    }
+    
+    // Empty only while the list hasn't rendered; script and session errors propagate
+    // so a broken page never reads as "no todos"
+    public List<TodoSnapshot> getTodoSnapshot() {
+        Object result = ((JavascriptExecutor) driver).executeScript(SNAPSHOT_SCRIPT);
+        if (!(result instanceof List)) {
+            throw new IllegalStateException("Todo snapshot script returned " + result + " instead of a list");
         }
+        List<TodoSnapshot> todos = new ArrayList<>();
+        for (Object row : (List<?>) result) {
+            Map<?, ?> todo = (Map<?, ?>) row;
+            todos.add(new TodoSnapshot(
+                ((Number) todo.get("id")).intValue(),
+                (String) todo.get("text"),
+                Boolean.TRUE.equals(todo.get("completed"))
+            ));
+        }
+        return todos;
     }
     
     public void editTodo(int todoId, String newText) {
-        WebElement editButton = driver.findElement(By.cssSelector("[data-testid='edit-button-" + todoId + "']"));
-        editButton.click();
+        wait.untilClickable("[data-testid='edit-button-" + todoId + "']").click();
         
-        WebElement editInput = wait.until(ExpectedConditions.visibilityOfElementLocated(
-            By.cssSelector("[data-testid='edit-input-" + todoId + "']")));
+        String editInputSelector = "[data-testid='edit-input-" + todoId + "']";
+        WebElement editInput = wait.untilVisible(editInputSelector);
         editInput.clear();
         editInput.sendKeys(newText);
         
@@ -100,75 +139,60 @@ public class TodoPage {
         saveButton.click();
         
         // Wait for edit mode to close
-        wait.until(ExpectedConditions.invisibilityOf(editInput));
+        wait.untilGone(editInputSelector);
     }
     
     public void deleteTodo(int todoId) {
-        WebElement deleteButton = driver.findElement(By.cssSelector("[data-testid='delete-button-" + todoId + "']"));
-        deleteButton.click();
+        wait.untilClickable("[data-testid='delete-button-" + todoId + "']").click();
         
         // Wait for the todo to be removed
-        wait.until(ExpectedConditions.invisibilityOfElementLocated(
-            By.cssSelector("[data-testid='todo-" + todoId + "']")));
+        wait.untilGone("[data-testid='todo-" + todoId + "']");
     }
     
     public int getTodoCount() {
-        try {
-            List<WebElement> todos = driver.findElements(By.cssSelector("[data-testid^='todo-']:not([data-testid*='text']):not([data-testid*='edit']):not([data-testid*='delete']):not([data-testid*='save'])"));
-            System.out.println("Current todo count: " + todos.size());
-            return todos.size();
-        } catch (Exception e) {
-            return 0;
-        }
+        int count = getTodoSnapshot().size();
+        System.out.println("Current todo count: " + count);
+        return count;
+    }
+    
+    public void waitForTodoCount(int expected) {
+        wait.until(Duration.ofSeconds(10), expected + " todos to render", TODO_COUNT_SCRIPT + "return count === args[0];", expected);
     }
     
     public boolean isNoTodosMessageDisplayed() {
-        try {
-            return noTodosMessage.isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return wait.isVisibleNow(NO_TODOS);
     }
     
     public int getFirstTodoId() {
-        try {
-            WebElement firstTodo = driver.findElement(By.cssSelector("[data-testid^='todo-']"));
-            String testId = firstTodo.getAttribute("data-testid");
-            return Integer.parseInt(testId.replace("todo-", ""));
-        } catch (Exception e) {
-            return -1;
-        }
+        List<TodoSnapshot> todos = getTodoSnapshot();
+        return todos.isEmpty() ? -1 : todos.get(0).getId();
     }
     
     public String getTodoText(int todoId) {
-        try {
-            WebElement todoText = driver.findElement(By.cssSelector("[data-testid='todo-text-" + todoId + "']"));
-            return todoText.getText();
-        } catch (Exception e) {
-            return "";
-        }
+        return getTodoSnapshot().stream()
+            .filter(todo -> todo.getId() == todoId && todo.getText() != null)
+            .map(TodoSnapshot::getText)
+            .findFirst()
+            .orElse("");
     }
     
     public void logout() {
-        wait.until(ExpectedConditions.elementToBeClickable(logoutButton));
-        logoutButton.click();
+        wait.untilClickable(LOGOUT_BUTTON).click();
     }
     
     public void clearAllTodos() {
         try {
             // Get all todos at once
-            List<WebElement> todos = driver.findElements(By.cssSelector("[data-testid^='todo-']:not([data-testid*='text']):not([data-testid*='edit']):not([data-testid*='delete']):not([data-testid*='save'])"));
+            List<TodoSnapshot> todos = getTodoSnapshot();
             
             if (todos.isEmpty()) {
                 return;
             }
             
             // Click all delete buttons first
-            for (WebElement todo : todos) {
+            for (TodoSnapshot todo : todos) {
                 try {
-                    String testId = todo.getAttribute("data-testid");
-                    int todoId = Integer.parseInt(testId.replace("todo-", ""));
-                    WebElement deleteButton = driver.findElement(By.cssSelector("[data-testid='delete-button-" + todoId + "']"));
+                    WebElement deleteButton = driver.findElement(By.cssSelector("[data-testid='delete-button-" + todo.getId() + "']"));
                     deleteButton.click();
                 } catch (Exception e) {
                     // Continue if one fails
@@ -176,11 +200,7 @@ public class TodoPage {
             }
             
             // Wait for all todos to be gone with shorter timeout
-            WebDriverWait shortWait = new WebDriverWait(driver, Duration.ofSeconds(3));
-            shortWait.until(driver -> {
-                List<WebElement> remainingTodos = driver.findElements(By.cssSelector("[data-testid^='todo-']:not([data-testid*='text']):not([data-testid*='edit']):not([data-testid*='delete']):not([data-testid*='save'])"));
-                return remainingTodos.isEmpty();
-            });
+            wait.until(Duration.ofSeconds(3), "the todo list to empty", TODO_COUNT_SCRIPT + "return count === 0;");
             
         } catch (Exception e) {
             System.err.println("Could not clear todos via UI: " + e.getMessage());
@@ -0,0 +1,32 @@
+package com.seletest.pages;
+
+public class TodoSnapshot {
+    
+    private final int id;
+    private final String text;
+    private final boolean completed;
+    
+    public TodoSnapshot(int id, String text, boolean completed) {
+        this.id = id;
+        this.text = text;
+        this.completed = completed;
+    }
+    
+    public int getId() {
+        return id;
+    }
+    
+    // Null while the todo is in edit mode
+    public String getText() {
+        return text;
+    }
+    
+    public boolean isCompleted() {
+        return completed;
+    }
+    
+    @Override
+    public String toString() {
+        return "TodoSnapshot{id=" + id + ", text='" + text + "', completed=" + completed + "}";
+    }
+}
\ No newline at end of file
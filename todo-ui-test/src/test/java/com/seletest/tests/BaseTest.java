@@ -1,29 +1,70 @@
 package com.seletest.tests;
 
+import com.seletest.api.models.LoginRequest;
+import com.seletest.api.utils.AuthHelper;
+import com.seletest.api.utils.TestHistoryExtension;
+import com.seletest.api.utils.TestImpactExtension;
 import com.seletest.utils.DriverManager;
+import com.seletest.utils.FailureArtifacts;
 import com.seletest.utils.TestDataHelper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
 
+@ExtendWith({TestHistoryExtension.class, TestImpactExtension.class, FailureArtifacts.class})
 public class BaseTest {
-
+  
   protected static final String BASE_URL = "http://localhost:3000";
   protected static final String BROWSER = System.getProperty("browser", "chrome");
-
+  
   @BeforeEach
   public void setUp() {
+    // The global clear would wipe todos other workers are asserting on; in
+    // parallel mode each test clears only its own account's todos
+    if (!DriverManager.PARALLEL_ENABLED) {
+      try {
+        TestDataHelper.clearTestData();
+      } catch (Exception e) {
+        System.out.println("INFO: API-based cleanup failed, will use UI-based cleanup in tests");
+      }
+    }
+    
+    DriverManager.setDriver(BROWSER);
+  }
+  
+  /**
+   * Opens the todo page already signed in by fetching a token over REST and
+   * writing it into localStorage, where the app looks for it on mount. The
+   * user's todos are cleared over REST too. Returns false when the API is
+   * unreachable so callers can fall back to the login form.
+   */
+  protected boolean loginViaApi(String username, String password) {
+    String token;
     try {
-      TestDataHelper.clearTestData();
+      token = AuthHelper.getToken(new LoginRequest(username, password));
+      TestDataHelper.clearTodos(token);
     } catch (Exception e) {
-      System.out.println("INFO: API-based cleanup failed, will use UI-based cleanup in tests");
+      System.out.println("INFO: API login failed, falling back to UI login - " + e.getMessage());
+      return false;
     }
-
-    DriverManager.setDriver(BROWSER);
+    
+    WebDriver driver = DriverManager.getDriver();
+    // Any same-origin URL gives access to the app's localStorage; the favicon avoids booting React twice
+    driver.get(BASE_URL + "/favicon.ico");
+    ((JavascriptExecutor) driver).executeScript(
+        "window.localStorage.setItem('token', arguments[0]);"
+            + "window.localStorage.setItem('username', arguments[1]);",
+        token, username);
+    driver.get(BASE_URL);
+    return true;
   }
-
+  
   @AfterEach
   public void tearDown() {
+    // Grab the evidence while the browser is still open; encoding and writing happen in the background
+    FailureArtifacts.captureIfFailed(DriverManager.getDriver());
     DriverManager.quitDriver();
   }
-}
-
+}
\ No newline at end of file
@@ -1,14 +1,21 @@
 package com.seletest.tests;
 
+import com.seletest.api.models.LoginRequest;
+import com.seletest.api.utils.DataSeeder;
 import com.seletest.pages.LoginPage;
 import com.seletest.pages.TodoPage;
+import com.seletest.pages.TodoSnapshot;
 import com.seletest.utils.DriverManager;
+import com.seletest.utils.TestAccounts;
 import com.seletest.utils.TestDataHelper;
 import io.qameta.allure.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @Epic("Todo UI")
@@ -16,6 +23,8 @@ import static org.junit.jupiter.api.Assertions.*;
 @DisplayName("Todo CRUD Operations Tests")
 public class TodoCrudTest extends BaseTest {
     
+    private static final int SEEDED_TODOS = 50;
+    
     private LoginPage loginPage;
     private TodoPage todoPage;
     
@@ -24,8 +33,15 @@ public class TodoCrudTest extends BaseTest {
         loginPage = new LoginPage(DriverManager.getDriver());
         todoPage = new TodoPage(DriverManager.getDriver());
         
+        // Only LoginTest drives the real login form; CRUD tests start from an injected session
+        LoginRequest account = TestAccounts.primary();
+        if (loginViaApi(account.getUsername(), account.getPassword())) {
+            assertTrue(todoPage.isTodoPageDisplayed(), "Should be logged in successfully");
+            return;
+        }
+        
         loginPage.navigateToLoginPage(BASE_URL);
-        loginPage.loginAndWaitForSuccess("admin", "password");
+        loginPage.loginAndWaitForSuccess(account.getUsername(), account.getPassword());
         assertTrue(todoPage.isTodoPageDisplayed(), "Should be logged in successfully");
         
         todoPage.clearAllTodos();
@@ -186,4 +202,27 @@ public class TodoCrudTest extends BaseTest {
         String currentText = todoPage.getTodoText(todoId);
         assertEquals(todoText, currentText, "Original text should remain unchanged");
     }
+    
+    @Test
+    @DisplayName("Render a long todo list")
+    @Description("Verify that todos created in bulk over the API all render after a reload")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Read todos")
+    public void testSeededTodosRender() {
+        DataSeeder.Result seeded = TestDataHelper.seedTodos(TestAccounts.primary(), SEEDED_TODOS);
+        try {
+            assertEquals(0, seeded.getFailedCount(), "Every seeded todo should be created");
+            
+            DriverManager.getDriver().navigate().refresh();
+            assertTrue(todoPage.isTodoPageDisplayed(), "Should still be logged in after reload");
+            todoPage.waitForTodoCount(SEEDED_TODOS);
+            
+            List<Integer> rendered = todoPage.getTodoSnapshot().stream()
+                .map(TodoSnapshot::getId)
+                .collect(Collectors.toList());
+            assertTrue(rendered.containsAll(seeded.getAllIds()), "Every seeded todo should be rendered");
+        } finally {
+            TestDataHelper.cleanupSeeded(seeded);
+        }
+    }
 }
\ No newline at end of file
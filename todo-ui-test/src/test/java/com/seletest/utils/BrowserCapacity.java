@@ -0,0 +1,98 @@
+package com.seletest.utils;
+
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfiguration;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfigurationStrategy;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * How many browsers this machine can run at once: one per core, limited by
+ * available memory at ui.parallel.browserMemoryMb each (default 512), and
+ * by -Dui.parallel.maxBrowsers when set. Also used as JUnit's parallel
+ * strategy so workers never outnumber browser slots.
+ */
+public class BrowserCapacity implements ParallelExecutionConfigurationStrategy {
+    
+    private static final long BROWSER_MEMORY_MB = Long.getLong("ui.parallel.browserMemoryMb", 512L);
+    private static final int MAX_BROWSERS = computeMaxBrowsers();
+    
+    public static int maxBrowsers() {
+        return MAX_BROWSERS;
+    }
+    
+    @Override
+    public ParallelExecutionConfiguration createConfiguration(ConfigurationParameters configurationParameters) {
+        int parallelism = MAX_BROWSERS;
+        return new ParallelExecutionConfiguration() {
+            @Override
+            public int getParallelism() {
+                return parallelism;
+            }
+            
+            @Override
+            public int getMinimumRunnable() {
+                return parallelism;
+            }
+            
+            @Override
+            public int getMaxPoolSize() {
+                return parallelism + 256;
+            }
+            
+            @Override
+            public int getCorePoolSize() {
+                return parallelism;
+            }
+            
+            @Override
+            public int getKeepAliveSeconds() {
+                return 30;
+            }
+        };
+    }
+    
+    private static int computeMaxBrowsers() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        long availableMb = availableMemoryMb();
+        int byMemory = availableMb > 0 ? (int) Math.max(1, availableMb / BROWSER_MEMORY_MB) : cores;
+        int capacity = Math.max(1, Math.min(cores, byMemory));
+        
+        Integer configured = Integer.getInteger("ui.parallel.maxBrowsers");
+        if (configured != null) {
+            capacity = Math.max(1, Math.min(capacity, configured));
+        }
+        System.out.println("INFO: Running up to " + capacity + " browsers (" + cores + " cores, "
+            + (availableMb > 0 ? availableMb + " MB" : "unknown") + " memory available)");
+        return capacity;
+    }
+    
+    private static long availableMemoryMb() {
+        // MemAvailable counts reclaimable page cache, which the free-memory figure below does not
+        Path meminfo = Paths.get("/proc/meminfo");
+        if (Files.isReadable(meminfo)) {
+            try {
+                List<String> lines = Files.readAllLines(meminfo);
+                for (String line : lines) {
+                    if (line.startsWith("MemAvailable:")) {
+                        return Long.parseLong(line.replaceAll("[^0-9]", "")) / 1024;
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                // Fall back to the JVM's view below
+            }
+        }
+        
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getFreePhysicalMemorySize() / (1024 * 1024);
+        }
+        return -1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,185 @@
+package com.seletest.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Waits on DOM conditions from inside the page. A MutationObserver re-checks
+ * the condition on every DOM change and resolves the moment it holds, rather
+ * than on WebDriverWait's 500 ms poll or after an implicit wait runs out.
+ * When the async script can't run (e.g. the page navigates mid-wait) it falls
+ * back to polling that starts at 10 ms and backs off to 250 ms.
+ *
+ * <p>Conditions are JavaScript function bodies that return a truthy value once
+ * satisfied; they see the wait's arguments as {@code args} and can use the
+ * {@code $(selector)} and {@code visible(element)} helpers.
+ */
+public class DomWait {
+    
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+    private static final long MIN_POLL_MS = 10;
+    private static final long MAX_POLL_MS = 250;
+    // Stay under the WebDriver default script timeout of 30s; longer waits poll
+    private static final long MAX_ASYNC_MS = 25_000;
+    
+    private static final String HELPERS =
+        "function $(selector) { return document.querySelector(selector); }" +
+        "function visible(el) {" +
+        "  if (!el || !el.isConnected) { return false; }" +
+        "  var style = window.getComputedStyle(el);" +
+        "  return style.display !== 'none' && style.visibility !== 'hidden' && el.getClientRects().length > 0;" +
+        "}";
+        
+    private static final String OBSERVE_SCRIPT =
+        "var check = new Function('args', arguments[0]);" +
+        "var timeout = arguments[1];" +
+        "var args = arguments[2];" +
+        "var done = arguments[arguments.length - 1];" +
+        "var test = function () { try { return check(args); } catch (e) { return null; } };" +
+        "var first = test();" +
+        "if (first) { done(first); return; }" +
+        "var finished = false, observer, timer, recheck;" +
+        "var finish = function (result) {" +
+        "  if (finished) { return; }" +
+        "  finished = true;" +
+        "  observer.disconnect(); clearTimeout(timer); clearInterval(recheck);" +
+        "  done(result);" +
+        "};" +
+        "var onChange = function () { var result = test(); if (result) { finish(result); } };" +
+        "observer = new MutationObserver(onChange);" +
+        "observer.observe(document.documentElement || document," +
+        "  { childList: true, subtree: true, attributes: true, characterData: true });" +
+        // Style and layout changes that don't touch the DOM (transitions, media queries) still get noticed
+        "recheck = setInterval(onChange, 100);" +
+        "timer = setTimeout(function () { finish(null); }, timeout);";
+        
+    private static final String CHECK_SCRIPT =
+        "var check = new Function('args', arguments[0]);" +
+        "try { return check(arguments[1]); } catch (e) { return null; }";
+        
+    private final WebDriver driver;
+    private final Duration timeout;
+    
+    public DomWait(WebDriver driver) {
+        this(driver, DEFAULT_TIMEOUT);
+    }
+    
+    public DomWait(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeout = timeout;
+    }
+    
+    public WebElement untilVisible(String css) {
+        return until("visibility of " + css,
+            "var el = $(args[0]); return visible(el) ? el : null;", css);
+    }
+    
+    public WebElement untilClickable(String css) {
+        return until("clickability of " + css,
+            "var el = $(args[0]); return visible(el) && !el.disabled ? el : null;", css);
+    }
+    
+    public WebElement untilPresent(String css) {
+        return until("presence of " + css, "return $(args[0]);", css);
+    }
+    
+    public void untilGone(String css) {
+        until("invisibility of " + css, "return !visible($(args[0]));", css);
+    }
+    
+    /**
+     * Single check with no waiting, for negative assertions.
+     */
+    public boolean isVisibleNow(String css) {
+        return isTruthy(check(HELPERS + "return visible($(args[0]));", Arrays.asList(css)));
+    }
+    
+    /**
+     * Like {@link #until} but returns false instead of throwing on timeout.
+     */
+    public boolean holdsWithin(Duration limit, String description, String condition, Object... args) {
+        try {
+            until(limit, description, condition, args);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+    
+    public <T> T until(String description, String condition, Object... args) {
+        return until(timeout, description, condition, args);
+    }
+    
+    @SuppressWarnings("unchecked")
+    public <T> T until(Duration limit, String description, String condition, Object... args) {
+        String body = HELPERS + condition;
+        List<Object> argList = Arrays.asList(args);
+        long deadline = System.nanoTime() + limit.toNanos();
+        
+        if (limit.toMillis() <= MAX_ASYNC_MS) {
+            try {
+                Object result = ((JavascriptExecutor) driver).executeAsyncScript(OBSERVE_SCRIPT, body, limit.toMillis(), argList);
+                if (isTruthy(result)) {
+                    return (T) result;
+                }
+                throw timeout(limit, description);
+            } catch (TimeoutException e) {
+                throw e;
+            } catch (WebDriverException e) {
+                // Navigation or a page without a document; poll for whatever time is left
+            }
+        }
+        
+        long interval = MIN_POLL_MS;
+        while (true) {
+            Object result = check(body, argList);
+            if (isTruthy(result)) {
+                return (T) result;
+            }
+            long remainingMs = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMs <= 0) {
+                throw timeout(limit, description);
+            }
+            sleep(Math.min(interval, remainingMs));
+            interval = Math.min(interval * 2, MAX_POLL_MS);
+        }
+    }
+    
+    private Object check(String body, List<Object> args) {
+        try {
+            return ((JavascriptExecutor) driver).executeScript(CHECK_SCRIPT, body, args);
+        } catch (WebDriverException e) {
+            return null;
+        }
+    }
+    
+    private static boolean isTruthy(Object result) {
+        if (result instanceof Number) {
+            return ((Number) result).doubleValue() != 0;
+        }
+        if (result instanceof String) {
+            return !((String) result).isEmpty();
+        }
+        return result != null && !Boolean.FALSE.equals(result);
+    }
+    
+    private static TimeoutException timeout(Duration limit, String description) {
+        return new TimeoutException("Timed out after " + limit.toMillis() + " ms waiting for " + description);
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting", e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,263 @@
+package com.seletest.utils;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Resolves each browser's driver binary once per JVM and remembers it per
+ * machine, so tests don't repeat WebDriverManager's online version lookup.
+ * In order: an explicit webdriver.*.driver property, the machine cache
+ * (valid while the driver exists and the browser binary hasn't changed),
+ * WebDriverManager, and finally the newest driver already in WebDriverManager's
+ * download cache. -Ddriver.offline=true skips the online step entirely.
+ */
+public class DriverBinaries {
+    
+    private static final boolean OFFLINE = Boolean.getBoolean("driver.offline");
+    private static final Map<String, CompletableFuture<Resolution>> resolved = new ConcurrentHashMap<>();
+    
+    private DriverBinaries() {
+    }
+    
+    /**
+     * Points Selenium at the driver for the browser (chrome or firefox).
+     */
+    public static void resolve(String browserName) {
+        String key = browserName.toLowerCase();
+        while (true) {
+            CompletableFuture<Resolution> pending = resolved.get(key);
+            if (pending != null) {
+                // Waits out a lookup another thread already has in flight for this browser
+                Resolution resolution = await(pending);
+                if (resolution != null) {
+                    System.setProperty(driverProperty(browserName), resolution.driver.toString());
+                    return;
+                }
+                continue;
+            }
+            
+            // Whoever installs the future does the lookup, outside the map, so a slow online
+            // lookup never blocks the other browser; everyone else waits on it
+            CompletableFuture<Resolution> lookup = new CompletableFuture<>();
+            if (resolved.putIfAbsent(key, lookup) != null) {
+                continue;
+            }
+            try {
+                Resolution resolution = lookUp(key);
+                lookup.complete(resolution);
+                System.setProperty(driverProperty(browserName), resolution.driver.toString());
+                return;
+            } catch (RuntimeException | Error e) {
+                resolved.remove(key, lookup);
+                lookup.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+    
+    private static Resolution await(CompletableFuture<Resolution> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException | CancellationException e) {
+            // The other thread's lookup failed; this caller tries its own
+            return null;
+        }
+    }
+    
+    /**
+     * Forgets a driver that came from the machine cache, e.g. after the
+     * browser rejected it. Returns false when there was nothing cached to
+     * forget, in which case resolving again won't help.
+     */
+    public static boolean invalidate(String browserName) {
+        CompletableFuture<Resolution> pending = resolved.remove(browserName.toLowerCase());
+        Resolution resolution = pending == null ? null : await(pending);
+        if (resolution == null || !resolution.fromCache) {
+            return false;
+        }
+        System.out.println("Warning: Cached " + browserName + " driver " + resolution.driver + " was rejected, resolving again");
+        System.clearProperty(driverProperty(browserName));
+        synchronized (DriverBinaries.class) {
+            Properties cache = loadCache();
+            cache.remove(browserName.toLowerCase() + ".driver");
+            saveCache(cache);
+        }
+        return true;
+    }
+    
+    private static Resolution lookUp(String browserName) {
+        String explicit = System.getProperty(driverProperty(browserName), "");
+        // The poms pass ${webdriver.*.driver} through unresolved when it isn't set
+        if (!explicit.isBlank() && !explicit.startsWith("${") && Files.isExecutable(Paths.get(explicit))) {
+            return new Resolution(Paths.get(explicit), false);
+        }
+        
+        WebDriverManager manager = manager(browserName);
+        String browserStamp = browserStamp(manager);
+        synchronized (DriverBinaries.class) {
+            Properties cache = loadCache();
+            String driver = cache.getProperty(browserName + ".driver");
+            if (driver != null && Files.isExecutable(Paths.get(driver))
+                    && browserStamp.equals(cache.getProperty(browserName + ".browser"))) {
+                return new Resolution(Paths.get(driver), true);
+            }
+        }
+        
+        Path driver = null;
+        if (!OFFLINE) {
+            try {
+                manager.setup();
+                driver = Paths.get(manager.getDownloadedDriverPath());
+            } catch (RuntimeException e) {
+                System.out.println("Warning: Online driver resolution failed, looking in the local cache - " + e.getMessage());
+            }
+        }
+        if (driver == null) {
+            driver = newestCachedDriver(manager, browserName).orElseThrow(() -> new IllegalStateException(
+                "No " + browserName + " driver in " + manager.config().getCachePath()
+                    + "; run once online or set -D" + driverProperty(browserName)));
+        }
+        
+        synchronized (DriverBinaries.class) {
+            Properties cache = loadCache();
+            cache.setProperty(browserName + ".driver", driver.toString());
+            cache.setProperty(browserName + ".browser", browserStamp);
+            saveCache(cache);
+        }
+        System.out.println("INFO: Using " + browserName + " driver " + driver);
+        return new Resolution(driver, false);
+    }
+    
+    private static WebDriverManager manager(String browserName) {
+        switch (browserName) {
+            case "chrome":
+                return WebDriverManager.chromedriver();
+            case "firefox":
+                return WebDriverManager.firefoxdriver();
+            default:
+                throw new IllegalArgumentException("Browser not supported: " + browserName);
+        }
+    }
+    
+    private static String driverProperty(String browserName) {
+        return "firefox".equalsIgnoreCase(browserName) ? "webdriver.gecko.driver" : "webdriver.chrome.driver";
+    }
+    
+    /**
+     * Identifies the installed browser build without running it: a browser
+     * upgrade replaces the binary and changes its size or timestamp.
+     */
+    private static String browserStamp(WebDriverManager manager) {
+        try {
+            Optional<Path> browser = manager.getBrowserPath();
+            if (browser.isPresent()) {
+                Path binary = browser.get().toRealPath();
+                return binary + "@" + Files.size(binary) + "@" + Files.getLastModifiedTime(binary).toMillis();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Fall through; if the cached driver then doesn't fit the browser, launch() invalidates it
+        }
+        return "unknown";
+    }
+    
+    private static Optional<Path> newestCachedDriver(WebDriverManager manager, String browserName) {
+        String binary = "firefox".equals(browserName) ? "geckodriver" : "chromedriver";
+        Path root = Paths.get(manager.config().getCachePath());
+        if (!Files.isDirectory(root)) {
+            return Optional.empty();
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            return files
+                .filter(path -> path.getFileName().toString().equals(binary) || path.getFileName().toString().equals(binary + ".exe"))
+                .filter(Files::isExecutable)
+                .max(Comparator.comparing(path -> path.getParent().getFileName().toString(), DriverBinaries::compareVersions));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+    
+    static int compareVersions(String a, String b) {
+        String[] left = a.split("\\.");
+        String[] right = b.split("\\.");
+        for (int i = 0; i < Math.max(left.length, right.length); i++) {
+            int difference = Long.compare(versionPart(left, i), versionPart(right, i));
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return 0;
+    }
+    
+    private static long versionPart(String[] parts, int index) {
+        if (index >= parts.length) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(parts[index]);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    private static Path cacheFile() {
+        String configured = System.getProperty("driver.cache.file");
+        if (configured != null) {
+            return Paths.get(configured);
+        }
+        return Paths.get(System.getProperty("user.home"), ".cache", "selenium", "seletest-drivers.properties");
+    }
+    
+    private static Properties loadCache() {
+        Properties cache = new Properties();
+        Path file = cacheFile();
+        if (Files.isReadable(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                cache.load(in);
+            } catch (IOException e) {
+                System.out.println("Warning: Ignoring unreadable driver cache " + file + " - " + e.getMessage());
+            }
+        }
+        return cache;
+    }
+    
+    private static void saveCache(Properties cache) {
+        Path file = cacheFile();
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            // Other forks on this machine may read it at the same time
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "seletest-drivers", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                cache.store(out, "Driver binaries resolved by DriverBinaries");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("Warning: Could not save driver cache " + file + " - " + e.getMessage());
+        }
+    }
+    
+    private static class Resolution {
+        private final Path driver;
+        private final boolean fromCache;
+        
+        Resolution(Path driver, boolean fromCache) {
+            this.driver = driver;
+            this.fromCache = fromCache;
+        }
+    }
+}
\ No newline at end of file
@@ -1,25 +1,108 @@
 package com.seletest.utils;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.seletest.api.utils.EndpointCoverage;
+import io.qameta.allure.Allure;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SessionNotCreatedException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.logging.LoggingPreferences;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
 
 public class DriverManager {
     
     private static final ThreadLocal<WebDriver> driverThreadLocal = new ThreadLocal<>();
+    private static final ThreadLocal<String> browserThreadLocal = new ThreadLocal<>();
+    private static final ThreadLocal<NetworkRecorder> networkThreadLocal = new ThreadLocal<>();
+    
+    // Parallel mode (-Dui.parallel=true) never runs more browsers than BrowserCapacity allows
+    public static final boolean PARALLEL_ENABLED = Boolean.getBoolean("ui.parallel");
+    private static final Semaphore browserSlots = PARALLEL_ENABLED ? new Semaphore(BrowserCapacity.maxBrowsers()) : null;
+    
+    // Pooled mode (-Ddriver.pool=true) keeps up to driver.pool.size warm sessions per browser in this fork
+    private static final boolean POOL_ENABLED = Boolean.getBoolean("driver.pool");
+    private static final int POOL_SIZE = Integer.getInteger("driver.pool.size",
+        Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    private static final Map<String, BlockingDeque<WebDriver>> idleDrivers = new ConcurrentHashMap<>();
+    
+    // Pre-warming (-Ddriver.prewarm=true) launches the next test's browser while the current test runs, at the cost
+    // of an extra browser that is thrown away after the last test; serial, unpooled runs only, since the pool already
+    // keeps browsers warm and parallel runs are capped by capacity
+    private static final boolean PREWARM_ENABLED = Boolean.getBoolean("driver.prewarm") && !POOL_ENABLED && !PARALLEL_ENABLED;
+    private static final long PREWARM_SHUTDOWN_SECONDS = 30;
+    private static final Map<String, CompletableFuture<WebDriver>> spareDrivers = new ConcurrentHashMap<>();
+    private static final ExecutorService prewarmer = PREWARM_ENABLED ? Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "browser-prewarm");
+        thread.setDaemon(true);
+        return thread;
+    }) : null;
+    
+    static {
+        if (POOL_ENABLED) {
+            Runtime.getRuntime().addShutdownHook(new Thread(DriverManager::shutdownPool, "driver-pool-shutdown"));
+        }
+        if (PREWARM_ENABLED) {
+            Runtime.getRuntime().addShutdownHook(new Thread(DriverManager::shutdownSpares, "driver-prewarm-shutdown"));
+        }
+    }
     
     public static WebDriver getDriver() {
         return driverThreadLocal.get();
     }
     
     public static void setDriver(String browserName) {
-        WebDriver driver = createDriver(browserName);
+        if (browserSlots != null) {
+            browserSlots.acquireUninterruptibly();
+        }
+        WebDriver driver;
+        try {
+            if (POOL_ENABLED) {
+                driver = acquirePooledDriver(browserName);
+            } else if (PREWARM_ENABLED) {
+                driver = takeSpareDriver(browserName);
+            } else {
+                driver = createDriver(browserName);
+            }
+        } catch (RuntimeException e) {
+            if (browserSlots != null) {
+                browserSlots.release();
+            }
+            throw e;
+        }
         driverThreadLocal.set(driver);
+        browserThreadLocal.set(browserName);
+        if (PREWARM_ENABLED) {
+            prewarm(browserName);
+        }
+        
+        // Chromium only: time every XHR/fetch the app makes during the test
+        NetworkRecorder recorder = NetworkRecorder.forDriver(driver);
+        if (recorder != null) {
+            recorder.start();
+            networkThreadLocal.set(recorder);
+        } else {
+            // Without the browser's calls the impact map would undersell this test
+            EndpointCoverage.recordAll();
+        }
     }
     
     private static WebDriver createDriver(String browserName) {
@@ -28,7 +111,6 @@ public class DriverManager {
         
         switch (browserName.toLowerCase()) {
             case "chrome":
-                WebDriverManager.chromedriver().setup();
                 ChromeOptions chromeOptions = new ChromeOptions();
                 if (headless) {
                     chromeOptions.addArguments("--headless");
@@ -37,23 +119,27 @@ public class DriverManager {
                 chromeOptions.addArguments("--disable-dev-shm-usage");
                 chromeOptions.addArguments("--disable-gpu");
                 chromeOptions.addArguments("--window-size=1920,1080");
-                driver = new ChromeDriver(chromeOptions);
+                // Lets FailureArtifacts read the console of a failed test
+                LoggingPreferences logging = new LoggingPreferences();
+                logging.enable(LogType.BROWSER, Level.ALL);
+                chromeOptions.setCapability(ChromeOptions.LOGGING_PREFS, logging);
+                driver = launch(browserName, () -> new ChromeDriver(chromeOptions));
                 break;
                 
             case "firefox":
-                WebDriverManager.firefoxdriver().setup();
                 FirefoxOptions firefoxOptions = new FirefoxOptions();
                 if (headless) {
                     firefoxOptions.addArguments("--headless");
                 }
-                driver = new FirefoxDriver(firefoxOptions);
+                driver = launch(browserName, () -> new FirefoxDriver(firefoxOptions));
                 break;
                 
             default:
                 throw new IllegalArgumentException("Browser not supported: " + browserName);
         }
         
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(3));
+        // Page objects wait explicitly through DomWait; an implicit wait would stall every negative lookup
+        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(Long.getLong("ui.implicitWaitSeconds", 0L)));
         driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
         
         try {
@@ -65,11 +151,163 @@ public class DriverManager {
         return driver;
     }
     
+    private static WebDriver launch(String browserName, Supplier<WebDriver> launcher) {
+        DriverBinaries.resolve(browserName);
+        try {
+            return launcher.get();
+        } catch (SessionNotCreatedException e) {
+            // Usually a cached driver that no longer matches the installed browser
+            if (!DriverBinaries.invalidate(browserName)) {
+                throw e;
+            }
+            DriverBinaries.resolve(browserName);
+            return launcher.get();
+        }
+    }
+    
     public static void quitDriver() {
         WebDriver driver = driverThreadLocal.get();
         if (driver != null) {
-            driver.quit();
+            reportNetworkCalls();
+            if (POOL_ENABLED) {
+                releasePooledDriver(browserThreadLocal.get(), driver);
+            } else {
+                NetworkRecorder.discard(driver);
+                driver.quit();
+            }
             driverThreadLocal.remove();
+            browserThreadLocal.remove();
+            if (browserSlots != null) {
+                browserSlots.release();
+            }
+        }
+    }
+    
+    private static void reportNetworkCalls() {
+        NetworkRecorder recorder = networkThreadLocal.get();
+        if (recorder == null) {
+            return;
+        }
+        networkThreadLocal.remove();
+        
+        List<NetworkRecorder.Call> calls = recorder.stop();
+        for (NetworkRecorder.Call call : calls) {
+            EndpointCoverage.record(call.method(), call.path());
+        }
+        Allure.addAttachment("Network waterfall", "text/plain", NetworkRecorder.waterfall(calls), ".txt");
+        for (NetworkRecorder.Call call : NetworkRecorder.slowCalls(calls)) {
+            System.out.println("Warning: Slow API call (> " + NetworkRecorder.SLOW_CALL_MS + " ms): " + call);
+        }
+    }
+    
+    private static WebDriver takeSpareDriver(String browserName) {
+        CompletableFuture<WebDriver> spare = spareDrivers.remove(browserName.toLowerCase());
+        if (spare != null) {
+            try {
+                WebDriver driver = spare.join();
+                if (isAlive(driver)) {
+                    return driver;
+                }
+                evict(driver);
+            } catch (CompletionException e) {
+                System.out.println("Warning: Pre-warmed browser failed to start: " + e.getCause().getMessage());
+            }
+        }
+        return createDriver(browserName);
+    }
+    
+    private static void prewarm(String browserName) {
+        spareDrivers.computeIfAbsent(browserName.toLowerCase(),
+            k -> CompletableFuture.supplyAsync(() -> createDriver(browserName), prewarmer));
+    }
+    
+    private static void shutdownSpares() {
+        // The browser warmed for a test that never came
+        for (CompletableFuture<WebDriver> spare : spareDrivers.values()) {
+            try {
+                evict(spare.get(PREWARM_SHUTDOWN_SECONDS, TimeUnit.SECONDS));
+            } catch (Exception e) {
+                // Never started, or still starting; nothing to quit
+            }
+        }
+        prewarmer.shutdownNow();
+    }
+    
+    private static WebDriver acquirePooledDriver(String browserName) {
+        BlockingDeque<WebDriver> idle = idleDrivers.computeIfAbsent(browserName.toLowerCase(), k -> new LinkedBlockingDeque<>());
+        
+        WebDriver driver;
+        while ((driver = idle.pollFirst()) != null) {
+            if (isAlive(driver)) {
+                return driver;
+            }
+            evict(driver);
+        }
+        return createDriver(browserName);
+    }
+    
+    private static void releasePooledDriver(String browserName, WebDriver driver) {
+        if (!resetSession(driver)) {
+            evict(driver);
+            return;
+        }
+        
+        BlockingDeque<WebDriver> idle = idleDrivers.computeIfAbsent(browserName.toLowerCase(), k -> new LinkedBlockingDeque<>());
+        if (idle.size() >= POOL_SIZE || !idle.offerFirst(driver)) {
+            evict(driver);
+        }
+    }
+    
+    private static boolean resetSession(WebDriver driver) {
+        try {
+            // Close any extra windows the test opened, keeping the first one
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            for (int i = 1; i < handles.size(); i++) {
+                driver.switchTo().window(handles.get(i));
+                driver.close();
+            }
+            driver.switchTo().window(handles.get(0));
+            
+            // Storage is per-origin, so clear it while still on the app's page
+            driver.manage().deleteAllCookies();
+            try {
+                ((JavascriptExecutor) driver).executeScript(
+                    "window.localStorage.clear(); window.sessionStorage.clear();");
+            } catch (Exception e) {
+                // Pages like about:blank have no storage to clear
+            }
+            driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            System.out.println("Warning: Evicting pooled driver that failed to reset: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    private static boolean isAlive(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+    
+    private static void evict(WebDriver driver) {
+        NetworkRecorder.discard(driver);
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            // Session already gone
+        }
+    }
+    
+    private static void shutdownPool() {
+        for (BlockingDeque<WebDriver> idle : idleDrivers.values()) {
+            WebDriver driver;
+            while ((driver = idle.pollFirst()) != null) {
+                evict(driver);
+            }
         }
     }
 }
\ No newline at end of file
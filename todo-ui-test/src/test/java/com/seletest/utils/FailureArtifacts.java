@@ -0,0 +1,245 @@
+package com.seletest.utils;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Screenshot, DOM snapshot and browser console of a failed UI test. The test
+ * thread only pulls the raw data out of the browser; JPEG encoding, gzip and
+ * writing into the Allure results run on a small bounded executor, so a
+ * failure doesn't hold up the next test. Attachments are registered with
+ * Allure up front and filled in once written, so each encoder always
+ * returns the format its attachment was registered as.
+ *
+ * <p>The bytes written per run are capped by ui.artifacts.maxRunMb (default
+ * 200). Each capture reserves its raw size, which compression only shrinks,
+ * and is skipped when that doesn't fit; the savings are returned afterwards.
+ */
+public class FailureArtifacts implements AfterTestExecutionCallback {
+    
+    private static final long MAX_RUN_BYTES = Long.getLong("ui.artifacts.maxRunMb", 200L) * 1024 * 1024;
+    private static final int QUEUE_SIZE = Integer.getInteger("ui.artifacts.queue", 8);
+    private static final float JPEG_QUALITY = 0.8f;
+    private static final long SHUTDOWN_WAIT_SECONDS = 60;
+    
+    private static final ThreadLocal<Boolean> failed = new ThreadLocal<>();
+    private static final AtomicLong bytesUsed = new AtomicLong();
+    private static final AtomicInteger written = new AtomicInteger();
+    private static final AtomicInteger skipped = new AtomicInteger();
+    
+    // Two workers at most; when both are busy and the queue is full the capture is dropped rather than block the test
+    private static final ThreadPoolExecutor writer = new ThreadPoolExecutor(1, 2, 30, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(QUEUE_SIZE), task -> {
+            Thread thread = new Thread(task, "failure-artifacts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(FailureArtifacts::drain, "failure-artifacts-drain"));
+    }
+    
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        // Runs before @AfterEach, so tearDown knows whether to capture
+        failed.set(context.getExecutionException().isPresent());
+    }
+    
+    /**
+     * Captures and queues the artifacts if the current test failed. Call from
+     * @AfterEach while the driver is still open.
+     */
+    public static void captureIfFailed(WebDriver driver) {
+        boolean testFailed = Boolean.TRUE.equals(failed.get());
+        failed.remove();
+        if (!testFailed || driver == null) {
+            return;
+        }
+        
+        List<Artifact> artifacts = new ArrayList<>();
+        try {
+            byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            artifacts.add(new Artifact("Failure screenshot", "image/jpeg", ".jpg", png, FailureArtifacts::toJpeg));
+        } catch (Exception e) {
+            System.out.println("Warning: Could not take failure screenshot: " + e.getMessage());
+        }
+        try {
+            String dom = "<!-- " + driver.getCurrentUrl() + " at " + Instant.now() + " -->\n" + driver.getPageSource();
+            artifacts.add(new Artifact("Failure DOM snapshot", "application/gzip", ".html.gz",
+                dom.getBytes(StandardCharsets.UTF_8), FailureArtifacts::gzip));
+        } catch (Exception e) {
+            System.out.println("Warning: Could not snapshot the DOM: " + e.getMessage());
+        }
+        try {
+            StringBuilder console = new StringBuilder();
+            for (LogEntry entry : driver.manage().logs().get(LogType.BROWSER)) {
+                console.append(Instant.ofEpochMilli(entry.getTimestamp())).append(' ')
+                    .append(entry.getLevel()).append(' ').append(entry.getMessage()).append('\n');
+            }
+            artifacts.add(new Artifact("Browser console", "text/plain", ".txt",
+                console.toString().getBytes(StandardCharsets.UTF_8), raw -> raw));
+        } catch (Exception e) {
+            // Only Chromium exposes the console through the logging API
+        }
+        
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        for (Artifact artifact : artifacts) {
+            if (!reserve(artifact.raw.length)) {
+                skipped.incrementAndGet();
+                System.out.println("Warning: Skipping " + artifact.name + ", the run's "
+                    + MAX_RUN_BYTES / (1024 * 1024) + " MB artifact quota is used up");
+                continue;
+            }
+            // Registered only once the writer has taken it, so a dropped capture leaves no link behind
+            CompletableFuture<String> source = new CompletableFuture<>();
+            try {
+                writer.execute(() -> write(lifecycle, source, artifact));
+            } catch (RejectedExecutionException e) {
+                bytesUsed.addAndGet(-artifact.raw.length);
+                skipped.incrementAndGet();
+                System.out.println("Warning: Skipping " + artifact.name + ", the artifact writer is backed up");
+                continue;
+            }
+            try {
+                source.complete(lifecycle.prepareAttachment(artifact.name, artifact.type, artifact.extension));
+            } finally {
+                // Releases the worker even if Allure couldn't register it
+                source.complete(null);
+            }
+        }
+    }
+    
+    private static void write(AllureLifecycle lifecycle, CompletableFuture<String> registered, Artifact artifact) {
+        String source = registered.join();
+        byte[] encoded = null;
+        try {
+            encoded = source == null ? null : artifact.encoder.encode(artifact.raw);
+        } catch (IOException | RuntimeException e) {
+            // The raw bytes aren't in the registered format, so the attachment stays empty instead
+            System.out.println("Warning: Could not encode " + artifact.name + ": " + e.getMessage());
+        }
+        if (encoded == null) {
+            bytesUsed.addAndGet(-artifact.raw.length);
+            skipped.incrementAndGet();
+            return;
+        }
+        // Hand back what compression saved
+        bytesUsed.addAndGet(encoded.length - (long) artifact.raw.length);
+        lifecycle.writeAttachment(source, new ByteArrayInputStream(encoded));
+        written.incrementAndGet();
+    }
+    
+    private static boolean reserve(long bytes) {
+        while (true) {
+            long used = bytesUsed.get();
+            if (used + bytes > MAX_RUN_BYTES) {
+                return false;
+            }
+            if (bytesUsed.compareAndSet(used, used + bytes)) {
+                return true;
+            }
+        }
+    }
+    
+    private static byte[] toJpeg(byte[] png) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(png));
+        if (source == null) {
+            throw new IOException("unreadable PNG");
+        }
+        // JPEG has no alpha channel
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.drawImage(source, 0, 0, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        
+        ImageWriter jpeg = ImageIO.getImageWritersByFormatName("jpg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            jpeg.setOutput(stream);
+            ImageWriteParam param = jpeg.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            jpeg.write(null, new IIOImage(rgb, null, null), param);
+        } finally {
+            jpeg.dispose();
+        }
+        return out.toByteArray();
+    }
+    
+    private static byte[] gzip(byte[] raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        }
+        return out.toByteArray();
+    }
+    
+    private static void drain() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                System.out.println("Warning: Gave up waiting for " + writer.getQueue().size() + " failure artifacts");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (written.get() > 0 || skipped.get() > 0) {
+            System.out.printf("INFO: Failure artifacts: %d written, %d skipped, %.1f MB used%n",
+                written.get(), skipped.get(), bytesUsed.get() / (1024.0 * 1024.0));
+        }
+    }
+    
+    private interface Encoder {
+        byte[] encode(byte[] raw) throws IOException;
+    }
+    
+    private static class Artifact {
+        private final String name;
+        private final String type;
+        private final String extension;
+        private final byte[] raw;
+        private final Encoder encoder;
+        
+        Artifact(String name, String type, String extension, byte[] raw, Encoder encoder) {
+            this.name = name;
+            this.type = type;
+            this.extension = extension;
+            this.raw = raw;
+            this.encoder = encoder;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,290 @@
+package com.seletest.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonInput;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Records the XHR/fetch calls a Chromium page makes through raw DevTools
+ * Network events, so it works whichever CDP version the browser speaks.
+ * One recorder is kept per driver because pooled sessions outlive a test;
+ * {@link #start()} and {@link #stop()} bracket each test.
+ */
+public class NetworkRecorder {
+    
+    // -Dui.network=false turns capture off; calls slower than ui.network.slowMs are flagged
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("ui.network", "true"));
+    public static final long SLOW_CALL_MS = Long.getLong("ui.network.slowMs", 1000L);
+    
+    private static final Map<WebDriver, NetworkRecorder> recorders = new ConcurrentHashMap<>();
+    private static final Function<JsonInput, Map<String, Object>> AS_MAP = input -> input.read(Json.MAP_TYPE);
+    private static final int BAR_WIDTH = 40;
+    
+    private final Map<String, Call> calls = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    
+    private NetworkRecorder() {
+    }
+    
+    /**
+     * Returns the recorder for a driver, subscribing on first use; null when
+     * capture is off, the browser has no DevTools, or the session can't be opened.
+     */
+    public static NetworkRecorder forDriver(WebDriver driver) {
+        if (!ENABLED || !(driver instanceof HasDevTools)) {
+            return null;
+        }
+        NetworkRecorder existing = recorders.get(driver);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            NetworkRecorder recorder = new NetworkRecorder();
+            recorder.subscribe(((HasDevTools) driver).getDevTools());
+            recorders.put(driver, recorder);
+            return recorder;
+        } catch (Exception e) {
+            System.out.println("Warning: Could not capture network timing: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    public static void discard(WebDriver driver) {
+        recorders.remove(driver);
+    }
+    
+    public void start() {
+        calls.clear();
+        recording = true;
+    }
+    
+    /**
+     * Stops recording and returns the completed and failed calls in start order.
+     */
+    public List<Call> stop() {
+        recording = false;
+        List<Call> finished = new ArrayList<>();
+        for (Call call : calls.values()) {
+            if (call.endTime > 0 || call.error != null) {
+                finished.add(call);
+            }
+        }
+        finished.sort(Comparator.comparingDouble(call -> call.startTime));
+        calls.clear();
+        return finished;
+    }
+    
+    private void subscribe(DevTools devTools) {
+        devTools.createSessionIfThereIsNotOne();
+        devTools.send(new Command<>("Network.enable", Map.of()));
+        
+        devTools.addListener(new Event<>("Network.requestWillBeSent", AS_MAP), event -> {
+            if (!recording || !isXhrOrFetch(event)) {
+                return;
+            }
+            Map<String, Object> request = map(event, "request");
+            Call call = new Call((String) request.get("method"), (String) request.get("url"));
+            call.startTime = number(event, "timestamp");
+            calls.put((String) event.get("requestId"), call);
+        });
+        devTools.addListener(new Event<>("Network.responseReceived", AS_MAP), event -> {
+            Call call = calls.get((String) event.get("requestId"));
+            if (call == null) {
+                return;
+            }
+            Map<String, Object> response = map(event, "response");
+            call.status = (int) number(response, "status");
+            Map<String, Object> timing = map(response, "timing");
+            if (!timing.isEmpty()) {
+                call.timing(timing);
+            }
+        });
+        devTools.addListener(new Event<>("Network.loadingFinished", AS_MAP), event -> {
+            Call call = calls.get((String) event.get("requestId"));
+            if (call != null) {
+                call.bytes = (long) number(event, "encodedDataLength");
+                call.endTime = number(event, "timestamp");
+            }
+        });
+        devTools.addListener(new Event<>("Network.loadingFailed", AS_MAP), event -> {
+            Call call = calls.get((String) event.get("requestId"));
+            if (call != null) {
+                call.error = String.valueOf(event.get("errorText"));
+                call.endTime = number(event, "timestamp");
+            }
+        });
+    }
+    
+    /**
+     * Text waterfall of the calls, one row each, with the phases drawn to
+     * scale across the test's network activity:
+     * q = queued, d = DNS, c = connect/TLS, s = send, w = waiting for the
+     * first byte, r = receiving.
+     */
+    public static String waterfall(List<Call> calls) {
+        if (calls.isEmpty()) {
+            return "No XHR/fetch calls recorded\n";
+        }
+        double origin = calls.get(0).startTime;
+        double span = 0;
+        for (Call call : calls) {
+            span = Math.max(span, call.endTime - origin);
+        }
+        double msPerChar = Math.max(1, span * 1000 / BAR_WIDTH);
+        
+        StringBuilder sb = new StringBuilder(String.format("%-4s %-7s %-32s %6s %9s %8s %8s  %s%n",
+            "#", "Method", "Path", "Status", "Size", "Start", "Total", "Timeline"));
+        int index = 1;
+        for (Call call : calls) {
+            double offsetMs = (call.startTime - origin) * 1000;
+            sb.append(String.format("%-4d %-7s %-32s %6s %9s %6.0fms %6.0fms  %s%s%n",
+                index++, call.method, truncate(call.path(), 32), call.error != null ? "ERR" : call.status,
+                formatBytes(call.bytes), offsetMs, call.totalMs(),
+                " ".repeat((int) (offsetMs / msPerChar)), call.bar(msPerChar)));
+        }
+        List<Call> slow = slowCalls(calls);
+        sb.append(String.format("%nLegend: q queued, d DNS, c connect/TLS, s send, w waiting (TTFB), r receiving;"
+            + " 1 char = %.0f ms%n", msPerChar));
+        for (Call call : slow) {
+            sb.append("SLOW (> ").append(SLOW_CALL_MS).append(" ms): ").append(call).append('\n');
+        }
+        return sb.toString();
+    }
+    
+    public static List<Call> slowCalls(List<Call> calls) {
+        List<Call> slow = new ArrayList<>();
+        for (Call call : calls) {
+            if (call.totalMs() > SLOW_CALL_MS) {
+                slow.add(call);
+            }
+        }
+        return slow;
+    }
+    
+    private static boolean isXhrOrFetch(Map<String, Object> event) {
+        Object type = event.get("type");
+        return "XHR".equals(type) || "Fetch".equals(type);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(Map<String, Object> parent, String key) {
+        Object value = parent.get(key);
+        return value instanceof Map ? (Map<String, Object>) value : Map.of();
+    }
+    
+    private static double number(Map<String, Object> parent, String key) {
+        Object value = parent.get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+    
+    private static String truncate(String text, int max) {
+        return text.length() <= max ? text : text.substring(0, max - 1) + "~";
+    }
+    
+    private static String formatBytes(long bytes) {
+        return bytes < 1024 ? bytes + " B" : String.format("%.1f KB", bytes / 1024.0);
+    }
+    
+    /**
+     * One XHR/fetch call. Phase durations are in ms and -1 when Chrome didn't
+     * report them (e.g. a reused connection has no DNS or connect phase).
+     */
+    public static class Call {
+        // Written on the DevTools connection thread, read on the test thread
+        private final String method;
+        private final String url;
+        private volatile double startTime;
+        private volatile double endTime;
+        private volatile int status;
+        private volatile long bytes;
+        private volatile String error;
+        private volatile double queuedMs = -1;
+        private volatile double dnsMs = -1;
+        private volatile double connectMs = -1;
+        private volatile double sendMs = -1;
+        private volatile double waitMs = -1;
+        private volatile double receiveTimeOrigin = -1;
+        private double receiveMs = -1;
+        
+        Call(String method, String url) {
+            this.method = method;
+            this.url = url;
+        }
+        
+        void timing(Map<String, Object> timing) {
+            double requestTime = number(timing, "requestTime");
+            queuedMs = Math.max(0, (requestTime - startTime) * 1000);
+            dnsMs = phase(timing, "dnsStart", "dnsEnd");
+            connectMs = phase(timing, "connectStart", "connectEnd");
+            sendMs = phase(timing, "sendStart", "sendEnd");
+            waitMs = phase(timing, "sendEnd", "receiveHeadersEnd");
+            receiveTimeOrigin = requestTime * 1000 + number(timing, "receiveHeadersEnd");
+        }
+        
+        public String method() {
+            return method;
+        }
+        
+        public String path() {
+            try {
+                String path = URI.create(url).getPath();
+                return path == null || path.isEmpty() ? url : path;
+            } catch (IllegalArgumentException e) {
+                return url;
+            }
+        }
+        
+        public double totalMs() {
+            return endTime > 0 ? (endTime - startTime) * 1000 : 0;
+        }
+        
+        public double receiveMs() {
+            if (receiveMs < 0 && receiveTimeOrigin > 0 && endTime > 0) {
+                receiveMs = Math.max(0, endTime * 1000 - receiveTimeOrigin);
+            }
+            return receiveMs;
+        }
+        
+        String bar(double msPerChar) {
+            StringBuilder bar = new StringBuilder();
+            appendPhase(bar, 'q', queuedMs, msPerChar);
+            appendPhase(bar, 'd', dnsMs, msPerChar);
+            appendPhase(bar, 'c', connectMs, msPerChar);
+            appendPhase(bar, 's', sendMs, msPerChar);
+            appendPhase(bar, 'w', waitMs, msPerChar);
+            appendPhase(bar, 'r', receiveMs(), msPerChar);
+            return bar.length() > 0 ? bar.toString() : "#".repeat(Math.max(1, (int) (totalMs() / msPerChar)));
+        }
+        
+        private static void appendPhase(StringBuilder bar, char symbol, double ms, double msPerChar) {
+            if (ms > 0) {
+                bar.append(String.valueOf(symbol).repeat(Math.max(1, (int) Math.round(ms / msPerChar))));
+            }
+        }
+        
+        private static double phase(Map<String, Object> timing, String startKey, String endKey) {
+            double start = number(timing, startKey);
+            double end = number(timing, endKey);
+            return start >= 0 && end >= start ? end - start : -1;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%s %s -> %s in %.0f ms (queued %.0f, dns %.0f, connect %.0f, send %.0f, wait %.0f,"
+                    + " receive %.0f), %s", method, url, error != null ? error : String.valueOf(status), totalMs(),
+                queuedMs, dnsMs, connectMs, sendMs, waitMs, receiveMs(), formatBytes(bytes));
+        }
+    }
+}
\ No newline at end of file
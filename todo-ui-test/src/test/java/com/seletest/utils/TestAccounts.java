@@ -0,0 +1,23 @@
+package com.seletest.utils;
+
+import com.seletest.api.models.LoginRequest;
+
+import java.util.List;
+
+/**
+ * The account a UI test signs in as. Serial runs use the demo admin; in
+ * parallel mode every worker thread registers its own account, so seeding
+ * and cleanup only ever touch that worker's todos.
+ */
+public class TestAccounts {
+    
+    private static final ThreadLocal<List<LoginRequest>> WORKER_ACCOUNT =
+        com.seletest.api.utils.TestAccounts.perWorker(TestDataHelper.BASE_URL, "ui-worker", "user");
+    
+    public static LoginRequest primary() {
+        if (!DriverManager.PARALLEL_ENABLED) {
+            return new LoginRequest("admin", "password");
+        }
+        return WORKER_ACCOUNT.get().get(0);
+    }
+}
\ No newline at end of file
@@ -1,13 +1,19 @@
 package com.seletest.utils;
 
-import io.restassured.RestAssured;
+import com.seletest.api.models.LoginRequest;
+import com.seletest.api.utils.ApiConfig;
+import com.seletest.api.utils.DataSeeder;
 import io.restassured.response.Response;
 
+import java.util.Collections;
+import java.util.List;
+
 import static io.restassured.RestAssured.given;
 
 public class TestDataHelper {
     
-    private static final String BASE_URL = "http://localhost:3001";
+    // Same server AuthHelper logs in to (-Dapi.baseUrl, default http://localhost:3001)
+    static final String BASE_URL = ApiConfig.BASE_URL;
     private static boolean apiAvailable = true;
     
     public static void clearTestData() {
@@ -22,7 +28,7 @@ public class TestDataHelper {
                     .baseUri(BASE_URL)
                 .when()
                     .delete("/api/todos");
-                
+                    
                 if (response.getStatusCode() == 200) {
                     return;
                 }
@@ -35,7 +41,7 @@ public class TestDataHelper {
                     .baseUri(BASE_URL)
                 .when()
                     .delete("/test/clear-data");
-                
+                    
                 if (response.getStatusCode() == 200) {
                     return;
                 }
@@ -49,4 +55,37 @@ public class TestDataHelper {
         apiAvailable = false;
         System.out.println("INFO: Using UI-based test data cleanup since API is not available.");
     }
+    
+    public static void clearTodos(String token) {
+        List<Integer> ids = given()
+            .baseUri(BASE_URL)
+            .header("Authorization", "Bearer " + token)
+        .when()
+            .get("/items")
+        .then()
+            .statusCode(200)
+            .extract()
+            .jsonPath()
+            .getList("id", Integer.class);
+            
+        for (Integer id : ids) {
+            given()
+                .baseUri(BASE_URL)
+                .header("Authorization", "Bearer " + token)
+            .when()
+                .delete("/items/" + id);
+        }
+    }
+    
+    /**
+     * Creates many todos for one account concurrently; pass the result to
+     * {@link #cleanupSeeded(DataSeeder.Result)} to delete exactly those todos.
+     */
+    public static DataSeeder.Result seedTodos(LoginRequest account, int count) {
+        return new DataSeeder(BASE_URL).seedTodos(Collections.singletonList(account), count);
+    }
+    
+    public static void cleanupSeeded(DataSeeder.Result seeded) {
+        new DataSeeder(BASE_URL).cleanup(seeded);
+    }
 }
\ No newline at end of file